@@ -0,0 +1,9 @@
+#!/bin/sh
+# Lets the replica in docker-compose.replica.yml stream from this server.
+# Runs on first start of a new data volume; for an existing one run it with
+#   docker compose exec -u postgres postgres sh /docker-entrypoint-initdb.d/enable-replication.sh
+# and then: docker compose exec postgres psql -U commissions_user -d commissions_db -c "SELECT pg_reload_conf()"
+set -e
+
+HBA="${PGDATA:-/var/lib/postgresql/data}/pg_hba.conf"
+grep -q "^host replication all all" "$HBA" || echo "host replication all all scram-sha-256" >> "$HBA"
@@ -0,0 +1,50 @@
+// Report endpoint load test for comparing platform-thread and virtual-thread mode.
+// See LOAD_TESTING.md. Run: k6 run -e BASE_URL=http://host:8080 -e SALESPERSON_IDS=1,2,3 loadtest/reports.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const SALESPERSON_IDS = (__ENV.SALESPERSON_IDS || '1').split(',');
+const RATE = parseInt(__ENV.RATE || '200');
+const DURATION = __ENV.DURATION || '5m';
+
+export const options = {
+    scenarios: {
+        reports: {
+            // Open model: arrivals don't slow down when the server does, so queueing shows up in latency
+            executor: 'constant-arrival-rate',
+            rate: RATE,
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: RATE,
+            maxVUs: RATE * 10,
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+    const username = `loadtest_${Date.now()}`;
+    const res = http.post(`${BASE_URL}/api/auth/register`, JSON.stringify({
+        username: username,
+        email: `${username}@example.com`,
+        password: 'loadtest-password',
+        firstName: 'Load',
+        lastName: 'Test',
+    }), { headers: { 'Content-Type': 'application/json' } });
+    check(res, { 'registered': (r) => r.status === 201 });
+    return { token: res.json('data.token') };
+}
+
+export default function (data) {
+    const id = SALESPERSON_IDS[Math.floor(Math.random() * SALESPERSON_IDS.length)];
+    const params = { headers: { Authorization: `Bearer ${data.token}` } };
+
+    // No If-None-Match, so every request reaches the database
+    const responses = http.batch([
+        ['GET', `${BASE_URL}/api/reports/salesperson/${id}/dashboard`, null, params],
+        ['GET', `${BASE_URL}/api/reports/salesperson/${id}/period?startDate=2024-01-01&endDate=2025-12-31`, null, params],
+        ['GET', `${BASE_URL}/api/reports/salesperson/${id}/commissions?size=50`, null, params],
+    ]);
+    responses.forEach((res) => check(res, { 'status 200': (r) => r.status === 200 }));
+}
@@ -0,0 +1,53 @@
+package com.ContractBilling.commissions.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * In-process caches for read-heavy reports and drawdown eligibility.
+ * Each cache has its own size bound and TTL; entries are also evicted
+ * explicitly when the underlying data changes (see ReportCacheEvictionListener).
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String SALESPERSON_DASHBOARD = "salespersonDashboard";
+    public static final String DRAWDOWN_ELIGIBILITY = "drawdownEligibility";
+
+    @Value("${reports.dashboard.cache-ttl:30s}")
+    private Duration dashboardTtl;
+
+    @Value("${reports.dashboard.cache-size:10000}")
+    private long dashboardSize;
+
+    // Eligibility depends on the current quarter too, so the TTL also bounds staleness at quarter end
+    @Value("${drawdowns.eligibility.cache-ttl:5m}")
+    private Duration eligibilityTtl;
+
+    @Value("${drawdowns.eligibility.cache-size:10000}")
+    private long eligibilitySize;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(SALESPERSON_DASHBOARD, Caffeine.newBuilder()
+                .expireAfterWrite(dashboardTtl)
+                .maximumSize(dashboardSize)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(DRAWDOWN_ELIGIBILITY, Caffeine.newBuilder()
+                .expireAfterWrite(eligibilityTtl)
+                .maximumSize(eligibilitySize)
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,81 @@
+package com.ContractBilling.commissions.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary.
+ *
+ * Only decides correctly once the transaction is set up, so it must sit behind
+ * a LazyConnectionDataSourceProxy (see ReadReplicaConfig). Reads fall back to
+ * the primary while the replica is lagging, or when it can't hand out a
+ * connection.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private enum Target { PRIMARY, REPLICA }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+    private final Counter staleFallbacks;
+    private final Counter unavailableFallbacks;
+
+    public ReadReplicaRoutingDataSource(DataSource primary,
+                                        DataSource replica,
+                                        ReplicaLagMonitor lagMonitor,
+                                        MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagMonitor = lagMonitor;
+        this.primaryConnections = meterRegistry.counter("datasource.routing", "target", "primary");
+        this.replicaConnections = meterRegistry.counter("datasource.routing", "target", "replica");
+        this.staleFallbacks = meterRegistry.counter("datasource.replica.fallback", "reason", "stale");
+        this.unavailableFallbacks = meterRegistry.counter("datasource.replica.fallback", "reason", "unavailable");
+
+        setTargetDataSources(Map.<Object, Object>of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Target.PRIMARY;
+        }
+        if (!lagMonitor.isUsable()) {
+            staleFallbacks.increment();
+            return Target.PRIMARY;
+        }
+        return Target.REPLICA;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() == Target.PRIMARY) {
+            primaryConnections.increment();
+            return primary.getConnection();
+        }
+
+        try {
+            Connection connection = replica.getConnection();
+            replicaConnections.increment();
+            return connection;
+        } catch (SQLException e) {
+            lagMonitor.markUnavailable(e);
+            unavailableFallbacks.increment();
+            primaryConnections.increment();
+            return primary.getConnection();
+        }
+    }
+}
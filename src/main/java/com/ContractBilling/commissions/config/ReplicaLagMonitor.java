@@ -0,0 +1,95 @@
+package com.ContractBilling.commissions.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Decides whether the read replica is fresh enough to serve reads.
+ *
+ * The replica's replay lag is checked every datasource.replica.lag-check-interval; while it is over
+ * max-lag, or the replica can't be reached, reads go to the primary. A replica
+ * that has replayed everything it received counts as zero lag, so an idle
+ * primary doesn't make it look stale; but only while its WAL receiver is
+ * streaming. A replica cut off from the primary has also replayed everything it
+ * received, so it is treated as unusable rather than current. Reading the
+ * receiver's status needs superuser or pg_read_all_stats; without it the
+ * replica is never used.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    // NULL while the replica isn't streaming from the primary
+    private static final String LAG_QUERY =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN NULL " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final JdbcTemplate replica;
+    private final double maxLagSeconds;
+
+    // NaN until the first check, and while the replica is unreachable or not streaming
+    private volatile double lagSeconds = Double.NaN;
+    private volatile boolean usable;
+
+    public ReplicaLagMonitor(DataSource replica, Duration maxLag, MeterRegistry meterRegistry) {
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+                .description("Replica replay lag behind the primary, in seconds")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.usable", this, monitor -> monitor.usable ? 1 : 0)
+                .description("1 while read-only transactions are routed to the replica")
+                .register(meterRegistry);
+    }
+
+    public boolean isUsable() {
+        return usable;
+    }
+
+    /** Stops routing reads to the replica until the next check reaches it. */
+    public void markUnavailable(Exception cause) {
+        if (usable) {
+            log.warn("Read replica unavailable, reading from the primary: {}", cause.getMessage());
+        }
+        usable = false;
+        lagSeconds = Double.NaN;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-interval:2s}")
+    void check() {
+        try {
+            Double lag = replica.queryForObject(LAG_QUERY, Double.class);
+            if (lag == null) {
+                if (usable) {
+                    log.warn("Read replica is not streaming from the primary, reading from the primary");
+                }
+                usable = false;
+                lagSeconds = Double.NaN;
+                return;
+            }
+            lagSeconds = lag;
+
+            boolean fresh = lagSeconds <= maxLagSeconds;
+            if (fresh != usable) {
+                if (fresh) {
+                    log.info("Read replica in use (lag {}s)", lagSeconds);
+                } else {
+                    log.warn("Read replica is {}s behind, reading from the primary", lagSeconds);
+                }
+            }
+            usable = fresh;
+        } catch (DataAccessException e) {
+            markUnavailable(e);
+        }
+    }
+}
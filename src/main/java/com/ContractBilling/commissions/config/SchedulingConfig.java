@@ -0,0 +1,13 @@
+package com.ContractBilling.commissions.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the @Scheduled background jobs (revocation polling, replica lag checks,
+ * expiry purges) on Boot's shared task scheduler, sized by spring.task.scheduling.*.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
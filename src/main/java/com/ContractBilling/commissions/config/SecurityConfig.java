@@ -2,6 +2,8 @@ package com.ContractBilling.commissions.config;
 
 import com.ContractBilling.commissions.security.JwtAuthenticationFilter;
 import com.ContractBilling.commissions.security.JwtTokenProvider;
+import com.ContractBilling.commissions.security.TokenRevocationCache;
+import com.ContractBilling.commissions.security.TokenRevocationList;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -31,6 +33,8 @@ public class SecurityConfig {
 
     private final UserDetailsService userDetailsService;
     private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationCache tokenRevocationCache;
+    private final TokenRevocationList tokenRevocationList;
 
     @Bean
     public PasswordEncoder passwordEncoder() {
@@ -55,7 +59,7 @@ public class SecurityConfig {
 
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtTokenProvider, userDetailsService);
+        return new JwtAuthenticationFilter(jwtTokenProvider, tokenRevocationCache, tokenRevocationList);
     }
 
     @Bean
@@ -76,6 +80,7 @@ public class SecurityConfig {
                 .cors().and()
                 .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS).and()
                 .authorizeHttpRequests(authz -> authz
+                        .requestMatchers("/api/auth/logout").authenticated()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/api-docs/**", "/swagger-ui.html").permitAll()
                         .requestMatchers("/actuator/**").permitAll()
@@ -4,16 +4,20 @@ import com.ContractBilling.commissions.dto.ApiResponse;
 import com.ContractBilling.commissions.dto.AuthResponse;
 import com.ContractBilling.commissions.dto.LoginRequest;
 import com.ContractBilling.commissions.dto.RegisterRequest;
+import com.ContractBilling.commissions.security.JwtPrincipal;
 import com.ContractBilling.commissions.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -40,14 +44,31 @@ public class AuthController {
 
     @PostMapping("/login")
     @Operation(summary = "Login user")
-    public ResponseEntity<ApiResponse<AuthResponse>> login(@Valid @RequestBody LoginRequest request) {
-        AuthResponse authResponse = authService.login(request);
+    public CompletableFuture<ResponseEntity<ApiResponse<AuthResponse>>> login(
+            @Valid @RequestBody LoginRequest request,
+            HttpServletRequest httpRequest) {
+
+        // Completes asynchronously, so no request thread waits while the password is checked
+        return authService.login(request, httpRequest.getRemoteAddr())
+                .thenApply(authResponse -> ResponseEntity.ok(
+                        ApiResponse.<AuthResponse>builder()
+                                .success(true)
+                                .message("Login successful")
+                                .data(authResponse)
+                                .timestamp(LocalDateTime.now())
+                                .build()
+                ));
+    }
+
+    @PostMapping("/logout")
+    @Operation(summary = "Logout user", description = "Revokes the bearer token used for this request")
+    public ResponseEntity<ApiResponse<Object>> logout(@AuthenticationPrincipal JwtPrincipal principal) {
+        authService.logout(principal);
 
         return ResponseEntity.ok(
-                ApiResponse.<AuthResponse>builder()
+                ApiResponse.builder()
                         .success(true)
-                        .message("Login successful")
-                        .data(authResponse)
+                        .message("Logout successful")
                         .timestamp(LocalDateTime.now())
                         .build()
         );
@@ -5,6 +5,7 @@ import com.ContractBilling.commissions.dto.CreateClientRequest;
 import com.ContractBilling.commissions.dto.UpdateClientRequest;
 import com.ContractBilling.commissions.entity.ClientStatus;
 import com.ContractBilling.commissions.service.ClientService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -14,8 +15,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -30,6 +33,7 @@ import java.util.List;
 public class ClientController {
 
     private final ClientService clientService;
+    private final ObjectMapper objectMapper;
 
     /**
      * CREATE - POST /api/clients
@@ -63,6 +67,12 @@ public class ClientController {
         return ResponseEntity.ok(clients);
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all clients as NDJSON", description = "One JSON object per line, in id order; memory use doesn't depend on table size")
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        return NdjsonResponses.<ClientResponse>stream(objectMapper, clientService::streamAll);
+    }
+
     /**
      * READ ONE - GET /api/clients/{id}
      */
@@ -135,11 +145,12 @@ public class ClientController {
      * SEARCH BY NAME - GET /api/clients/search?name=keyword
      */
     @GetMapping("/search")
-    @Operation(summary = "Search clients by name", description = "Searches for clients by name (case-insensitive partial match)")
-    public ResponseEntity<List<ClientResponse>> searchClients(@RequestParam String name) {
+    @Operation(summary = "Search clients by name", description = "Names containing the text or with a word close to it (small typos match), best match first. At least 3 characters; paged with page and size (max 100)")
+    public ResponseEntity<List<ClientResponse>> searchClients(@RequestParam String name,
+                                                              @PageableDefault(size = 20) Pageable pageable) {
         log.info("REST request to search clients by name: {}", name);
 
-        List<ClientResponse> clients = clientService.searchByName(name);
+        List<ClientResponse> clients = clientService.searchByName(name, pageable);
 
         return ResponseEntity.ok(clients);
     }
@@ -6,6 +6,7 @@ import com.ContractBilling.commissions.dto.CreateCommissionPlanRequest;
 import com.ContractBilling.commissions.dto.UpdateCommissionPlanRequest;
 import com.ContractBilling.commissions.entity.CommissionPlanStatus;
 import com.ContractBilling.commissions.service.CommissionPlanService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -14,8 +15,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -29,6 +32,7 @@ import static org.springframework.data.domain.Sort.Direction.DESC;
 public class CommissionPlanController {
 
     private final CommissionPlanService service;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @Operation(summary = "Create commission plan")
@@ -53,6 +57,12 @@ public class CommissionPlanController {
         return ResponseEntity.ok(service.getAll(pageable));
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all commission plans as NDJSON", description = "One JSON object per line, in id order; memory use doesn't depend on table size")
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        return NdjsonResponses.<CommissionPlanResponse>stream(objectMapper, service::streamAll);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get commission plan by ID")
     public ResponseEntity<ApiResponse<CommissionPlanResponse>> getById(@PathVariable Long id) {
@@ -6,6 +6,7 @@ import com.ContractBilling.commissions.dto.UpdateContractorRequest;
 import com.ContractBilling.commissions.entity.ContractorStatus;
 import com.ContractBilling.commissions.entity.ContractorType;
 import com.ContractBilling.commissions.service.ContractorService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -15,8 +16,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -31,6 +34,7 @@ import java.util.List;
 public class ContractorController {
 
     private final ContractorService contractorService;
+    private final ObjectMapper objectMapper;
 
     /**
      * CREATE - POST /api/contractors
@@ -64,6 +68,12 @@ public class ContractorController {
         return ResponseEntity.ok(contractors);
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all contractors as NDJSON", description = "One JSON object per line, in id order; memory use doesn't depend on table size")
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        return NdjsonResponses.<ContractorResponse>stream(objectMapper, contractorService::streamAll);
+    }
+
     /**
      * READ ONE - GET /api/contractors/{id}
      */
@@ -149,11 +159,12 @@ public class ContractorController {
      * SEARCH BY NAME - GET /api/contractors/search?name=keyword
      */
     @GetMapping("/search")
-    @Operation(summary = "Search contractors by name", description = "Searches for contractors by name (case-insensitive partial match)")
-    public ResponseEntity<List<ContractorResponse>> searchContractors(@RequestParam String name) {
+    @Operation(summary = "Search contractors by name", description = "Names containing the text or with a word close to it (small typos match), best match first. At least 3 characters; paged with page and size (max 100)")
+    public ResponseEntity<List<ContractorResponse>> searchContractors(@RequestParam String name,
+                                                                      @PageableDefault(size = 20) Pageable pageable) {
         log.info("REST request to search contractors by name: {}", name);
 
-        List<ContractorResponse> contractors = contractorService.searchByName(name);
+        List<ContractorResponse> contractors = contractorService.searchByName(name, pageable);
 
         return ResponseEntity.ok(contractors);
     }
@@ -1,21 +1,30 @@
 package com.ContractBilling.commissions.controller;
 
 import com.ContractBilling.commissions.dto.ApiResponse;
+import com.ContractBilling.commissions.dto.DrawdownBatchRequest;
+import com.ContractBilling.commissions.dto.DrawdownBatchResponse;
+import com.ContractBilling.commissions.dto.DrawdownEligibility;
 import com.ContractBilling.commissions.dto.DrawdownRequestResponse;
 import com.ContractBilling.commissions.entity.DrawdownRequest;
 import com.ContractBilling.commissions.repository.DrawdownRequestRepository;
 import com.ContractBilling.commissions.repository.SalespersonRepository;
+import com.ContractBilling.commissions.service.DrawdownEligibilityService;
 import com.ContractBilling.commissions.service.DrawdownEngine;
+import com.ContractBilling.commissions.service.IdempotencyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -25,35 +34,29 @@ import java.util.stream.Collectors;
 @Tag(name = "Drawdowns", description = "Commission drawdown/payout requests")
 public class DrawdownRequestController {
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final DrawdownRequestRepository repository;
     private final DrawdownEngine engine;
     private final SalespersonRepository salespersonRepository;
+    private final IdempotencyService idempotencyService;
+    private final DrawdownEligibilityService eligibilityService;
 
     @PostMapping
     @Operation(summary = "Request drawdown")
     public ResponseEntity<ApiResponse<DrawdownRequestResponse>> requestDrawdown(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
             @RequestParam Long salespersonId,
             @RequestParam BigDecimal amount) {
 
-        var salesperson = salespersonRepository.findById(salespersonId).orElseThrow();
-
-        DrawdownRequest request = DrawdownRequest.builder()
-                .salesperson(salesperson)
-                .requestedAmount(amount)
-                .status("PENDING")
-                .requestDate(LocalDate.now())
-                .build();
-
-        repository.save(request);
-
-        return ResponseEntity.status(HttpStatus.CREATED).body(
-                ApiResponse.<DrawdownRequestResponse>builder()
-                        .success(true)
-                        .message("Drawdown request created")
-                        .data(toResponse(request))
-                        .timestamp(LocalDateTime.now())
-                        .build()
-        );
+        return idempotencyService.execute(idempotencyKey,
+                "drawdown.request:" + salespersonId + ":" + amount.toPlainString(),
+                DrawdownRequestResponse.class, () -> {
+                    var salesperson = salespersonRepository.findById(salespersonId).orElseThrow();
+                    DrawdownRequest request = engine.requestDrawdown(salesperson, amount);
+                    return ResponseEntity.status(HttpStatus.CREATED)
+                            .body(ApiResponse.success(toResponse(request), "Drawdown request created"));
+                });
     }
 
     @GetMapping("/salesperson/{salespersonId}")
@@ -69,57 +72,79 @@ public class DrawdownRequestController {
 
     @PostMapping("/{id}/approve")
     @Operation(summary = "Approve drawdown")
-    public ResponseEntity<ApiResponse<Object>> approve(
+    public ResponseEntity<ApiResponse<DrawdownRequestResponse>> approve(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
             @PathVariable Long id,
             @RequestParam String approvedBy) {
 
-        var request = repository.findById(id).orElseThrow();
-        engine.approveDrawdown(request, approvedBy);
-
-        return ResponseEntity.ok(
-                ApiResponse.builder()
-                        .success(true)
-                        .message("Drawdown approved")
-                        .timestamp(LocalDateTime.now())
-                        .build()
-        );
+        return idempotencyService.execute(idempotencyKey, "drawdown.approve:" + id,
+                DrawdownRequestResponse.class, () -> ResponseEntity.ok(
+                        ApiResponse.success(toResponse(engine.approveDrawdown(id, approvedBy)), "Drawdown approved")));
     }
 
     @PostMapping("/{id}/reject")
     @Operation(summary = "Reject drawdown")
-    public ResponseEntity<ApiResponse<Object>> reject(
+    public ResponseEntity<ApiResponse<DrawdownRequestResponse>> reject(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
             @PathVariable Long id,
             @RequestParam String reason,
             @RequestParam String rejectedBy) {
 
-        var request = repository.findById(id).orElseThrow();
-        engine.rejectDrawdown(request, reason, rejectedBy);
-
-        return ResponseEntity.ok(
-                ApiResponse.builder()
-                        .success(true)
-                        .message("Drawdown rejected")
-                        .timestamp(LocalDateTime.now())
-                        .build()
-        );
+        return idempotencyService.execute(idempotencyKey, "drawdown.reject:" + id,
+                DrawdownRequestResponse.class, () -> ResponseEntity.ok(
+                        ApiResponse.success(toResponse(engine.rejectDrawdown(id, reason, rejectedBy)), "Drawdown rejected")));
     }
 
     @PostMapping("/{id}/pay")
     @Operation(summary = "Process payment")
-    public ResponseEntity<ApiResponse<Object>> pay(
+    public ResponseEntity<ApiResponse<DrawdownRequestResponse>> pay(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
             @PathVariable Long id,
             @RequestParam String paidBy) {
 
-        var request = repository.findById(id).orElseThrow();
-        engine.processPayment(request, paidBy);
+        return idempotencyService.execute(idempotencyKey, "drawdown.pay:" + id,
+                DrawdownRequestResponse.class, () -> ResponseEntity.ok(
+                        ApiResponse.success(toResponse(engine.processPayment(id, paidBy)), "Payment processed")));
+    }
 
-        return ResponseEntity.ok(
-                ApiResponse.builder()
-                        .success(true)
-                        .message("Payment processed")
-                        .timestamp(LocalDateTime.now())
-                        .build()
-        );
+    @PostMapping("/batch/approve")
+    @Operation(summary = "Approve drawdowns in batch", description = "Returns an outcome per id; ids that can't be approved don't fail the batch")
+    public ResponseEntity<ApiResponse<DrawdownBatchResponse>> approveBatch(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @Valid @RequestBody DrawdownBatchRequest batch,
+            @RequestParam String approvedBy) {
+
+        return idempotencyService.execute(idempotencyKey, batchOperation("drawdown.batch-approve", batch),
+                DrawdownBatchResponse.class, () -> ResponseEntity.ok(
+                        ApiResponse.success(engine.approveDrawdowns(batch.getIds(), approvedBy), "Drawdown batch approved")));
+    }
+
+    @PostMapping("/batch/pay")
+    @Operation(summary = "Process payments in batch", description = "Returns an outcome per id; ids that can't be paid don't fail the batch")
+    public ResponseEntity<ApiResponse<DrawdownBatchResponse>> payBatch(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @Valid @RequestBody DrawdownBatchRequest batch,
+            @RequestParam String paidBy) {
+
+        return idempotencyService.execute(idempotencyKey, batchOperation("drawdown.batch-pay", batch),
+                DrawdownBatchResponse.class, () -> ResponseEntity.ok(
+                        ApiResponse.success(engine.processPayments(batch.getIds(), paidBy), "Drawdown batch paid")));
+    }
+
+    @GetMapping("/eligibility")
+    @Operation(summary = "Get drawdown eligibility for many salespeople", description = "Up to 500 ids; unknown ids are left out")
+    public ResponseEntity<ApiResponse<List<DrawdownEligibility>>> getTeamEligibility(
+            @RequestParam List<Long> salespersonIds) {
+
+        return ResponseEntity.ok(ApiResponse.success(
+                eligibilityService.evaluate(salespersonIds), "Drawdown eligibility"));
+    }
+
+    @GetMapping("/salesperson/{salespersonId}/eligibility")
+    @Operation(summary = "Get drawdown eligibility for salesperson")
+    public ResponseEntity<ApiResponse<DrawdownEligibility>> getEligibility(@PathVariable Long salespersonId) {
+        return ResponseEntity.ok(ApiResponse.success(
+                eligibilityService.evaluate(salespersonId), "Drawdown eligibility"));
     }
 
     @GetMapping("/salesperson/{salespersonId}/available")
@@ -138,6 +163,19 @@ public class DrawdownRequestController {
         );
     }
 
+    // Id lists can be long, so the stored operation identifies the batch by its distinct ids' count and SHA-256.
+    // Sorted first: the engine treats a batch as a set, so order and repeats don't make it a different request.
+    private static String batchOperation(String name, DrawdownBatchRequest batch) {
+        List<Long> ids = batch.getIds().stream().distinct().sorted().toList();
+        String joined = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(joined.getBytes(StandardCharsets.UTF_8));
+            return name + ":" + ids.size() + ":" + HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
     private DrawdownRequestResponse toResponse(DrawdownRequest request) {
         return DrawdownRequestResponse.builder()
                 .id(request.getId())
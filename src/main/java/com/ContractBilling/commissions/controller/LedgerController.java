@@ -1,20 +1,33 @@
 package com.ContractBilling.commissions.controller;
 
+import com.ContractBilling.commissions.config.AsyncTimeoutConfig;
 import com.ContractBilling.commissions.dto.ApiResponse;
 import com.ContractBilling.commissions.dto.LedgerResponse;
 import com.ContractBilling.commissions.entity.LedgerEntryType;
+import com.ContractBilling.commissions.service.LedgerExportService;
 import com.ContractBilling.commissions.service.LedgerService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 import static org.springframework.data.domain.Sort.Direction.DESC;
 
@@ -25,6 +38,12 @@ import static org.springframework.data.domain.Sort.Direction.DESC;
 public class LedgerController {
 
     private final LedgerService service;
+    private final LedgerExportService exportService;
+    private final ObjectMapper objectMapper;
+
+    // Large exports run for minutes; other async requests keep the default timeout
+    @Value("${ledger.export.timeout:30m}")
+    private Duration exportTimeout;
 
     @GetMapping("/{id}")
     @Operation(summary = "Get ledger entry by ID")
@@ -48,6 +67,45 @@ public class LedgerController {
         return ResponseEntity.ok(service.getAll(pageable));
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all ledger entries as NDJSON", description = "One JSON object per line, in id order; memory use doesn't depend on table size")
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        return NdjsonResponses.<LedgerResponse>stream(objectMapper, service::streamAll);
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export ledger entries as CSV",
+            description = "Streams matching entries as CSV; set gzip=true for a compressed download")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Long salespersonId,
+            @RequestParam(required = false) LedgerEntryType entryType,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                exportService.exportCsv(startDate, endDate, salespersonId, entryType, compressed);
+                compressed.finish();
+            } else {
+                OutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+                exportService.exportCsv(startDate, endDate, salespersonId, entryType, buffered);
+                buffered.flush();
+            }
+        };
+
+        AsyncTimeoutConfig.setRequestTimeout(exportTimeout);
+
+        String filename = gzip ? "ledger.csv.gz" : "ledger.csv";
+        MediaType contentType = gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType("text/csv");
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(contentType)
+                .body(body);
+    }
+
     @GetMapping("/salesperson/{salespersonId}")
     @Operation(summary = "Get ledger entries by salesperson")
     public ResponseEntity<List<LedgerResponse>> getBySalesperson(@PathVariable Long salespersonId) {
@@ -0,0 +1,58 @@
+package com.ContractBilling.commissions.controller;
+
+import com.ContractBilling.commissions.config.AsyncTimeoutConfig;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Newline-delimited JSON responses for whole-table exports.
+ *
+ * Each row is serialized and written as it arrives from the service's stream,
+ * so the response is never held in memory and the client can start reading at once.
+ */
+final class NdjsonResponses {
+
+    private static final byte NEWLINE = '\n';
+
+    // Whole-table streams outlast the default async timeout
+    private static final Duration STREAM_TIMEOUT = Duration.ofMinutes(30);
+
+    private NdjsonResponses() {
+    }
+
+    static <T> ResponseEntity<StreamingResponseBody> stream(ObjectMapper objectMapper, Consumer<Consumer<T>> source) {
+        StreamingResponseBody body = out -> {
+            OutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+            source.accept(row -> writeLine(objectMapper, buffered, row));
+            buffered.flush();
+        };
+
+        AsyncTimeoutConfig.setRequestTimeout(STREAM_TIMEOUT);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private static void writeLine(ObjectMapper objectMapper, OutputStream out, Object row) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(row));
+            out.write(NEWLINE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize row for NDJSON stream", e);
+        } catch (IOException e) {
+            // Usually the client went away; ends the stream and its transaction
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import com.ContractBilling.commissions.dto.UpdatePlacementRequest;
 import com.ContractBilling.commissions.entity.PlacementStatus;
 import com.ContractBilling.commissions.entity.PlacementType;
 import com.ContractBilling.commissions.service.PlacementService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -15,8 +16,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -33,6 +36,7 @@ import static org.springframework.data.domain.Sort.Direction.DESC;
 public class PlacementController {
 
     private final PlacementService placementService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @Operation(summary = "Create a new placement", description = "Creates a new placement record")
@@ -60,6 +64,12 @@ public class PlacementController {
         return ResponseEntity.ok(placementService.getAll(pageable));
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all placements as NDJSON", description = "One JSON object per line, in id order; memory use doesn't depend on table size")
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        return NdjsonResponses.<PlacementResponse>stream(objectMapper, placementService::streamAll);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get placement by ID", description = "Retrieves a specific placement by its ID")
     public ResponseEntity<ApiResponse<PlacementResponse>> getPlacementById(@PathVariable Long id) {
@@ -2,6 +2,7 @@ package com.ContractBilling.commissions.controller;
 
 import com.ContractBilling.commissions.dto.ApiResponse;
 import com.ContractBilling.commissions.dto.RecognitionScheduleResponse;
+import com.ContractBilling.commissions.service.IdempotencyService;
 import com.ContractBilling.commissions.service.RevenueRecognitionEngine;
 import com.ContractBilling.commissions.repository.RecognitionScheduleRepository;
 import com.ContractBilling.commissions.dto.RecognitionScheduleMapper;
@@ -25,6 +26,7 @@ public class RecognitionScheduleController {
     private final RevenueRecognitionEngine recognitionEngine;
     private final RecognitionScheduleRepository repository;
     private final RecognitionScheduleMapper mapper;
+    private final IdempotencyService idempotencyService;
 
     @GetMapping("/plan/{commissionPlanId}")
     @Operation(summary = "Get recognition schedule for plan")
@@ -39,18 +41,23 @@ public class RecognitionScheduleController {
 
     @PostMapping("/process")
     @Operation(summary = "Process all due recognitions")
-    public ResponseEntity<ApiResponse<Object>> processAllDue(@RequestParam(required = false) LocalDate asOfDate) {
+    public ResponseEntity<ApiResponse<Object>> processAllDue(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestParam(required = false) LocalDate asOfDate) {
         LocalDate processDate = asOfDate != null ? asOfDate : LocalDate.now();
-        int count = recognitionEngine.recognizeAllDue(processDate);
-
-        return ResponseEntity.ok(
-                ApiResponse.builder()
-                        .success(true)
-                        .message("Processed " + count + " recognitions")
-                        .data(java.util.Map.of("processed", count))
-                        .timestamp(LocalDateTime.now())
-                        .build()
-        );
+
+        return idempotencyService.execute(idempotencyKey, "recognition.process:" + processDate, Object.class, () -> {
+            int count = recognitionEngine.recognizeAllDue(processDate);
+
+            return ResponseEntity.ok(
+                    ApiResponse.builder()
+                            .success(true)
+                            .message("Processed " + count + " recognitions")
+                            .data(java.util.Map.of("processed", count))
+                            .timestamp(LocalDateTime.now())
+                            .build()
+            );
+        });
     }
 
     @GetMapping("/{scheduleId}")
@@ -0,0 +1,70 @@
+package com.ContractBilling.commissions.controller;
+
+import com.ContractBilling.commissions.dto.ApiResponse;
+import com.ContractBilling.commissions.dto.ReportJobResponse;
+import com.ContractBilling.commissions.dto.ReportJobStatus;
+import com.ContractBilling.commissions.dto.SubmitReportJobRequest;
+import com.ContractBilling.commissions.service.ReportJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/reports/jobs")
+@RequiredArgsConstructor
+@Tag(name = "Report Jobs", description = "Run heavy reports asynchronously")
+public class ReportJobController {
+
+    private static final int MAX_WAIT_SECONDS = 30;
+
+    private final ReportJobService reportJobService;
+
+    @PostMapping
+    @Operation(summary = "Submit a report job")
+    public ResponseEntity<ApiResponse<ReportJobResponse>> submit(@Valid @RequestBody SubmitReportJobRequest request) {
+        ReportJobResponse job = reportJobService.submit(request);
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/reports/jobs/" + job.getId()))
+                .body(ApiResponse.<ReportJobResponse>builder()
+                        .success(true)
+                        .message("Report job submitted")
+                        .data(job)
+                        .timestamp(LocalDateTime.now())
+                        .build());
+    }
+
+    /**
+     * Returns the job's state. With waitSeconds > 0 the response is held (without
+     * occupying a request thread) until the job finishes or the wait runs out.
+     */
+    @GetMapping("/{jobId}")
+    @Operation(summary = "Get report job status and result (long-poll with waitSeconds)")
+    public CompletableFuture<ResponseEntity<ApiResponse<ReportJobResponse>>> getJob(
+            @PathVariable String jobId,
+            @RequestParam(defaultValue = "0") int waitSeconds) {
+
+        int wait = Math.max(0, Math.min(waitSeconds, MAX_WAIT_SECONDS));
+
+        CompletableFuture<ReportJobResponse> job = wait == 0
+                ? CompletableFuture.completedFuture(reportJobService.getJob(jobId))
+                : reportJobService.awaitJob(jobId, Duration.ofSeconds(wait));
+
+        return job.thenApply(response -> ResponseEntity.ok(
+                ApiResponse.<ReportJobResponse>builder()
+                        .success(response.getStatus() != ReportJobStatus.FAILED)
+                        .message("Report job " + response.getStatus().name().toLowerCase())
+                        .data(response)
+                        .timestamp(LocalDateTime.now())
+                        .build()));
+    }
+}
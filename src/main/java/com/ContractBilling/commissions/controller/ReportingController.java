@@ -1,15 +1,29 @@
 package com.ContractBilling.commissions.controller;
 
 import com.ContractBilling.commissions.dto.ApiResponse;
+import com.ContractBilling.commissions.dto.ClientProfitabilityReport;
+import com.ContractBilling.commissions.dto.CommissionByPlacementReport;
+import com.ContractBilling.commissions.dto.DrawdownHistoryReport;
+import com.ContractBilling.commissions.service.ClientProfitabilityService;
+import com.ContractBilling.commissions.service.CommissionCubeService;
+import com.ContractBilling.commissions.service.DashboardStreamService;
+import com.ContractBilling.commissions.service.ReportVersionService;
 import com.ContractBilling.commissions.service.ReportingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -19,11 +33,21 @@ import java.util.Map;
 public class ReportingController {
 
     private final ReportingService reportingService;
+    private final CommissionCubeService commissionCubeService;
+    private final ClientProfitabilityService clientProfitabilityService;
+    private final ReportVersionService reportVersionService;
+    private final DashboardStreamService dashboardStreamService;
 
     @GetMapping("/salesperson/{salespersonId}/dashboard")
     @Operation(summary = "Get salesperson dashboard")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getDashboard(@PathVariable Long salespersonId) {
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getDashboard(@PathVariable Long salespersonId,
+                                                                         WebRequest webRequest) {
+        // Tagged with the version the (possibly cached) body was built from, not the current one
         Map<String, Object> dashboard = reportingService.getSalespersonDashboard(salespersonId);
+        long dataVersion = ((Number) dashboard.get("dataVersion")).longValue();
+        if (notModified(webRequest, reportVersionService.salespersonETag(salespersonId, dataVersion))) {
+            return null;
+        }
 
         return ResponseEntity.ok(
                 ApiResponse.<Map<String, Object>>builder()
@@ -35,12 +59,27 @@ public class ReportingController {
         );
     }
 
+    /**
+     * Live dashboard stream: an initial "dashboard" event, then "ledger", "plan" and
+     * "drawdown" deltas as changes commit, each burst followed by a refreshed "dashboard".
+     */
+    @GetMapping(value = "/salesperson/{salespersonId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream live dashboard updates (Server-Sent Events)")
+    public SseEmitter streamDashboard(@PathVariable Long salespersonId) {
+        return dashboardStreamService.subscribe(salespersonId);
+    }
+
     @GetMapping("/salesperson/{salespersonId}/period")
     @Operation(summary = "Get period summary")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getPeriodSummary(
             @PathVariable Long salespersonId,
             @RequestParam LocalDate startDate,
-            @RequestParam LocalDate endDate) {
+            @RequestParam LocalDate endDate,
+            WebRequest webRequest) {
+
+        if (notModified(webRequest, reportVersionService.salespersonETag(salespersonId))) {
+            return null;
+        }
 
         Map<String, Object> summary = reportingService.getPeriodSummary(salespersonId, startDate, endDate);
 
@@ -56,11 +95,19 @@ public class ReportingController {
 
     @GetMapping("/salesperson/{salespersonId}/commissions")
     @Operation(summary = "Get commission breakdown")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getCommissionBreakdown(@PathVariable Long salespersonId) {
-        Map<String, Object> breakdown = reportingService.getCommissionByPlacement(salespersonId);
+    public ResponseEntity<ApiResponse<CommissionByPlacementReport>> getCommissionBreakdown(
+            @PathVariable Long salespersonId,
+            @PageableDefault(size = 50) Pageable pageable,
+            WebRequest webRequest) {
+
+        if (notModified(webRequest, reportVersionService.salespersonETag(salespersonId))) {
+            return null;
+        }
+
+        CommissionByPlacementReport breakdown = reportingService.getCommissionByPlacement(salespersonId, pageable);
 
         return ResponseEntity.ok(
-                ApiResponse.<Map<String, Object>>builder()
+                ApiResponse.<CommissionByPlacementReport>builder()
                         .success(true)
                         .message("Commission breakdown retrieved")
                         .data(breakdown)
@@ -71,7 +118,12 @@ public class ReportingController {
 
     @GetMapping("/salesperson/{salespersonId}/recognition")
     @Operation(summary = "Get recognition status")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getRecognitionStatus(@PathVariable Long salespersonId) {
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getRecognitionStatus(@PathVariable Long salespersonId,
+                                                                                 WebRequest webRequest) {
+        if (notModified(webRequest, reportVersionService.salespersonETag(salespersonId))) {
+            return null;
+        }
+
         Map<String, Object> status = reportingService.getRecognitionStatus(salespersonId);
 
         return ResponseEntity.ok(
@@ -86,11 +138,19 @@ public class ReportingController {
 
     @GetMapping("/salesperson/{salespersonId}/drawdowns")
     @Operation(summary = "Get drawdown history")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getDrawdownHistory(@PathVariable Long salespersonId) {
-        Map<String, Object> history = reportingService.getDrawdownHistory(salespersonId);
+    public ResponseEntity<ApiResponse<DrawdownHistoryReport>> getDrawdownHistory(
+            @PathVariable Long salespersonId,
+            @PageableDefault(size = 50) Pageable pageable,
+            WebRequest webRequest) {
+
+        if (notModified(webRequest, reportVersionService.salespersonETag(salespersonId))) {
+            return null;
+        }
+
+        DrawdownHistoryReport history = reportingService.getDrawdownHistory(salespersonId, pageable);
 
         return ResponseEntity.ok(
-                ApiResponse.<Map<String, Object>>builder()
+                ApiResponse.<DrawdownHistoryReport>builder()
                         .success(true)
                         .message("Drawdown history retrieved")
                         .data(history)
@@ -102,7 +162,12 @@ public class ReportingController {
     @GetMapping("/top-performers")
     @Operation(summary = "Get top performers")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getTopPerformers(
-            @RequestParam(defaultValue = "10") int limit) {
+            @RequestParam(defaultValue = "10") int limit,
+            WebRequest webRequest) {
+
+        if (notModified(webRequest, reportVersionService.globalETag())) {
+            return null;
+        }
 
         Map<String, Object> report = reportingService.getTopPerformers(limit);
 
@@ -116,9 +181,79 @@ public class ReportingController {
         );
     }
 
+    @GetMapping("/commission-cube")
+    @Operation(summary = "Roll up commission totals by month, salesperson, client and/or placementType")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getCommissionCube(
+            @RequestParam(required = false) List<String> groupBy,
+            @RequestParam(required = false) YearMonth fromMonth,
+            @RequestParam(required = false) YearMonth toMonth,
+            @RequestParam(required = false) Long salespersonId,
+            @RequestParam(required = false) Long clientId,
+            @RequestParam(required = false) String placementType,
+            WebRequest webRequest) {
+
+        if (notModified(webRequest, reportVersionService.globalETag())) {
+            return null;
+        }
+
+        Map<String, Object> report = commissionCubeService.rollUp(
+                groupBy, fromMonth, toMonth, salespersonId, clientId, placementType);
+
+        return ResponseEntity.ok(
+                ApiResponse.<Map<String, Object>>builder()
+                        .success(true)
+                        .message("Commission roll-up retrieved")
+                        .data(report)
+                        .timestamp(LocalDateTime.now())
+                        .build()
+        );
+    }
+
+    @PostMapping("/commission-cube/rebuild")
+    @Operation(summary = "Rebuild the commission cube from plans and ledger")
+    public ResponseEntity<ApiResponse<Void>> rebuildCommissionCube() {
+        commissionCubeService.rebuild();
+
+        return ResponseEntity.ok(
+                ApiResponse.<Void>builder()
+                        .success(true)
+                        .message("Commission cube rebuilt")
+                        .timestamp(LocalDateTime.now())
+                        .build()
+        );
+    }
+
+    @GetMapping("/client-profitability")
+    @Operation(summary = "Margin, overhead and commission totals per client and contract tier",
+            description = "recalculate=true re-derives every placement's figures with the current policy settings")
+    public ResponseEntity<ApiResponse<ClientProfitabilityReport>> getClientProfitability(
+            @RequestParam(defaultValue = "false") boolean recalculate,
+            WebRequest webRequest) {
+
+        // Placement writes bump the report versions, policy changes don't, so only the stored basis is tagged
+        if (!recalculate && notModified(webRequest, reportVersionService.globalETag())) {
+            return null;
+        }
+
+        ClientProfitabilityReport report = clientProfitabilityService.getClientProfitability(recalculate);
+
+        return ResponseEntity.ok(
+                ApiResponse.<ClientProfitabilityReport>builder()
+                        .success(true)
+                        .message("Client profitability retrieved")
+                        .data(report)
+                        .timestamp(LocalDateTime.now())
+                        .build()
+        );
+    }
+
     @GetMapping("/health")
     @Operation(summary = "Get system health")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getSystemHealth() {
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getSystemHealth(WebRequest webRequest) {
+        if (notModified(webRequest, reportVersionService.globalETag())) {
+            return null;
+        }
+
         Map<String, Object> health = reportingService.getSystemHealth();
 
         return ResponseEntity.ok(
@@ -130,4 +265,12 @@ public class ReportingController {
                         .build()
         );
     }
+
+    /**
+     * Checks If-None-Match against the report's data version and sets the ETag header.
+     * When it matches, Spring answers 304 and the report is never built.
+     */
+    private boolean notModified(WebRequest webRequest, String etag) {
+        return etag != null && webRequest.checkNotModified(etag);
+    }
 }
@@ -5,6 +5,7 @@ import com.ContractBilling.commissions.dto.SalespersonResponse;
 import com.ContractBilling.commissions.dto.UpdateSalespersonRequest;
 import com.ContractBilling.commissions.entity.SalespersonStatus;
 import com.ContractBilling.commissions.service.SalespersonService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -14,8 +15,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -27,6 +30,7 @@ import java.util.List;
 public class SalespersonController {
 
     private final SalespersonService salespersonService;
+    private final ObjectMapper objectMapper;
 
     // CREATE - POST /api/salespeople
     @PostMapping
@@ -55,6 +59,13 @@ public class SalespersonController {
         return ResponseEntity.ok(salespeople);  // 200 OK
     }
 
+    // STREAM ALL - GET /api/salespeople/stream (NDJSON)
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all salespeople as NDJSON", description = "One JSON object per line, in id order; memory use doesn't depend on table size")
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        return NdjsonResponses.<SalespersonResponse>stream(objectMapper, salespersonService::streamAll);
+    }
+
     // READ ONE - GET /api/salespeople/{id}
     @GetMapping("/{id}")
     public ResponseEntity<SalespersonResponse> getSalespersonById(
@@ -114,14 +125,15 @@ public class SalespersonController {
         return ResponseEntity.ok(salespeople);  // 200 OK
     }
 
-    // SEARCH BY NAME - GET /api/salespeople/search?name=John
+    // SEARCH BY NAME - GET /api/salespeople/search?name=John (best match first, at least 3 characters)
     @GetMapping("/search")
     public ResponseEntity<List<SalespersonResponse>> searchSalespeople(
-            @RequestParam String name) {
+            @RequestParam String name,
+            @PageableDefault(size = 20) Pageable pageable) {
 
         log.info("REST request to search salespeople by name: {}", name);
 
-        List<SalespersonResponse> salespeople = salespersonService.searchByName(name);
+        List<SalespersonResponse> salespeople = salespersonService.searchByName(name, pageable);
 
         return ResponseEntity.ok(salespeople);  // 200 OK
     }
@@ -0,0 +1,42 @@
+package com.ContractBilling.commissions.controller;
+
+import com.ContractBilling.commissions.dto.SearchResponse;
+import com.ContractBilling.commissions.service.SearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Search", description = "Name search across salespeople, clients and contractors")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    // SEARCH - GET /api/search?q=johnson&types=client,contractor&page=0&size=20
+    @GetMapping
+    @Operation(summary = "Search by name",
+               description = "Names containing the text or with a word close to it (small typos match), best match first. " +
+                             "At least 3 characters; types narrows it to salesperson, client and/or contractor; size max 100")
+    public ResponseEntity<SearchResponse> search(@RequestParam String q,
+                                                 @RequestParam(required = false) List<String> types,
+                                                 @PageableDefault(size = 20) Pageable pageable) {
+        log.info("REST request to search names: {}", q);
+
+        SearchResponse response = searchService.search(q, types, pageable);
+
+        return ResponseEntity.ok(response);  // 200 OK
+    }
+}
@@ -0,0 +1,39 @@
+package com.ContractBilling.commissions.controller;
+
+import com.ContractBilling.commissions.dto.ApiResponse;
+import com.ContractBilling.commissions.service.AuthService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+@Tag(name = "Users", description = "User account administration")
+public class UserController {
+
+    private final AuthService authService;
+
+    @PutMapping("/{username}/enabled")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Enable or disable user", description = "Disabling also revokes the user's existing tokens")
+    public ResponseEntity<ApiResponse<Object>> setEnabled(
+            @PathVariable String username,
+            @RequestParam boolean enabled) {
+
+        authService.setEnabled(username, enabled);
+
+        return ResponseEntity.ok(
+                ApiResponse.builder()
+                        .success(true)
+                        .message(enabled ? "User enabled" : "User disabled")
+                        .timestamp(LocalDateTime.now())
+                        .build()
+        );
+    }
+}
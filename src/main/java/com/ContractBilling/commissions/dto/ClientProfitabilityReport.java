@@ -0,0 +1,14 @@
+package com.ContractBilling.commissions.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Client profitability by contract tier.
+ * basis is STORED (figures saved on each placement) or CURRENT_POLICY (recalculated with today's settings).
+ */
+public record ClientProfitabilityReport(String basis,
+                                        long placementCount,
+                                        List<ClientProfitabilityRow> rows,
+                                        LocalDateTime generatedAt) {
+}
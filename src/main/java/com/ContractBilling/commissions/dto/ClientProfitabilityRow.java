@@ -0,0 +1,17 @@
+package com.ContractBilling.commissions.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Margin, overhead and commission totals for one client and contract tier
+ * (tier 1 = first contract, 2 = second, 3 = third and later)
+ */
+public record ClientProfitabilityRow(Long clientId,
+                                     String clientName,
+                                     int tier,
+                                     long placementCount,
+                                     BigDecimal grossAnnualMargin,
+                                     BigDecimal overheads,
+                                     BigDecimal netAnnualMargin,
+                                     BigDecimal commissionTotal) {
+}
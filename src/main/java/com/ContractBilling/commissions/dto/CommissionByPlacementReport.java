@@ -0,0 +1,14 @@
+package com.ContractBilling.commissions.dto;
+
+import java.util.List;
+
+/**
+ * One page of a salesperson's commission breakdown by placement
+ */
+public record CommissionByPlacementReport(Long salespersonId,
+                                          long placementCount,
+                                          List<PlacementCommissionRow> placements,
+                                          int page,
+                                          int size,
+                                          int totalPages) {
+}
@@ -0,0 +1,9 @@
+package com.ContractBilling.commissions.dto;
+
+/**
+ * Outcome for one id of a batch approve/pay call; status is the request's status afterwards (null if not found)
+ */
+public record DrawdownBatchItem(Long id,
+                                DrawdownBatchOutcome outcome,
+                                String status) {
+}
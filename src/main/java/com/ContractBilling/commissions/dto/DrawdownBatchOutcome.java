@@ -0,0 +1,10 @@
+package com.ContractBilling.commissions.dto;
+
+public enum DrawdownBatchOutcome {
+    APPROVED,
+    PAID,
+    NOT_FOUND,
+    INVALID_STATE,          // Not PENDING (approve) or not APPROVED (pay)
+    NOT_ELIGIBLE,           // Salesperson hasn't reached the policy's minimum recognized month
+    QUARTER_LIMIT_REACHED   // Salesperson already has the policy's maximum drawdowns this quarter
+}
@@ -0,0 +1,22 @@
+package com.ContractBilling.commissions.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DrawdownBatchRequest {
+
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@NotNull Long> ids;
+}
@@ -0,0 +1,11 @@
+package com.ContractBilling.commissions.dto;
+
+import java.util.List;
+
+/**
+ * Result of a batch approve/pay call, one item per distinct requested id in request order
+ */
+public record DrawdownBatchResponse(int requested,
+                                    int succeeded,
+                                    List<DrawdownBatchItem> items) {
+}
@@ -0,0 +1,21 @@
+package com.ContractBilling.commissions.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Whether a salesperson can request a drawdown right now, with the figures the decision was based on.
+ * The policy limits are null when no policy settings exist; reason is null when eligible.
+ */
+public record DrawdownEligibility(Long salespersonId,
+                                  boolean eligible,
+                                  String reason,
+                                  int monthsRecognized,
+                                  Integer minMonth,
+                                  int drawdownsThisQuarter,
+                                  Integer maxPerQuarter,
+                                  BigDecimal availableBalance) {
+
+    public static final String MIN_MONTH_NOT_REACHED = "MIN_MONTH_NOT_REACHED";
+    public static final String QUARTER_LIMIT_REACHED = "QUARTER_LIMIT_REACHED";
+    public static final String NO_AVAILABLE_BALANCE = "NO_AVAILABLE_BALANCE";
+}
@@ -0,0 +1,17 @@
+package com.ContractBilling.commissions.dto;
+
+import java.util.List;
+
+/**
+ * A salesperson's drawdown counts by status plus one page of their requests, newest first
+ */
+public record DrawdownHistoryReport(Long salespersonId,
+                                    long totalRequests,
+                                    long approved,
+                                    long paid,
+                                    long rejected,
+                                    List<DrawdownHistoryRow> requests,
+                                    int page,
+                                    int size,
+                                    int totalPages) {
+}
@@ -0,0 +1,20 @@
+package com.ContractBilling.commissions.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One drawdown request as shown in the drawdown history report.
+ * Selected directly by DrawdownRequestRepository.findHistory.
+ */
+public record DrawdownHistoryRow(Long id,
+                                 BigDecimal requestedAmount,
+                                 BigDecimal approvedAmount,
+                                 String status,
+                                 LocalDate requestDate,
+                                 LocalDate approvedDate,
+                                 LocalDate paidDate,
+                                 Integer quarterYear,
+                                 Integer quarterNumber,
+                                 String rejectionReason) {
+}
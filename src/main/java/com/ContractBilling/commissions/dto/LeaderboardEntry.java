@@ -0,0 +1,13 @@
+package com.ContractBilling.commissions.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * One row of the top-performers leaderboard
+ */
+public record LeaderboardEntry(Long salespersonId, String name, BigDecimal totalCommission) {
+
+    public LeaderboardEntry plus(BigDecimal delta) {
+        return new LeaderboardEntry(salespersonId, name, totalCommission.add(delta));
+    }
+}
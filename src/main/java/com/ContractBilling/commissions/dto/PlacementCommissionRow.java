@@ -0,0 +1,26 @@
+package com.ContractBilling.commissions.dto;
+
+import com.ContractBilling.commissions.entity.CommissionPlanStatus;
+import com.ContractBilling.commissions.entity.PlacementStatus;
+import com.ContractBilling.commissions.entity.PlacementType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One commission plan with the placement details shown in the commission breakdown report.
+ * Selected directly by CommissionPlanRepository.findPlacementCommissions.
+ */
+public record PlacementCommissionRow(Long commissionPlanId,
+                                     Long placementId,
+                                     PlacementType placementType,
+                                     PlacementStatus placementStatus,
+                                     LocalDate startDate,
+                                     Long clientId,
+                                     String clientName,
+                                     BigDecimal commissionPercentage,
+                                     CommissionPlanStatus planStatus,
+                                     BigDecimal plannedAmount,
+                                     BigDecimal recognizedAmount,
+                                     BigDecimal paidAmount) {
+}
@@ -0,0 +1,20 @@
+package com.ContractBilling.commissions.dto;
+
+import com.ContractBilling.commissions.entity.Placement;
+
+import java.math.BigDecimal;
+
+/**
+ * Margin and commission figures for one placement, as stored or as recalculated
+ * under the current policy settings. grossAnnualMargin is null for permanent placements.
+ */
+public record PlacementFinancials(BigDecimal grossAnnualMargin,
+                                  BigDecimal netAnnualMargin,
+                                  BigDecimal commissionPercentage,
+                                  BigDecimal commissionTotal) {
+
+    public static PlacementFinancials storedOn(Placement placement) {
+        return new PlacementFinancials(placement.getGrossAnnualMargin(), placement.getNetAnnualMargin(),
+                placement.getCommissionPercentage(), placement.getCommissionTotal());
+    }
+}
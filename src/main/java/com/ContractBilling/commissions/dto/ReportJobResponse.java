@@ -0,0 +1,33 @@
+package com.ContractBilling.commissions.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportJobResponse {
+
+    private String id;
+
+    private ReportJobType type;
+
+    private ReportJobStatus status;
+
+    private LocalDateTime submittedAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    // Set once the job has SUCCEEDED (a map or one of the typed report records)
+    private Object result;
+
+    // Set when the job has FAILED
+    private String error;
+}
@@ -0,0 +1,8 @@
+package com.ContractBilling.commissions.dto;
+
+public enum ReportJobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+}
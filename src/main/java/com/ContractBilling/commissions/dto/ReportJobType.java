@@ -0,0 +1,13 @@
+package com.ContractBilling.commissions.dto;
+
+/**
+ * Reports that can be run as asynchronous jobs
+ */
+public enum ReportJobType {
+    PERIOD_SUMMARY,          // needs salespersonId, startDate, endDate
+    COMMISSION_BY_PLACEMENT, // needs salespersonId
+    RECOGNITION_STATUS,      // needs salespersonId
+    DRAWDOWN_HISTORY,        // needs salespersonId
+    TOP_PERFORMERS,          // optional limit
+    CLIENT_PROFITABILITY     // optional recalculate
+}
@@ -0,0 +1,15 @@
+package com.ContractBilling.commissions.dto;
+
+import java.util.List;
+
+/**
+ * One page of name search results across types, best match first. There is no total
+ * count (counting every fuzzy match would cost more than the search); hasNext says
+ * whether another page exists.
+ */
+public record SearchResponse(String query,
+                             List<SearchResult> results,
+                             int page,
+                             int size,
+                             boolean hasNext) {
+}
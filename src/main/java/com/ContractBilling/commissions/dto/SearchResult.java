@@ -0,0 +1,11 @@
+package com.ContractBilling.commissions.dto;
+
+/**
+ * One match of the shared name search; score is pg_trgm's word_similarity (0 to 1)
+ */
+public record SearchResult(SearchResultType type,
+                           Long id,
+                           String name,
+                           String email,
+                           double score) {
+}
@@ -0,0 +1,10 @@
+package com.ContractBilling.commissions.dto;
+
+/**
+ * Kinds of record covered by the shared name search (GET /api/search)
+ */
+public enum SearchResultType {
+    SALESPERSON,
+    CLIENT,
+    CONTRACTOR
+}
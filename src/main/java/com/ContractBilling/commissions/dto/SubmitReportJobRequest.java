@@ -0,0 +1,40 @@
+package com.ContractBilling.commissions.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SubmitReportJobRequest {
+
+    @NotNull
+    private ReportJobType type;
+
+    private Long salespersonId;
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    @Positive
+    private Integer limit;
+
+    // Page of COMMISSION_BY_PLACEMENT / DRAWDOWN_HISTORY to build (defaults to the first)
+    @PositiveOrZero
+    private Integer page;
+
+    @Positive
+    private Integer size;
+
+    // CLIENT_PROFITABILITY: recalculate with the current policy instead of summing stored figures
+    private Boolean recalculate;
+}
@@ -0,0 +1,62 @@
+package com.ContractBilling.commissions.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One cell of the commission cube: commission totals for a month, salesperson,
+ * client and placement type. Rows are written with native upserts
+ * (see CommissionCubeRepository), never through this entity.
+ */
+@Entity
+@Table(name = "commission_cube",
+        uniqueConstraints = @UniqueConstraint(name = "uk_commission_cube_cell",
+                columnNames = {"month", "salesperson_id", "client_id", "placement_type"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CommissionCube {
+
+    // Dimension values used when an amount has no placement
+    public static final long UNALLOCATED_CLIENT_ID = 0L;
+    public static final String UNALLOCATED_PLACEMENT_TYPE = "UNALLOCATED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Dimensions
+    @Column(nullable = false)
+    private LocalDate month;
+
+    @Column(name = "salesperson_id", nullable = false)
+    private Long salespersonId;
+
+    @Column(name = "client_id", nullable = false)
+    private Long clientId;
+
+    @Column(name = "placement_type", nullable = false, length = 20)
+    private String placementType;
+
+    // Measures
+    @Column(name = "planned_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal plannedAmount;
+
+    @Column(name = "recognized_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal recognizedAmount;
+
+    @Column(name = "paid_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal paidAmount;
+
+    // Audit
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -2,6 +2,10 @@ package com.ContractBilling.commissions.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import java.time.LocalDateTime;
 
 /**
@@ -10,6 +14,9 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "contractor")
 @Data
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "contractor")
+@NaturalIdCache(region = "contractor-email")
 public class Contractor {
 
     @Id
@@ -19,6 +26,7 @@ public class Contractor {
     @Column(nullable = false, length = 100)
     private String name;
 
+    @NaturalId(mutable = true)
     @Column(unique = true, length = 255)
     private String email;
 
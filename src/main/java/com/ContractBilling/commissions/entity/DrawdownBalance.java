@@ -0,0 +1,43 @@
+package com.ContractBilling.commissions.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Drawdown balance for one salesperson: available = recognized - pending - approved - paid.
+ * Rows are only changed with conditional native UPDATEs (see DrawdownBalanceRepository).
+ */
+@Entity
+@Table(name = "drawdown_balance")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DrawdownBalance {
+
+    @Id
+    @Column(name = "salesperson_id")
+    private Long salespersonId;
+
+    // Commission recognized to date
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal recognized;
+
+    // Reserved by PENDING requests
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal pending;
+
+    // Committed by APPROVED, not yet paid requests
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal approved;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal paid;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,58 @@
+package com.ContractBilling.commissions.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Stored outcome of a POST request sent with an Idempotency-Key header.
+ * Keys are scoped to the user who sent them, so two users can't collide on a key.
+ * Rows are claimed and completed with native statements (see IdempotencyRecordRepository).
+ */
+@Entity
+@Table(name = "idempotency_record", indexes = {
+        @Index(name = "idx_idempotency_record_created_at", columnList = "created_at")
+})
+@IdClass(IdempotencyRecord.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    @Id
+    @Column(length = 100)
+    private String principal;
+
+    @Id
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+
+    // What the key was first used for, e.g. "drawdown.approve:42"
+    @Column(nullable = false, length = 200)
+    private String operation;
+
+    // Null until the action has completed
+    @Column(name = "status_code")
+    private Integer statusCode;
+
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String principal;
+        private String idempotencyKey;
+    }
+}
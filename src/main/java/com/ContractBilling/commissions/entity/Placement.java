@@ -12,9 +12,17 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "placement")
+@NamedEntityGraph(name = Placement.WITH_PARTIES, attributeNodes = {
+        @NamedAttributeNode("salesperson"),
+        @NamedAttributeNode("client"),
+        @NamedAttributeNode("contractor")
+})
 @Data
 public class Placement {
 
+    // Loads the three parties PlacementMapper reads, in the same query as the placement
+    public static final String WITH_PARTIES = "Placement.withParties";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
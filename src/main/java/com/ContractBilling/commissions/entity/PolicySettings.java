@@ -2,6 +2,8 @@ package com.ContractBilling.commissions.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -12,8 +14,13 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "policy_settings")
 @Data
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "policy-settings")
 public class PolicySettings {
 
+    // Id of the one record, seeded by V4 (or created on startup by SettingsService)
+    public static final Long SINGLETON_ID = 1L;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -0,0 +1,30 @@
+package com.ContractBilling.commissions.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Report data version for one salesperson, bumped on every write to their data.
+ * Rows are written with a native upsert (see ReportVersionRepository).
+ */
+@Entity
+@Table(name = "report_version")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportVersion {
+
+    @Id
+    @Column(name = "salesperson_id")
+    private Long salespersonId;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -2,11 +2,18 @@ package com.ContractBilling.commissions.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import java.time.LocalDateTime;
 
 @Entity // This tells Spring this is the database table
 @Table(name = "salesperson") // This tells Spring the table name
 @Data // This generates getters and setters automatically
+@Cacheable // Kept in the second-level cache (region "salesperson", see hibernate-cache.conf)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "salesperson")
+@NaturalIdCache(region = "salesperson-email")
 
 public class Salesperson {
    @Id // This is the primary key
@@ -16,7 +23,8 @@ public class Salesperson {
    @Column(nullable = false, length = 100)
     private String name;
 
-   @Column(nullable = false, unique = true)
+   @NaturalId(mutable = true)
+    @Column(nullable = false, unique = true)
     private String email;
 
    @Column(nullable = false)
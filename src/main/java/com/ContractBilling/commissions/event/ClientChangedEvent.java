@@ -0,0 +1,7 @@
+package com.ContractBilling.commissions.event;
+
+/**
+ * Published when a client is created, updated or deleted
+ */
+public record ClientChangedEvent(Long clientId) {
+}
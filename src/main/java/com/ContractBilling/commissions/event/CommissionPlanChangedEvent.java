@@ -0,0 +1,12 @@
+package com.ContractBilling.commissions.event;
+
+import java.math.BigDecimal;
+
+/**
+ * Published when a commission plan is created, updated or removed.
+ * plannedDelta is the change to the salesperson's total planned commission (zero for plain updates).
+ * For removals the event is published before the plan row is deleted.
+ */
+public record CommissionPlanChangedEvent(Long commissionPlanId, Long salespersonId, BigDecimal plannedDelta)
+        implements SalespersonEvent {
+}
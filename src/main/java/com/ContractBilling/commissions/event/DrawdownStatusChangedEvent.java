@@ -0,0 +1,12 @@
+package com.ContractBilling.commissions.event;
+
+import java.math.BigDecimal;
+
+/**
+ * Published when a drawdown request is created (PENDING) or moves to a new status (APPROVED, REJECTED, PAID)
+ */
+public record DrawdownStatusChangedEvent(Long drawdownId,
+                                         Long salespersonId,
+                                         String status,
+                                         BigDecimal amount) implements SalespersonEvent {
+}
@@ -0,0 +1,15 @@
+package com.ContractBilling.commissions.event;
+
+import com.ContractBilling.commissions.entity.LedgerEntryType;
+
+import java.math.BigDecimal;
+
+/**
+ * Published when a ledger entry is written
+ */
+public record LedgerEntryRecordedEvent(Long ledgerId,
+                                       Long salespersonId,
+                                       Long commissionPlanId,
+                                       LedgerEntryType entryType,
+                                       BigDecimal amount) implements SalespersonEvent {
+}
@@ -0,0 +1,7 @@
+package com.ContractBilling.commissions.event;
+
+/**
+ * Published when a placement's details are updated
+ */
+public record PlacementChangedEvent(Long placementId, Long salespersonId) implements SalespersonEvent {
+}
@@ -0,0 +1,7 @@
+package com.ContractBilling.commissions.event;
+
+/**
+ * Published when the policy settings (overheads, commission tiers, drawdown rules) are updated
+ */
+public record PolicySettingsChangedEvent(String updatedBy) {
+}
@@ -0,0 +1,40 @@
+package com.ContractBilling.commissions.event;
+
+import com.ContractBilling.commissions.config.CacheConfig;
+import com.ContractBilling.commissions.service.DrawdownEligibilityService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts cached per-salesperson reports and drawdown eligibility once a change
+ * to that salesperson's plans, ledger or drawdowns has committed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReportCacheEvictionListener {
+
+    private final CacheManager cacheManager;
+    private final DrawdownEligibilityService eligibilityService;
+
+    @TransactionalEventListener
+    public void onSalespersonEvent(SalespersonEvent event) {
+        Cache dashboards = cacheManager.getCache(CacheConfig.SALESPERSON_DASHBOARD);
+        if (dashboards != null) {
+            dashboards.evict(event.salespersonId());
+        }
+        eligibilityService.evict(event.salespersonId());
+        log.debug("Report caches evicted for salesperson {}", event.salespersonId());
+    }
+
+    // Drawdown rules apply to everyone, so a policy change drops every cached decision
+    @TransactionalEventListener
+    public void onPolicySettingsChanged(PolicySettingsChangedEvent event) {
+        eligibilityService.evictAll();
+        log.debug("Drawdown eligibility cache cleared after policy update by {}", event.updatedBy());
+    }
+}
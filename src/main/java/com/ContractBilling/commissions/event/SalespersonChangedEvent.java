@@ -0,0 +1,7 @@
+package com.ContractBilling.commissions.event;
+
+/**
+ * Published when a salesperson is created, updated or deleted
+ */
+public record SalespersonChangedEvent(Long salespersonId) implements SalespersonEvent {
+}
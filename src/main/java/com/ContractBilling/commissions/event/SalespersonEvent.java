@@ -0,0 +1,10 @@
+package com.ContractBilling.commissions.event;
+
+/**
+ * Common type for events that change data belonging to one salesperson.
+ * Listeners that only care about "something changed for X" can subscribe to this.
+ */
+public interface SalespersonEvent {
+
+    Long salespersonId();
+}
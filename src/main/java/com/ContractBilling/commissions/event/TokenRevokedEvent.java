@@ -0,0 +1,9 @@
+package com.ContractBilling.commissions.event;
+
+import java.time.Instant;
+
+/**
+ * Published when a single token is revoked (logout), so this node rejects it without waiting for the next poll
+ */
+public record TokenRevokedEvent(String tokenId, Instant expiresAt) {
+}
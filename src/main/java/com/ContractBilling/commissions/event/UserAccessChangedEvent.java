@@ -0,0 +1,7 @@
+package com.ContractBilling.commissions.event;
+
+/**
+ * Published when a user's enabled state or role changes, so tokens issued before the change stop working
+ */
+public record UserAccessChangedEvent(String username) {
+}
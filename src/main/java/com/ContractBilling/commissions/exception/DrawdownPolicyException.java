@@ -0,0 +1,23 @@
+package com.ContractBilling.commissions.exception;
+
+import com.ContractBilling.commissions.dto.DrawdownBatchOutcome;
+import lombok.Getter;
+
+@Getter
+public class DrawdownPolicyException extends RuntimeException {
+
+    private final DrawdownBatchOutcome outcome;
+
+    public DrawdownPolicyException(Long requestId, DrawdownBatchOutcome outcome) {
+        super(String.format("Drawdown %d cannot be approved: %s", requestId, describe(outcome)));
+        this.outcome = outcome;
+    }
+
+    private static String describe(DrawdownBatchOutcome outcome) {
+        return switch (outcome) {
+            case NOT_ELIGIBLE -> "salesperson hasn't reached the policy's minimum recognized month";
+            case QUARTER_LIMIT_REACHED -> "salesperson already has the policy's maximum drawdowns this quarter";
+            default -> outcome.name();
+        };
+    }
+}
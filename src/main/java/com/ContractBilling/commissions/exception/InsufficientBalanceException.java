@@ -0,0 +1,11 @@
+package com.ContractBilling.commissions.exception;
+
+import java.math.BigDecimal;
+
+public class InsufficientBalanceException extends RuntimeException {
+
+    public InsufficientBalanceException(Long salespersonId, BigDecimal requested, BigDecimal available) {
+        super(String.format("Salesperson %d has %s available for drawdown, %s requested",
+                salespersonId, available, requested));
+    }
+}
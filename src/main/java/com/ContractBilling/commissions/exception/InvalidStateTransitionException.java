@@ -0,0 +1,8 @@
+package com.ContractBilling.commissions.exception;
+
+public class InvalidStateTransitionException extends RuntimeException {
+
+    public InvalidStateTransitionException(String resourceName, Object id, String currentStatus, String targetStatus) {
+        super(String.format("%s %s is %s and cannot become %s", resourceName, id, currentStatus, targetStatus));
+    }
+}
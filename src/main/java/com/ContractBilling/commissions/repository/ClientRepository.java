@@ -2,11 +2,18 @@ package com.ContractBilling.commissions.repository;
 
 import com.ContractBilling.commissions.entity.Client;
 import com.ContractBilling.commissions.entity.ClientStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for Client entity
@@ -36,7 +43,19 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
     boolean existsByEmail(String email);
 
     /**
-     * Search clients by name (case-insensitive, partial match)
+     * Search clients by name: names containing the query or with a word close to it,
+     * best match first (see NameSearch)
      */
-    List<Client> findByNameContainingIgnoreCase(String name);
+    @Query(value = "SELECT * FROM client WHERE name ILIKE :pattern OR :query <% name " +
+                   "ORDER BY :query <<-> name, name, id",
+           nativeQuery = true)
+    List<Client> searchByName(@Param("query") String query, @Param("pattern") String pattern, Pageable pageable);
+
+    // All clients in id order, 500 rows per fetch; use inside a transaction and close the stream
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Client c ORDER BY c.id")
+    Stream<Client> streamAll();
 }
@@ -0,0 +1,80 @@
+package com.ContractBilling.commissions.repository;
+
+import com.ContractBilling.commissions.entity.CommissionCube;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+
+@Repository
+public interface CommissionCubeRepository extends JpaRepository<CommissionCube, Long> {
+
+    String ON_CONFLICT_CELL = "ON CONFLICT (month, salesperson_id, client_id, placement_type) DO UPDATE SET ";
+
+    // Add a planned-amount delta to the cell of the plan's creation month, client and placement type
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "commission_cube"))
+    @Query(value = "INSERT INTO commission_cube (month, salesperson_id, client_id, placement_type, " +
+                   "planned_amount, recognized_amount, paid_amount, updated_at) " +
+                   "SELECT CAST(date_trunc('month', cp.created_at) AS DATE), cp.salesperson_id, " +
+                   "p.client_id, p.placement_type, CAST(:delta AS NUMERIC), 0, 0, now() " +
+                   "FROM commission_plan cp JOIN placement p ON p.id = cp.placement_id " +
+                   "WHERE cp.id = :commissionPlanId " +
+                   ON_CONFLICT_CELL +
+                   "planned_amount = commission_cube.planned_amount + EXCLUDED.planned_amount, " +
+                   "updated_at = EXCLUDED.updated_at",
+           nativeQuery = true)
+    int addPlanned(@Param("commissionPlanId") Long commissionPlanId, @Param("delta") BigDecimal delta);
+
+    // Add a recognized or paid ledger entry to its cell; other entry types are ignored
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "commission_cube"))
+    @Query(value = "INSERT INTO commission_cube (month, salesperson_id, client_id, placement_type, " +
+                   "planned_amount, recognized_amount, paid_amount, updated_at) " +
+                   "SELECT CAST(date_trunc('month', l.created_at) AS DATE), l.salesperson_id, " +
+                   "COALESCE(p.client_id, 0), COALESCE(p.placement_type, 'UNALLOCATED'), 0, " +
+                   "CASE WHEN l.entry_type = 'COMMISSION_RECOGNIZED' THEN l.amount ELSE 0 END, " +
+                   "CASE WHEN l.entry_type = 'COMMISSION_PAID' THEN l.amount ELSE 0 END, now() " +
+                   "FROM ledger l " +
+                   "LEFT JOIN commission_plan cp ON cp.id = l.commission_plan_id " +
+                   "LEFT JOIN placement p ON p.id = COALESCE(l.placement_id, cp.placement_id) " +
+                   "WHERE l.id = :ledgerId AND l.entry_type IN ('COMMISSION_RECOGNIZED', 'COMMISSION_PAID') " +
+                   ON_CONFLICT_CELL +
+                   "recognized_amount = commission_cube.recognized_amount + EXCLUDED.recognized_amount, " +
+                   "paid_amount = commission_cube.paid_amount + EXCLUDED.paid_amount, " +
+                   "updated_at = EXCLUDED.updated_at",
+           nativeQuery = true)
+    int addLedgerEntry(@Param("ledgerId") Long ledgerId);
+
+    // Recompute every cell from commission plans and the ledger (same query as the V12 backfill)
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "commission_cube"))
+    @Query(value = "INSERT INTO commission_cube (month, salesperson_id, client_id, placement_type, " +
+                   "planned_amount, recognized_amount, paid_amount, updated_at) " +
+                   "SELECT month, salesperson_id, client_id, placement_type, " +
+                   "SUM(planned), SUM(recognized), SUM(paid), now() " +
+                   "FROM (" +
+                   "  SELECT CAST(date_trunc('month', cp.created_at) AS DATE) AS month, cp.salesperson_id, " +
+                   "         p.client_id, p.placement_type, cp.planned_amount AS planned, " +
+                   "         0 AS recognized, 0 AS paid " +
+                   "  FROM commission_plan cp JOIN placement p ON p.id = cp.placement_id " +
+                   "  UNION ALL " +
+                   "  SELECT CAST(date_trunc('month', l.created_at) AS DATE), l.salesperson_id, " +
+                   "         COALESCE(p.client_id, 0), COALESCE(p.placement_type, 'UNALLOCATED'), 0, " +
+                   "         CASE WHEN l.entry_type = 'COMMISSION_RECOGNIZED' THEN l.amount ELSE 0 END, " +
+                   "         CASE WHEN l.entry_type = 'COMMISSION_PAID' THEN l.amount ELSE 0 END " +
+                   "  FROM ledger l " +
+                   "  LEFT JOIN commission_plan cp ON cp.id = l.commission_plan_id " +
+                   "  LEFT JOIN placement p ON p.id = COALESCE(l.placement_id, cp.placement_id) " +
+                   "  WHERE l.entry_type IN ('COMMISSION_RECOGNIZED', 'COMMISSION_PAID')" +
+                   ") facts " +
+                   "GROUP BY month, salesperson_id, client_id, placement_type",
+           nativeQuery = true)
+    int rebuildFromSource();
+}
@@ -1,16 +1,26 @@
 package com.ContractBilling.commissions.repository;
 
+import com.ContractBilling.commissions.dto.PlacementCommissionRow;
 import com.ContractBilling.commissions.entity.CommissionPlan;
 import com.ContractBilling.commissions.entity.CommissionPlanStatus;
 import com.ContractBilling.commissions.entity.Salesperson;
+import com.ContractBilling.commissions.repository.projection.SalespersonCommissionTotal;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CommissionPlanRepository extends JpaRepository<CommissionPlan, Long> {
@@ -23,6 +33,17 @@ public interface CommissionPlanRepository extends JpaRepository<CommissionPlan,
 
     Optional<CommissionPlan> findByPlacementId(Long placementId);
 
+    // Commission breakdown rows for a salesperson, oldest plan first (only the rendered columns)
+    @Query(value = "SELECT new com.ContractBilling.commissions.dto.PlacementCommissionRow(" +
+                   "cp.id, p.id, p.placementType, p.status, p.startDate, c.id, c.name, p.commissionPercentage, " +
+                   "cp.status, cp.plannedAmount, cp.recognizedAmount, cp.paidAmount) " +
+                   "FROM CommissionPlan cp JOIN cp.placement p JOIN p.client c " +
+                   "WHERE cp.salesperson.id = :salespersonId " +
+                   "ORDER BY cp.id",
+           countQuery = "SELECT COUNT(cp) FROM CommissionPlan cp WHERE cp.salesperson.id = :salespersonId")
+    Page<PlacementCommissionRow> findPlacementCommissions(@Param("salespersonId") Long salespersonId,
+                                                          Pageable pageable);
+
     // Total planned commission for salesperson
     @Query("SELECT COALESCE(SUM(cp.plannedAmount), 0) FROM CommissionPlan cp " +
            "WHERE cp.salesperson = :salesperson")
@@ -38,6 +59,13 @@ public interface CommissionPlanRepository extends JpaRepository<CommissionPlan,
            "WHERE cp.salesperson = :salesperson")
     BigDecimal sumPaidAmount(@Param("salesperson") Salesperson salesperson);
 
+    // Planned commission totals for every salesperson, highest first (single GROUP BY)
+    @Query("SELECT s.id AS salespersonId, s.name AS name, COALESCE(SUM(cp.plannedAmount), 0) AS totalCommission " +
+           "FROM Salesperson s LEFT JOIN CommissionPlan cp ON cp.salesperson = s " +
+           "GROUP BY s.id, s.name " +
+           "ORDER BY COALESCE(SUM(cp.plannedAmount), 0) DESC, s.id")
+    List<SalespersonCommissionTotal> sumPlannedAmountBySalesperson();
+
     // Outstanding (recognized but not paid)
     @Query("SELECT COALESCE(SUM(cp.recognizedAmount - cp.paidAmount), 0) FROM CommissionPlan cp " +
            "WHERE cp.salesperson = :salesperson AND cp.recognizedAmount > cp.paidAmount")
@@ -48,4 +76,24 @@ public interface CommissionPlanRepository extends JpaRepository<CommissionPlan,
            "WHERE cp.salesperson = :salesperson AND cp.eligibleForDrawdown = true " +
            "AND cp.status IN ('RECOGNIZED', 'PAID')")
     List<CommissionPlan> findEligibleForDrawdown(@Param("salesperson") Salesperson salesperson);
+
+    // Add one recognized month in place; the plan becomes RECOGNIZED with its last month.
+    // The right-hand sides all see the pre-update row, so the CASE tests the new month count.
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE CommissionPlan cp " +
+           "SET cp.recognizedAmount = COALESCE(cp.recognizedAmount, 0) + :amount, " +
+           "cp.monthsRecognized = COALESCE(cp.monthsRecognized, 0) + 1, " +
+           "cp.status = CASE WHEN COALESCE(cp.monthsRecognized, 0) + 1 >= COALESCE(cp.monthsToRecognize, 12) " +
+           "THEN com.ContractBilling.commissions.entity.CommissionPlanStatus.RECOGNIZED ELSE cp.status END, " +
+           "cp.updatedAt = :now " +
+           "WHERE cp.id = :id")
+    int addRecognizedMonth(@Param("id") Long id, @Param("amount") BigDecimal amount, @Param("now") LocalDateTime now);
+
+    // All commission plans in id order, 500 rows per fetch, the salesperson joined in; use inside a transaction and close the stream
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM CommissionPlan c JOIN FETCH c.salesperson ORDER BY c.id")
+    Stream<CommissionPlan> streamAll();
 }
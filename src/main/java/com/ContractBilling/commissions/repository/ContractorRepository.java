@@ -3,23 +3,24 @@ package com.ContractBilling.commissions.repository;
 import com.ContractBilling.commissions.entity.Contractor;
 import com.ContractBilling.commissions.entity.ContractorStatus;
 import com.ContractBilling.commissions.entity.ContractorType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for Contractor entity
  * Spring Data JPA automatically generates implementations
  */
 @Repository
-public interface ContractorRepository extends JpaRepository<Contractor, Long> {
-
-    /**
-     * Find contractor by email
-     */
-    Optional<Contractor> findByEmail(String email);
+public interface ContractorRepository extends JpaRepository<Contractor, Long>, ContractorRepositoryCustom {
 
     /**
      * Check if contractor exists with given email
@@ -37,7 +38,19 @@ public interface ContractorRepository extends JpaRepository<Contractor, Long> {
     List<Contractor> findByType(ContractorType type);
 
     /**
-     * Search contractors by name (case-insensitive, partial match)
+     * Search contractors by name: names containing the query or with a word close to it,
+     * best match first (see NameSearch)
      */
-    List<Contractor> findByNameContainingIgnoreCase(String name);
+    @Query(value = "SELECT * FROM contractor WHERE name ILIKE :pattern OR :query <% name " +
+                   "ORDER BY :query <<-> name, name, id",
+           nativeQuery = true)
+    List<Contractor> searchByName(@Param("query") String query, @Param("pattern") String pattern, Pageable pageable);
+
+    // All contractors in id order, 500 rows per fetch; use inside a transaction and close the stream
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Contractor c ORDER BY c.id")
+    Stream<Contractor> streamAll();
 }
@@ -0,0 +1,16 @@
+package com.ContractBilling.commissions.repository;
+
+import com.ContractBilling.commissions.entity.Contractor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Email lookups through Hibernate's natural-id API, answered from the
+ * second-level cache (region "contractor-email") instead of a query once the email is known.
+ */
+public interface ContractorRepositoryCustom {
+
+    @Transactional(readOnly = true)
+    Optional<Contractor> findByEmail(String email);
+}
@@ -0,0 +1,21 @@
+package com.ContractBilling.commissions.repository;
+
+import com.ContractBilling.commissions.entity.Contractor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+public class ContractorRepositoryCustomImpl implements ContractorRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Contractor> findByEmail(String email) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Contractor.class)
+                .loadOptional(email);
+    }
+}
@@ -0,0 +1,93 @@
+package com.ContractBilling.commissions.repository;
+
+import com.ContractBilling.commissions.entity.DrawdownBalance;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Compare-and-set updates on drawdown_balance. Each method is one UPDATE whose WHERE
+ * clause checks the balance it is about to spend; it returns 1 if it applied and 0 if
+ * the balance didn't cover it. Postgres row-locks the single row for the rest of the
+ * transaction, so concurrent writers for the same salesperson serialize there and
+ * re-check the condition against the committed values.
+ */
+@Repository
+public interface DrawdownBalanceRepository extends JpaRepository<DrawdownBalance, Long> {
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "drawdown_balance"))
+    @Query(value = "INSERT INTO drawdown_balance (salesperson_id, recognized, pending, approved, paid, updated_at) " +
+                   "VALUES (:salespersonId, :amount, 0, 0, 0, now()) " +
+                   "ON CONFLICT (salesperson_id) DO UPDATE " +
+                   "SET recognized = drawdown_balance.recognized + EXCLUDED.recognized, updated_at = now()",
+           nativeQuery = true)
+    int addRecognized(@Param("salespersonId") Long salespersonId, @Param("amount") BigDecimal amount);
+
+    // A recognized plan was removed; never below zero, even if the balance was seeded short
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "drawdown_balance"))
+    @Query(value = "UPDATE drawdown_balance SET recognized = GREATEST(recognized - :amount, 0), updated_at = now() " +
+                   "WHERE salesperson_id = :salespersonId",
+           nativeQuery = true)
+    int removeRecognized(@Param("salespersonId") Long salespersonId, @Param("amount") BigDecimal amount);
+
+    // New request: available -> pending
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "drawdown_balance"))
+    @Query(value = "UPDATE drawdown_balance SET pending = pending + :amount, updated_at = now() " +
+                   "WHERE salesperson_id = :salespersonId " +
+                   "AND recognized - pending - approved - paid >= :amount",
+           nativeQuery = true)
+    int reserve(@Param("salespersonId") Long salespersonId, @Param("amount") BigDecimal amount);
+
+    // Approval: the pending reservation becomes the approved amount
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "drawdown_balance"))
+    @Query(value = "UPDATE drawdown_balance " +
+                   "SET pending = pending - :reserved, approved = approved + :approved, updated_at = now() " +
+                   "WHERE salesperson_id = :salespersonId AND pending >= :reserved " +
+                   "AND recognized - (pending - :reserved) - approved - paid >= :approved",
+           nativeQuery = true)
+    int approve(@Param("salespersonId") Long salespersonId,
+                @Param("reserved") BigDecimal reserved,
+                @Param("approved") BigDecimal approved);
+
+    // Rejection of a pending request: pending -> available
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "drawdown_balance"))
+    @Query(value = "UPDATE drawdown_balance SET pending = pending - :amount, updated_at = now() " +
+                   "WHERE salesperson_id = :salespersonId AND pending >= :amount",
+           nativeQuery = true)
+    int releasePending(@Param("salespersonId") Long salespersonId, @Param("amount") BigDecimal amount);
+
+    // Rejection of an approved, unpaid request: approved -> available
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "drawdown_balance"))
+    @Query(value = "UPDATE drawdown_balance SET approved = approved - :amount, updated_at = now() " +
+                   "WHERE salesperson_id = :salespersonId AND approved >= :amount",
+           nativeQuery = true)
+    int releaseApproved(@Param("salespersonId") Long salespersonId, @Param("amount") BigDecimal amount);
+
+    // Payment: approved -> paid
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "drawdown_balance"))
+    @Query(value = "UPDATE drawdown_balance SET approved = approved - :amount, paid = paid + :amount, " +
+                   "updated_at = now() " +
+                   "WHERE salesperson_id = :salespersonId AND approved >= :amount",
+           nativeQuery = true)
+    int pay(@Param("salespersonId") Long salespersonId, @Param("amount") BigDecimal amount);
+
+    @Query(value = "SELECT recognized - pending - approved - paid FROM drawdown_balance " +
+                   "WHERE salesperson_id = :salespersonId",
+           nativeQuery = true)
+    Optional<BigDecimal> findAvailable(@Param("salespersonId") Long salespersonId);
+}
@@ -1,14 +1,22 @@
 package com.ContractBilling.commissions.repository;
 
+import com.ContractBilling.commissions.dto.DrawdownHistoryRow;
 import com.ContractBilling.commissions.entity.DrawdownRequest;
 import com.ContractBilling.commissions.entity.Salesperson;
+import com.ContractBilling.commissions.repository.projection.StatusCount;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface DrawdownRequestRepository extends JpaRepository<DrawdownRequest, Long> {
@@ -32,4 +40,52 @@ public interface DrawdownRequestRepository extends JpaRepository<DrawdownRequest
     @Query("SELECT COALESCE(SUM(dr.approvedAmount), 0) FROM DrawdownRequest dr " +
            "WHERE dr.salesperson = :salesperson AND dr.status = 'PAID'")
     BigDecimal sumPaidAmount(@Param("salesperson") Salesperson salesperson);
+
+    // Drawdown history rows for a salesperson, newest first (only the rendered columns)
+    @Query(value = "SELECT new com.ContractBilling.commissions.dto.DrawdownHistoryRow(" +
+                   "dr.id, dr.requestedAmount, dr.approvedAmount, dr.status, dr.requestDate, " +
+                   "dr.approvedDate, dr.paidDate, dr.quarterYear, dr.quarterNumber, dr.rejectionReason) " +
+                   "FROM DrawdownRequest dr WHERE dr.salesperson.id = :salespersonId " +
+                   "ORDER BY dr.requestDate DESC, dr.id DESC",
+           countQuery = "SELECT COUNT(dr) FROM DrawdownRequest dr WHERE dr.salesperson.id = :salespersonId")
+    Page<DrawdownHistoryRow> findHistory(@Param("salespersonId") Long salespersonId, Pageable pageable);
+
+    @Query("SELECT dr.status AS status, COUNT(dr) AS count FROM DrawdownRequest dr " +
+           "WHERE dr.salesperson.id = :salespersonId GROUP BY dr.status")
+    List<StatusCount> countByStatus(@Param("salespersonId") Long salespersonId);
+
+    // Status transitions: each is a single UPDATE guarded by the expected current status and
+    // returns 1 if this call made the transition, 0 if the request was no longer in that status
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE DrawdownRequest dr SET dr.status = 'APPROVED', dr.approvedAmount = dr.requestedAmount, " +
+           "dr.approvedDate = :today, dr.approvedBy = :approvedBy, " +
+           "dr.quarterYear = :quarterYear, dr.quarterNumber = :quarterNumber, dr.updatedAt = :now " +
+           "WHERE dr.id = :id AND dr.status = 'PENDING'")
+    int markApproved(@Param("id") Long id,
+                     @Param("approvedBy") String approvedBy,
+                     @Param("today") LocalDate today,
+                     @Param("quarterYear") Integer quarterYear,
+                     @Param("quarterNumber") Integer quarterNumber,
+                     @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE DrawdownRequest dr SET dr.status = 'REJECTED', dr.rejectionReason = :reason, dr.updatedAt = :now " +
+           "WHERE dr.id = :id AND dr.status = :expectedStatus")
+    int markRejected(@Param("id") Long id,
+                     @Param("expectedStatus") String expectedStatus,
+                     @Param("reason") String reason,
+                     @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE DrawdownRequest dr SET dr.status = 'PAID', dr.paidDate = :today, dr.paidBy = :paidBy, " +
+           "dr.updatedAt = :now " +
+           "WHERE dr.id = :id AND dr.status = 'APPROVED'")
+    int markPaid(@Param("id") Long id,
+                 @Param("paidBy") String paidBy,
+                 @Param("today") LocalDate today,
+                 @Param("now") LocalDateTime now);
+
+    @Query("SELECT dr.status FROM DrawdownRequest dr WHERE dr.id = :id")
+    Optional<String> findStatusById(@Param("id") Long id);
 }
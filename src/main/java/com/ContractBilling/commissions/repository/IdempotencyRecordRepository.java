@@ -0,0 +1,45 @@
+package com.ContractBilling.commissions.repository;
+
+import com.ContractBilling.commissions.entity.IdempotencyRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, IdempotencyRecord.Key> {
+
+    Optional<IdempotencyRecord> findByPrincipalAndIdempotencyKey(String principal, String idempotencyKey);
+
+    // Returns 1 if this call owns the key, 0 if another request already claimed it.
+    // A claim that is still uncommitted makes this INSERT wait until that transaction ends.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_record"))
+    @Query(value = "INSERT INTO idempotency_record (principal, idempotency_key, operation, created_at) " +
+                   "VALUES (:principal, :key, :operation, now()) " +
+                   "ON CONFLICT (principal, idempotency_key) DO NOTHING",
+           nativeQuery = true)
+    int claim(@Param("principal") String principal, @Param("key") String key, @Param("operation") String operation);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_record"))
+    @Query(value = "UPDATE idempotency_record SET status_code = :statusCode, response_body = :body, " +
+                   "completed_at = now() WHERE principal = :principal AND idempotency_key = :key",
+           nativeQuery = true)
+    int complete(@Param("principal") String principal, @Param("key") String key,
+                 @Param("statusCode") int statusCode, @Param("body") String body);
+
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_record"))
+    @Query(value = "DELETE FROM idempotency_record WHERE created_at < :cutoff", nativeQuery = true)
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -3,14 +3,19 @@ package com.ContractBilling.commissions.repository;
 import com.ContractBilling.commissions.entity.Ledger;
 import com.ContractBilling.commissions.entity.LedgerEntryType;
 import com.ContractBilling.commissions.entity.Salesperson;
+import com.ContractBilling.commissions.repository.projection.LedgerMonthlyTotal;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface LedgerRepository extends JpaRepository<Ledger, Long> {
@@ -53,4 +58,25 @@ public interface LedgerRepository extends JpaRepository<Ledger, Long> {
     List<Ledger> findByDateRange(@Param("salesperson") Salesperson salesperson,
                                  @Param("startDate") LocalDateTime startDate,
                                  @Param("endDate") LocalDateTime endDate);
+
+    // Totals per month and entry type in [startDate, endDate)
+    @Query(value = "SELECT to_char(date_trunc('month', l.created_at), 'YYYY-MM') AS \"month\", " +
+                   "l.entry_type AS \"entryType\", SUM(l.amount) AS \"total\", COUNT(*) AS \"entryCount\" " +
+                   "FROM ledger l " +
+                   "WHERE l.salesperson_id = :salespersonId " +
+                   "AND l.created_at >= :startDate AND l.created_at < :endDate " +
+                   "GROUP BY 1, 2 " +
+                   "ORDER BY 1, 2",
+           nativeQuery = true)
+    List<LedgerMonthlyTotal> sumByMonthAndType(@Param("salespersonId") Long salespersonId,
+                                               @Param("startDate") LocalDateTime startDate,
+                                               @Param("endDate") LocalDateTime endDate);
+
+    // All ledger entries in id order, 500 rows per fetch, the salesperson joined in; use inside a transaction and close the stream
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT l FROM Ledger l JOIN FETCH l.salesperson ORDER BY l.id")
+    Stream<Ledger> streamAll();
 }
@@ -1,12 +1,21 @@
 package com.ContractBilling.commissions.repository;
 
 import com.ContractBilling.commissions.entity.*;
+import com.ContractBilling.commissions.repository.projection.ClientTierTotal;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for Placement entity
@@ -14,29 +23,60 @@ import java.util.List;
 @Repository
 public interface PlacementRepository extends JpaRepository<Placement, Long> {
 
+    /*
+     * Read paths that build PlacementResponses use the Placement.WITH_PARTIES graph, so
+     * salesperson, client and contractor come back in the same query instead of one
+     * lazy select each per placement.
+     */
+
+    /**
+     * Page of placements with their parties (count query runs separately, without joins)
+     */
+    @EntityGraph(Placement.WITH_PARTIES)
+    @Query(value = "SELECT p FROM Placement p", countQuery = "SELECT COUNT(p) FROM Placement p")
+    Page<Placement> findPageWithParties(Pageable pageable);
+
+    /**
+     * All placements with their parties
+     */
+    @EntityGraph(Placement.WITH_PARTIES)
+    @Query("SELECT p FROM Placement p")
+    List<Placement> findAllWithParties();
+
+    /**
+     * Find a placement with its parties
+     */
+    @EntityGraph(Placement.WITH_PARTIES)
+    Optional<Placement> findWithPartiesById(Long id);
+
     /**
      * Find all placements by salesperson
      */
+    @EntityGraph(Placement.WITH_PARTIES)
     List<Placement> findBySalesperson(Salesperson salesperson);
 
     /**
      * Find all placements by client
      */
+    @EntityGraph(Placement.WITH_PARTIES)
     List<Placement> findByClient(Client client);
 
     /**
      * Find all placements by contractor
      */
+    @EntityGraph(Placement.WITH_PARTIES)
     List<Placement> findByContractor(Contractor contractor);
 
     /**
      * Find all placements by status
      */
+    @EntityGraph(Placement.WITH_PARTIES)
     List<Placement> findByStatus(PlacementStatus status);
 
     /**
      * Find all placements by type
      */
+    @EntityGraph(Placement.WITH_PARTIES)
     List<Placement> findByPlacementType(PlacementType placementType);
 
     /**
@@ -51,4 +91,32 @@ public interface PlacementRepository extends JpaRepository<Placement, Long> {
      */
     @Query("SELECT p FROM Placement p WHERE p.salesperson = :salesperson AND p.status = 'ACTIVE'")
     List<Placement> findActivePlacementsBySalesperson(@Param("salesperson") Salesperson salesperson);
+
+    /**
+     * Sum stored margins and commission per client and contract tier (3 = third contract and later).
+     * Placements are aggregated first and only the per-client rows are joined to client;
+     * overheads only exist for contractor placements, which are the ones with a gross margin.
+     */
+    @Query(value = "SELECT t.client_id AS \"clientId\", c.name AS \"clientName\", t.tier AS \"tier\", " +
+                   "t.placement_count AS \"placementCount\", t.gross AS \"grossAnnualMargin\", " +
+                   "t.overheads AS \"overheads\", t.net AS \"netAnnualMargin\", t.commission AS \"commissionTotal\" " +
+                   "FROM (SELECT p.client_id, LEAST(COALESCE(p.sequence_number, 1), 3) AS tier, " +
+                   "             COUNT(*) AS placement_count, " +
+                   "             COALESCE(SUM(p.gross_annual_margin), 0) AS gross, " +
+                   "             COALESCE(SUM(p.gross_annual_margin - p.net_annual_margin), 0) AS overheads, " +
+                   "             COALESCE(SUM(p.net_annual_margin), 0) AS net, " +
+                   "             COALESCE(SUM(p.commission_total), 0) AS commission " +
+                   "      FROM placement p GROUP BY 1, 2) t " +
+                   "JOIN client c ON c.id = t.client_id " +
+                   "ORDER BY t.client_id, t.tier",
+           nativeQuery = true)
+    List<ClientTierTotal> sumProfitabilityByClientAndTier();
+
+    // All placements in id order, 500 rows per fetch, salesperson, client and contractor joined in; use inside a transaction and close the stream
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Placement p JOIN FETCH p.salesperson JOIN FETCH p.client JOIN FETCH p.contractor ORDER BY p.id")
+    Stream<Placement> streamAll();
 }
@@ -1,24 +1,66 @@
 package com.ContractBilling.commissions.repository;
 
 import com.ContractBilling.commissions.entity.RecognitionSchedule;
+import com.ContractBilling.commissions.repository.projection.ScheduleRecognition;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RecognitionScheduleRepository extends JpaRepository<RecognitionSchedule, Long> {
 
     List<RecognitionSchedule> findByCommissionPlanId(Long commissionPlanId);
 
+    List<RecognitionSchedule> findByCommissionPlanIdOrderByMonth(Long commissionPlanId);
+
+    // One PENDING entry per month in a single statement, with the values RecognitionSchedule's
+    // builder and @PrePersist would give it; month n falls n - 1 calendar months after the start,
+    // clamped to the month's last day like LocalDate.plusMonths
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "recognition_schedule"))
+    @Query(value = "INSERT INTO recognition_schedule (commission_plan_id, month, recognition_date, planned_amount, " +
+                   "                                  recognized_amount, status, created_at, updated_at) " +
+                   "SELECT :planId, m, CAST(CAST(:startDate AS date) + (m - 1) * INTERVAL '1 month' AS date), " +
+                   "       :monthlyAmount, 0, 'PENDING', :now, :now " +
+                   "FROM generate_series(1, :months) AS m",
+           nativeQuery = true)
+    int insertMonthlySchedule(@Param("planId") Long planId,
+                              @Param("startDate") LocalDate startDate,
+                              @Param("months") int months,
+                              @Param("monthlyAmount") BigDecimal monthlyAmount,
+                              @Param("now") LocalDateTime now);
+
     List<RecognitionSchedule> findByStatus(String status);
 
     @Query("SELECT rs FROM RecognitionSchedule rs WHERE rs.recognitionDate <= :date AND rs.status = 'PENDING' ORDER BY rs.recognitionDate")
     List<RecognitionSchedule> findDueForRecognition(@Param("date") LocalDate date);
 
+    @Query("SELECT rs.id FROM RecognitionSchedule rs WHERE rs.recognitionDate <= :date AND rs.status = 'PENDING' " +
+           "ORDER BY rs.recognitionDate, rs.id")
+    List<Long> findIdsDueForRecognition(@Param("date") LocalDate date);
+
+    // PENDING -> RECOGNIZED; returns 0 if the entry was already recognized (by a retry or a concurrent run)
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE RecognitionSchedule rs SET rs.status = 'RECOGNIZED', rs.recognizedAmount = rs.plannedAmount, " +
+           "rs.updatedAt = :now WHERE rs.id = :id AND rs.status = 'PENDING'")
+    int markRecognized(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Query("SELECT cp.id AS commissionPlanId, cp.salesperson.id AS salespersonId, rs.month AS month, " +
+           "rs.plannedAmount AS amount " +
+           "FROM RecognitionSchedule rs JOIN rs.commissionPlan cp WHERE rs.id = :id")
+    Optional<ScheduleRecognition> findRecognitionById(@Param("id") Long id);
+
     @Query("SELECT rs FROM RecognitionSchedule rs WHERE rs.commissionPlan.id = :planId AND rs.status != 'PAID'")
     List<RecognitionSchedule> findUnpaidSchedules(@Param("planId") Long planId);
 }
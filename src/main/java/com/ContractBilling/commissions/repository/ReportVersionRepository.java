@@ -0,0 +1,39 @@
+package com.ContractBilling.commissions.repository;
+
+import com.ContractBilling.commissions.entity.ReportVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface ReportVersionRepository extends JpaRepository<ReportVersion, Long> {
+
+    // Row for changes that belong to no one salesperson (salesperson ids start at 1)
+    long SHARED_ROW = 0L;
+
+    // Joins the writer's transaction; starts its own when published outside one
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "report_version"))
+    @Transactional
+    @Query(value = "INSERT INTO report_version (salesperson_id, version, updated_at) " +
+                   "VALUES (:salespersonId, 1, now()) " +
+                   "ON CONFLICT (salesperson_id) DO UPDATE " +
+                   "SET version = report_version.version + 1, updated_at = now()",
+           nativeQuery = true)
+    int increment(@Param("salespersonId") Long salespersonId);
+
+    @Query("SELECT v.version FROM ReportVersion v WHERE v.salespersonId = :salespersonId")
+    Optional<Long> findVersion(@Param("salespersonId") Long salespersonId);
+
+    // Every increment adds exactly 1, so the sum changes whenever any salesperson's data does
+    @Query("SELECT COALESCE(SUM(v.version), 0) FROM ReportVersion v")
+    Long sumVersions();
+}
@@ -0,0 +1,43 @@
+package com.ContractBilling.commissions.repository;
+
+import com.ContractBilling.commissions.entity.RevokedToken;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    // Revocations still in force, for loading a node's in-memory list at startup
+    List<RevokedToken> findByExpiresAtAfter(LocalDateTime now);
+
+    // Revocations recorded since the last poll (callers overlap the window to catch late commits)
+    List<RevokedToken> findByRevokedAtAfterAndExpiresAtAfter(LocalDateTime since, LocalDateTime now);
+
+    // Revokes one token; returns 0 if it was already revoked (a repeated or concurrent logout)
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "revoked_token"))
+    @Query(value = "INSERT INTO revoked_token (jti, username, revoked_at, expires_at) " +
+                   "VALUES (:jti, :username, :revokedAt, :expiresAt) " +
+                   "ON CONFLICT (jti) DO NOTHING",
+           nativeQuery = true)
+    int revokeToken(@Param("jti") String jti,
+                    @Param("username") String username,
+                    @Param("revokedAt") LocalDateTime revokedAt,
+                    @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "revoked_token"))
+    @Query(value = "DELETE FROM revoked_token WHERE expires_at < :cutoff", nativeQuery = true)
+    int deleteExpiredBefore(@Param("cutoff") LocalDateTime cutoff);
+}
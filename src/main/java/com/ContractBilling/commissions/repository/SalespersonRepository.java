@@ -2,15 +2,82 @@ package com.ContractBilling.commissions.repository;
 
 import com.ContractBilling.commissions.entity.Salesperson;
 import com.ContractBilling.commissions.entity.SalespersonStatus;
+import com.ContractBilling.commissions.repository.projection.DrawdownEligibilityFacts;
+import com.ContractBilling.commissions.repository.projection.SalespersonDashboardView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface SalespersonRepository extends JpaRepository<Salesperson, Long> {
-    Optional<Salesperson> findByEmail(String email);
+public interface SalespersonRepository extends JpaRepository<Salesperson, Long>, SalespersonRepositoryCustom {
     List<Salesperson> findByStatus(SalespersonStatus status);
     boolean existsByEmail(String email);
-    List<Salesperson> findByNameContainingIgnoreCase(String name);
+
+    // Dashboard totals (plans, recognition, payouts, pending count, drawdown balance) and the
+    // report version they reflect, read in one round trip so both come from the same snapshot
+    @Query(value = "SELECT s.id AS \"salespersonId\", s.name AS \"salespersonName\", " +
+                   "COALESCE(rv.version, 0) AS \"dataVersion\", " +
+                   "COALESCE(cp.total_planned, 0) AS \"totalPlanned\", " +
+                   "COALESCE(cp.total_recognized, 0) AS \"totalRecognized\", " +
+                   "COALESCE(dr.total_paid, 0) AS \"totalPaid\", " +
+                   "COALESCE(cp.pending_plans, 0) AS \"pendingPlans\", " +
+                   "COALESCE(db.recognized - db.pending - db.approved - db.paid, 0) AS \"availableForDrawdown\" " +
+                   "FROM salesperson s " +
+                   "LEFT JOIN (SELECT salesperson_id, SUM(planned_amount) AS total_planned, " +
+                   "                  SUM(recognized_amount) AS total_recognized, " +
+                   "                  COUNT(*) FILTER (WHERE status = 'PLANNED') AS pending_plans " +
+                   "           FROM commission_plan WHERE salesperson_id = :salespersonId " +
+                   "           GROUP BY salesperson_id) cp ON cp.salesperson_id = s.id " +
+                   "LEFT JOIN (SELECT salesperson_id, SUM(approved_amount) AS total_paid " +
+                   "           FROM drawdown_request WHERE salesperson_id = :salespersonId AND status = 'PAID' " +
+                   "           GROUP BY salesperson_id) dr ON dr.salesperson_id = s.id " +
+                   "LEFT JOIN drawdown_balance db ON db.salesperson_id = s.id " +
+                   "LEFT JOIN report_version rv ON rv.salesperson_id = s.id " +
+                   "WHERE s.id = :salespersonId",
+           nativeQuery = true)
+    Optional<SalespersonDashboardView> findDashboardById(@Param("salespersonId") Long salespersonId);
+
+    // Drawdown eligibility inputs for many salespeople at once; unknown ids are simply absent
+    @Query(value = "SELECT s.id AS \"salespersonId\", " +
+                   "COALESCE(cp.months_recognized, 0) AS \"monthsRecognized\", " +
+                   "COALESCE(dr.drawdowns, 0) AS \"drawdownsInQuarter\", " +
+                   "COALESCE(db.recognized - db.pending - db.approved - db.paid, 0) AS \"availableBalance\" " +
+                   "FROM salesperson s " +
+                   "LEFT JOIN (SELECT salesperson_id, MAX(months_recognized) AS months_recognized " +
+                   "           FROM commission_plan WHERE salesperson_id IN (:salespersonIds) " +
+                   "           GROUP BY salesperson_id) cp ON cp.salesperson_id = s.id " +
+                   "LEFT JOIN (SELECT salesperson_id, COUNT(*) AS drawdowns " +
+                   "           FROM drawdown_request WHERE salesperson_id IN (:salespersonIds) " +
+                   "           AND quarter_year = :quarterYear AND quarter_number = :quarterNumber " +
+                   "           AND status != 'REJECTED' " +
+                   "           GROUP BY salesperson_id) dr ON dr.salesperson_id = s.id " +
+                   "LEFT JOIN drawdown_balance db ON db.salesperson_id = s.id " +
+                   "WHERE s.id IN (:salespersonIds)",
+           nativeQuery = true)
+    List<DrawdownEligibilityFacts> findDrawdownEligibilityFacts(@Param("salespersonIds") Collection<Long> salespersonIds,
+                                                                @Param("quarterYear") int quarterYear,
+                                                                @Param("quarterNumber") int quarterNumber);
+
+    // Names containing the query or with a word close to it, best match first (see NameSearch)
+    @Query(value = "SELECT * FROM salesperson WHERE name ILIKE :pattern OR :query <% name " +
+                   "ORDER BY :query <<-> name, name, id",
+           nativeQuery = true)
+    List<Salesperson> searchByName(@Param("query") String query, @Param("pattern") String pattern, Pageable pageable);
+
+    // All salespeople in id order, 500 rows per fetch; use inside a transaction and close the stream
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s FROM Salesperson s ORDER BY s.id")
+    Stream<Salesperson> streamAll();
 }
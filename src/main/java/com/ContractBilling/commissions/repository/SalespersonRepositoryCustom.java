@@ -0,0 +1,16 @@
+package com.ContractBilling.commissions.repository;
+
+import com.ContractBilling.commissions.entity.Salesperson;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Email lookups through Hibernate's natural-id API, answered from the
+ * second-level cache (region "salesperson-email") instead of a query once the email is known.
+ */
+public interface SalespersonRepositoryCustom {
+
+    @Transactional(readOnly = true)
+    Optional<Salesperson> findByEmail(String email);
+}
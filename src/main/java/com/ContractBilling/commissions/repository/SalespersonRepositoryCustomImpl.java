@@ -0,0 +1,21 @@
+package com.ContractBilling.commissions.repository;
+
+import com.ContractBilling.commissions.entity.Salesperson;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+public class SalespersonRepositoryCustomImpl implements SalespersonRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Salesperson> findByEmail(String email) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Salesperson.class)
+                .loadOptional(email);
+    }
+}
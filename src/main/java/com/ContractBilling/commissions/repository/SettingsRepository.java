@@ -4,11 +4,17 @@ import com.ContractBilling.commissions.entity.PolicySettings;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 /**
  * Repository for PolicySettings entity
  * This is a singleton - only ONE record should exist
  */
 @Repository
 public interface SettingsRepository extends JpaRepository<PolicySettings, Long> {
-    // No custom methods needed - we'll always fetch the first (and only) record
+
+    // The singleton record, loaded by id so it is served from the second-level cache
+    default Optional<PolicySettings> findSingleton() {
+        return findById(PolicySettings.SINGLETON_ID);
+    }
 }
@@ -0,0 +1,16 @@
+package com.ContractBilling.commissions.repository;
+
+import com.ContractBilling.commissions.entity.User;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Username lookups through Hibernate's natural-id API, answered from the
+ * second-level cache (region "user-username") instead of a query once the username is known.
+ */
+public interface UserRepositoryCustom {
+
+    @Transactional(readOnly = true)
+    Optional<User> findByUsername(String username);
+}
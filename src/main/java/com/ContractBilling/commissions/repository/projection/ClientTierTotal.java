@@ -0,0 +1,25 @@
+package com.ContractBilling.commissions.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Stored placement figures summed per client and contract tier (aggregate query projection)
+ */
+public interface ClientTierTotal {
+
+    Long getClientId();
+
+    String getClientName();
+
+    Integer getTier();
+
+    Long getPlacementCount();
+
+    BigDecimal getGrossAnnualMargin();
+
+    BigDecimal getOverheads();
+
+    BigDecimal getNetAnnualMargin();
+
+    BigDecimal getCommissionTotal();
+}
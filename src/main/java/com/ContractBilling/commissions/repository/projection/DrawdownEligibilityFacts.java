@@ -0,0 +1,19 @@
+package com.ContractBilling.commissions.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Inputs to the drawdown eligibility rules for one salesperson (aggregate query projection)
+ */
+public interface DrawdownEligibilityFacts {
+
+    Long getSalespersonId();
+
+    // Most months recognized on any of the salesperson's commission plans
+    Integer getMonthsRecognized();
+
+    // Non-rejected drawdowns stamped with the given quarter
+    Long getDrawdownsInQuarter();
+
+    BigDecimal getAvailableBalance();
+}
@@ -0,0 +1,18 @@
+package com.ContractBilling.commissions.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Ledger total for one month and entry type (aggregate query projection)
+ */
+public interface LedgerMonthlyTotal {
+
+    // Month formatted as yyyy-MM
+    String getMonth();
+
+    String getEntryType();
+
+    BigDecimal getTotal();
+
+    Long getEntryCount();
+}
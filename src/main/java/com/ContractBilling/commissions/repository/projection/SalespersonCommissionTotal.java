@@ -0,0 +1,15 @@
+package com.ContractBilling.commissions.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Total planned commission per salesperson (aggregate query projection)
+ */
+public interface SalespersonCommissionTotal {
+
+    Long getSalespersonId();
+
+    String getName();
+
+    BigDecimal getTotalCommission();
+}
@@ -0,0 +1,27 @@
+package com.ContractBilling.commissions.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Dashboard figures for one salesperson, computed in a single aggregate query
+ */
+public interface SalespersonDashboardView {
+
+    Long getSalespersonId();
+
+    String getSalespersonName();
+
+    // report_version of the salesperson when these figures were read (0 if none yet)
+    Long getDataVersion();
+
+    BigDecimal getTotalPlanned();
+
+    BigDecimal getTotalRecognized();
+
+    BigDecimal getTotalPaid();
+
+    Long getPendingPlans();
+
+    // Same figure as DrawdownEngine.getAvailableBalance
+    BigDecimal getAvailableForDrawdown();
+}
@@ -0,0 +1,17 @@
+package com.ContractBilling.commissions.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * What a recognized schedule entry adds to its plan and the ledger
+ */
+public interface ScheduleRecognition {
+
+    Long getCommissionPlanId();
+
+    Long getSalespersonId();
+
+    Integer getMonth();
+
+    BigDecimal getAmount();
+}
@@ -0,0 +1,11 @@
+package com.ContractBilling.commissions.repository.projection;
+
+/**
+ * Row count for one status value
+ */
+public interface StatusCount {
+
+    String getStatus();
+
+    Long getCount();
+}
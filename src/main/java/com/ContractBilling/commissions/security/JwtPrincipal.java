@@ -0,0 +1,26 @@
+package com.ContractBilling.commissions.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The authenticated user as carried in a verified JWT, so requests don't need to load the user row.
+ * tokenId is the jti, used to revoke this one token on logout.
+ */
+public record JwtPrincipal(String tokenId,
+                           Long userId,
+                           String username,
+                           List<String> roles,
+                           boolean enabled,
+                           Instant issuedAt,
+                           Instant expiresAt) {
+
+    public List<GrantedAuthority> authorities() {
+        return roles.stream()
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+    }
+}
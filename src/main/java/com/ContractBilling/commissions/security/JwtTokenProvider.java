@@ -1,76 +1,107 @@
 package com.ContractBilling.commissions.security;
 
+import com.ContractBilling.commissions.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
+/**
+ * Issues and verifies JWTs.
+ *
+ * Tokens carry a unique id (jti), the user id, roles and enabled flag as claims, so a verified
+ * token is enough to authenticate a request. The signing key and parser are
+ * built once; each token is parsed and verified in a single pass.
+ */
 @Component
-@RequiredArgsConstructor
+@Slf4j
 public class JwtTokenProvider {
 
-    @Value("${jwt.secret:defaultSecretKeyForJwtTokenProviderThatShouldBeChangedInProduction}")
-    private String jwtSecret;
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLES = "roles";
+    static final String CLAIM_ENABLED = "enabled";
 
-    @Value("${jwt.expiration:3600000}")
-    private long jwtExpirationMs;
+    private final long jwtExpirationMs;
+    private final SecretKey key;
+    private final JwtParser parser;
+
+    public JwtTokenProvider(
+            @Value("${jwt.secret:defaultSecretKeyForJwtTokenProviderThatShouldBeChangedInProduction}") String jwtSecret,
+            @Value("${jwt.expiration:3600000}") long jwtExpirationMs) {
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(key).build();
+    }
 
     public String generateToken(Authentication authentication) {
-        long now = System.currentTimeMillis();
-        long expiryTime = now + jwtExpirationMs;
+        if (authentication.getPrincipal() instanceof UserDetails userDetails) {
+            return generateToken(userDetails);
+        }
+        return buildToken(authentication.getName(), null,
+                authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList(), true);
+    }
 
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    public String generateToken(UserDetails userDetails) {
+        Long userId = userDetails instanceof User user ? user.getId() : null;
+        List<String> roles = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
 
-        return Jwts.builder()
-                .subject(authentication.getName())
-                .issuedAt(new Date(now))
-                .expiration(new Date(expiryTime))
-                .signWith(key)
-                .compact();
+        return buildToken(userDetails.getUsername(), userId, roles, userDetails.isEnabled());
     }
 
-    public String generateTokenFromUsername(String username) {
+    /**
+     * Verify the signature and expiry and read the claims in one pass.
+     * Returns empty for a malformed, tampered or expired token.
+     */
+    public Optional<JwtPrincipal> parseToken(String token) {
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+
+            List<?> roles = claims.get(CLAIM_ROLES, List.class);
+            Boolean enabled = claims.get(CLAIM_ENABLED, Boolean.class);
+
+            return Optional.of(new JwtPrincipal(
+                    claims.getId(),
+                    claims.get(CLAIM_USER_ID, Long.class),
+                    claims.getSubject(),
+                    roles != null ? roles.stream().map(String::valueOf).toList() : List.of(),
+                    enabled == null || enabled,
+                    claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                    claims.getExpiration() != null ? claims.getExpiration().toInstant() : null));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected JWT: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private String buildToken(String username, Long userId, List<String> roles, boolean enabled) {
         long now = System.currentTimeMillis();
         long expiryTime = now + jwtExpirationMs;
 
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(username)
+                .claim(CLAIM_USER_ID, userId)
+                .claim(CLAIM_ROLES, roles)
+                .claim(CLAIM_ENABLED, enabled)
                 .issuedAt(new Date(now))
                 .expiration(new Date(expiryTime))
                 .signWith(key)
                 .compact();
     }
-
-    public String getUsernameFromToken(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return claims.getSubject();
-    }
-
-    public boolean validateToken(String token) {
-        try {
-            SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
-    }
 }
@@ -0,0 +1,107 @@
+package com.ContractBilling.commissions.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Token buckets for login attempts, one per username and one per client IP.
+ *
+ * Buckets live in a bounded Caffeine map and are dropped once idle, so a
+ * credential-stuffing run over many usernames can't grow it without limit.
+ * Taking a token is a compare-and-set on the bucket, with no locks.
+ */
+@Component
+public class LoginAttemptLimiter {
+
+    private final Cache<String, TokenBucket> buckets;
+    private final int usernameCapacity;
+    private final int ipCapacity;
+    private final double usernameRefillPerNano;
+    private final double ipRefillPerNano;
+
+    public LoginAttemptLimiter(@Value("${auth.login.per-username.capacity:5}") int usernameCapacity,
+                               @Value("${auth.login.per-username.refill-period:1m}") Duration usernameRefillPeriod,
+                               @Value("${auth.login.per-ip.capacity:20}") int ipCapacity,
+                               @Value("${auth.login.per-ip.refill-period:1m}") Duration ipRefillPeriod,
+                               @Value("${auth.login.limiter.max-keys:100000}") long maxKeys) {
+        this.usernameCapacity = usernameCapacity;
+        this.ipCapacity = ipCapacity;
+        // A full bucket refills over its period
+        this.usernameRefillPerNano = (double) usernameCapacity / usernameRefillPeriod.toNanos();
+        this.ipRefillPerNano = (double) ipCapacity / ipRefillPeriod.toNanos();
+
+        Duration idle = usernameRefillPeriod.compareTo(ipRefillPeriod) > 0 ? usernameRefillPeriod : ipRefillPeriod;
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(idle)
+                .maximumSize(maxKeys)
+                .build();
+    }
+
+    /**
+     * Take one attempt from the IP's and the username's bucket.
+     * Returns 0 if allowed, otherwise the seconds until the next attempt would be.
+     */
+    public long tryAcquire(String username, String clientIp) {
+        long now = System.nanoTime();
+
+        // IP first, so attempts refused for their IP don't use up the account's allowance
+        if (clientIp != null) {
+            TokenBucket ip = buckets.get("ip:" + clientIp,
+                    key -> new TokenBucket(ipCapacity, ipRefillPerNano, now));
+            long ipWait = ip.tryTake(now);
+            if (ipWait > 0) {
+                return toSeconds(ipWait);
+            }
+        }
+
+        TokenBucket user = buckets.get("u:" + username.toLowerCase(),
+                key -> new TokenBucket(usernameCapacity, usernameRefillPerNano, now));
+        long userWait = user.tryTake(now);
+        if (userWait > 0) {
+            return toSeconds(userWait);
+        }
+        return 0;
+    }
+
+    private static long toSeconds(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos) + 1);
+    }
+
+    static final class TokenBucket {
+
+        private record State(double tokens, long refilledAt) {
+        }
+
+        private final int capacity;
+        private final double refillPerNano;
+        private final AtomicReference<State> state;
+
+        TokenBucket(int capacity, double refillPerNano, long now) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerNano;
+            this.state = new AtomicReference<>(new State(capacity, now));
+        }
+
+        // 0 if a token was taken, otherwise the nanoseconds until one is available
+        long tryTake(long now) {
+            while (true) {
+                State current = state.get();
+                double elapsed = Math.max(0, now - current.refilledAt());
+                double tokens = Math.min(capacity, current.tokens() + elapsed * refillPerNano);
+
+                if (tokens < 1) {
+                    return (long) Math.ceil((1 - tokens) / refillPerNano);
+                }
+                if (state.compareAndSet(current, new State(tokens - 1, Math.max(now, current.refilledAt())))) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.ContractBilling.commissions.security;
+
+import com.ContractBilling.commissions.event.UserAccessChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Users whose access changed recently, with the time of the change.
+ *
+ * Roles and enabled state travel inside the JWT, so a token stays valid after
+ * the user row changes. This cache rejects tokens issued before the last change
+ * instead. An entry only has to outlive the tokens it rejects, so it expires
+ * after one token lifetime. There is deliberately no size bound: evicting a live
+ * entry would let that user's old tokens back in, and the entries are bounded by
+ * the access changes made within one token lifetime anyway. Changes are also
+ * stored in revoked_token, so other nodes learn of them through TokenRevocationList.
+ */
+@Component
+@Slf4j
+public class TokenRevocationCache {
+
+    private final Cache<String, Instant> changedAt;
+
+    public TokenRevocationCache(@Value("${jwt.expiration:3600000}") long jwtExpirationMs) {
+        this.changedAt = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(jwtExpirationMs))
+                .build();
+    }
+
+    // Recorded once the change has committed, so tokens issued while it was in flight are caught too
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccessChanged(UserAccessChangedEvent event) {
+        changedAt.put(event.username(), Instant.now());
+        log.info("Tokens issued to {} before now are no longer accepted", event.username());
+    }
+
+    // User-wide revocations made on other nodes, delivered by TokenRevocationList's poll
+    void revokeUser(String username, Instant revokedAt) {
+        changedAt.asMap().merge(username, revokedAt, (current, incoming) -> incoming.isAfter(current) ? incoming : current);
+    }
+
+    public boolean isRevoked(JwtPrincipal principal) {
+        Instant changed = changedAt.getIfPresent(principal.username());
+        if (changed == null) {
+            return false;
+        }
+        // iat has whole-second precision; a token from the same second as the change is treated as older
+        return principal.issuedAt() == null || !principal.issuedAt().isAfter(changed.truncatedTo(ChronoUnit.SECONDS));
+    }
+}
@@ -0,0 +1,136 @@
+package com.ContractBilling.commissions.security;
+
+import com.ContractBilling.commissions.entity.RevokedToken;
+import com.ContractBilling.commissions.event.TokenRevokedEvent;
+import com.ContractBilling.commissions.repository.RevokedTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This node's copy of the revoked_token table.
+ *
+ * Each node polls the table into memory, so checking a token never touches the
+ * database: a Bloom filter rules out almost every token in a few bit reads, and
+ * the exact set settles the rare hits. Revocations made on this node apply at
+ * once; those made elsewhere apply within one poll interval. User-wide rows are
+ * handed to TokenRevocationCache.
+ *
+ * Expired entries are dropped hourly. A Bloom filter can't remove values, so the
+ * filter is rebuilt from the set then; writes are serialized so none is lost.
+ */
+@Component
+@Slf4j
+public class TokenRevocationList {
+
+    // Each poll re-reads this far back, to catch rows whose transaction committed after the previous poll
+    private static final Duration POLL_OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenRepository repository;
+    private final TokenRevocationCache userRevocations;
+    private final long expectedTokens;
+    private final double falsePositiveRate;
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter filter;
+    // Only touched by poll(); the scheduler never overlaps its runs, but may run them on different threads
+    private volatile LocalDateTime polledUpTo;
+
+    public TokenRevocationList(RevokedTokenRepository repository,
+                               TokenRevocationCache userRevocations,
+                               @Value("${jwt.revocation.expected-tokens:100000}") long expectedTokens,
+                               @Value("${jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.repository = repository;
+        this.userRevocations = userRevocations;
+        this.expectedTokens = expectedTokens;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedTokens, falsePositiveRate);
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && filter.mightContain(tokenId) && revoked.containsKey(tokenId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTokenRevoked(TokenRevokedEvent event) {
+        add(event.tokenId(), event.expiresAt());
+        log.debug("Token {} revoked", event.tokenId());
+    }
+
+    private synchronized void add(String tokenId, Instant expiresAt) {
+        if (revoked.put(tokenId, expiresAt) != null) {
+            return;
+        }
+        if (revoked.size() > filter.expectedInsertions()) {
+            // Past its sizing the filter's false-positive rate climbs; grow it
+            rebuildFilter();
+        } else {
+            filter.put(tokenId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.poll-interval:5s}")
+    void poll() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<RevokedToken> rows = polledUpTo == null
+                    ? repository.findByExpiresAtAfter(now)
+                    : repository.findByRevokedAtAfterAndExpiresAtAfter(polledUpTo.minus(POLL_OVERLAP), now);
+
+            for (RevokedToken row : rows) {
+                if (row.getJti() != null) {
+                    add(row.getJti(), toInstant(row.getExpiresAt()));
+                } else {
+                    userRevocations.revokeUser(row.getUsername(), toInstant(row.getRevokedAt()));
+                }
+            }
+            if (polledUpTo == null) {
+                log.info("Loaded {} token revocations", rows.size());
+            }
+            polledUpTo = now;
+        } catch (RuntimeException e) {
+            log.warn("Token revocation poll failed", e);
+        }
+    }
+
+    @Scheduled(initialDelay = 60, fixedDelay = 60, timeUnit = TimeUnit.MINUTES)
+    void purgeExpired() {
+        Instant now = Instant.now();
+        synchronized (this) {
+            if (revoked.values().removeIf(expiresAt -> expiresAt.isBefore(now))) {
+                rebuildFilter();
+            }
+        }
+
+        try {
+            int purged = repository.deleteExpiredBefore(LocalDateTime.now());
+            if (purged > 0) {
+                log.info("Purged {} expired token revocations", purged);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Token revocation purge failed", e);
+        }
+    }
+
+    // Callers hold the lock, so no add lands in the old filter after the copy
+    private void rebuildFilter() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedTokens, revoked.size() * 2L), falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+    }
+
+    private static Instant toInstant(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
@@ -3,8 +3,19 @@ package com.ContractBilling.commissions.service;
 import com.ContractBilling.commissions.dto.AuthResponse;
 import com.ContractBilling.commissions.dto.LoginRequest;
 import com.ContractBilling.commissions.dto.RegisterRequest;
+import com.ContractBilling.commissions.security.JwtPrincipal;
+
+import java.util.concurrent.CompletableFuture;
 
 public interface AuthService {
     AuthResponse register(RegisterRequest request);
-    AuthResponse login(LoginRequest request);
+    // Completes once the password is verified, off the caller's thread; clientIp feeds the
+    // per-IP attempt limit and may be null
+    CompletableFuture<AuthResponse> login(LoginRequest request, String clientIp);
+
+    // Revokes the token the principal was authenticated with
+    void logout(JwtPrincipal principal);
+
+    // Also revokes tokens already issued to the user
+    void setEnabled(String username, boolean enabled);
 }
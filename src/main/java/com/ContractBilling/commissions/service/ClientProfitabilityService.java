@@ -0,0 +1,11 @@
+package com.ContractBilling.commissions.service;
+
+import com.ContractBilling.commissions.dto.ClientProfitabilityReport;
+
+public interface ClientProfitabilityService {
+
+    // Margin, overhead and commission totals per client and contract tier.
+    // recalculate = false sums the stored placement figures in the database;
+    // recalculate = true re-derives every placement's figures with the current policy settings.
+    ClientProfitabilityReport getClientProfitability(boolean recalculate);
+}
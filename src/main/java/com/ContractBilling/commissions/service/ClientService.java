@@ -8,6 +8,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Service interface for Client operations
@@ -24,6 +25,11 @@ public interface ClientService {
      */
     List<ClientResponse> getAll();
 
+    /**
+     * Stream all clients in id order, one at a time; memory use doesn't depend on table size
+     */
+    void streamAll(Consumer<ClientResponse> consumer);
+
     /**
      * Get all clients with pagination and sorting
      */
@@ -55,7 +61,7 @@ public interface ClientService {
     List<ClientResponse> findByStatus(ClientStatus status);
 
     /**
-     * Search clients by name
+     * Search clients by name, best match first; fuzzy, so small typos still match
      */
-    List<ClientResponse> searchByName(String keyword);
+    List<ClientResponse> searchByName(String keyword, Pageable pageable);
 }
@@ -1,5 +1,6 @@
 package com.ContractBilling.commissions.service;
 
+import com.ContractBilling.commissions.dto.PlacementFinancials;
 import com.ContractBilling.commissions.entity.Placement;
 import com.ContractBilling.commissions.entity.PolicySettings;
 
@@ -168,4 +169,16 @@ public interface CommissionCalculationService {
      * @param settings Policy settings containing commission percentages
      */
     void calculatePermanentCommission(Placement placement, PolicySettings settings);
+
+    /**
+     * Recalculate margins and commission for a placement under the given settings
+     * Same rules as calculateContractorCommission / calculatePermanentCommission, but the
+     * placement is left unchanged and nothing is logged per step (used by bulk reports).
+     * Placements missing calculation inputs get their stored figures back.
+     *
+     * @param placement The placement whose inputs to use (need not be managed)
+     * @param settings Policy settings to apply
+     * @return The recalculated figures
+     */
+    PlacementFinancials recalculate(Placement placement, PolicySettings settings);
 }
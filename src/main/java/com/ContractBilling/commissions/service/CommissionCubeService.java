@@ -0,0 +1,19 @@
+package com.ContractBilling.commissions.service;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+public interface CommissionCubeService {
+
+    // Roll up the cube by any combination of month, salesperson, client and placementType
+    Map<String, Object> rollUp(List<String> groupBy,
+                               YearMonth fromMonth,
+                               YearMonth toMonth,
+                               Long salespersonId,
+                               Long clientId,
+                               String placementType);
+
+    // Recompute the whole cube from commission plans and the ledger
+    void rebuild();
+}
@@ -9,6 +9,7 @@ import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface CommissionPlanService {
 
@@ -18,6 +19,9 @@ public interface CommissionPlanService {
 
     List<CommissionPlanResponse> getAll();
 
+    // Every commission plan in id order, handed to the consumer one at a time; memory use doesn't depend on table size
+    void streamAll(Consumer<CommissionPlanResponse> consumer);
+
     Page<CommissionPlanResponse> getAll(Pageable pageable);
 
     CommissionPlanResponse update(Long id, UpdateCommissionPlanRequest request);
@@ -9,6 +9,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Service interface for Contractor operations
@@ -25,6 +26,11 @@ public interface ContractorService {
      */
     List<ContractorResponse> getAll();
 
+    /**
+     * Stream all contractors in id order, one at a time; memory use doesn't depend on table size
+     */
+    void streamAll(Consumer<ContractorResponse> consumer);
+
     /**
      * Get all contractors with pagination and sorting
      */
@@ -61,7 +67,7 @@ public interface ContractorService {
     List<ContractorResponse> findByType(ContractorType type);
 
     /**
-     * Search contractors by name
+     * Search contractors by name, best match first; fuzzy, so small typos still match
      */
-    List<ContractorResponse> searchByName(String keyword);
+    List<ContractorResponse> searchByName(String keyword, Pageable pageable);
 }
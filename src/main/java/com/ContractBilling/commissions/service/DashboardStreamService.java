@@ -0,0 +1,12 @@
+package com.ContractBilling.commissions.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface DashboardStreamService {
+
+    // Open a live stream of dashboard updates for a salesperson
+    SseEmitter subscribe(Long salespersonId);
+
+    // Number of open streams
+    int getConnectionCount();
+}
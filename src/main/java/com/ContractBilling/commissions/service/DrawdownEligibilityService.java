@@ -0,0 +1,24 @@
+package com.ContractBilling.commissions.service;
+
+import com.ContractBilling.commissions.dto.DrawdownEligibility;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Drawdown eligibility (policy minimum month, per-quarter limit, available balance) for one or many salespeople
+ */
+public interface DrawdownEligibilityService {
+
+    // Throws ResourceNotFoundException for an unknown salesperson
+    DrawdownEligibility evaluate(Long salespersonId);
+
+    // In the order given; unknown salespeople are left out
+    List<DrawdownEligibility> evaluate(Collection<Long> salespersonIds);
+
+    // Drops the cached decision once a change to the salesperson has committed
+    void evict(Long salespersonId);
+
+    // Drops every cached decision, e.g. after a policy change
+    void evictAll();
+}
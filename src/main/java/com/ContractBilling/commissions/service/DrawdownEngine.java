@@ -1,9 +1,11 @@
 package com.ContractBilling.commissions.service;
 
+import com.ContractBilling.commissions.dto.DrawdownBatchResponse;
 import com.ContractBilling.commissions.entity.DrawdownRequest;
 import com.ContractBilling.commissions.entity.Salesperson;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 /**
  * Business rules engine for drawdown/payout approvals
@@ -11,34 +13,57 @@ import java.math.BigDecimal;
 public interface DrawdownEngine {
 
     /**
-     * Check if salesperson can request drawdown
+     * Check if salesperson can request drawdown (minimum month, quarter limit and available balance)
      */
     boolean canRequestDrawdown(Salesperson salesperson);
 
     /**
-     * Get maximum drawable amount for salesperson
+     * Get maximum drawable amount for salesperson: the available balance if eligible, otherwise zero
      */
     BigDecimal getMaxDrawableAmount(Salesperson salesperson);
 
     /**
-     * Get available balance (recognized - paid)
+     * Get available balance (recognized - pending - approved - paid)
      */
     BigDecimal getAvailableBalance(Salesperson salesperson);
 
     /**
-     * Approve drawdown request
+     * Create a PENDING drawdown request, reserving the amount from the available balance.
+     * Throws InsufficientBalanceException if the balance doesn't cover it.
      */
-    void approveDrawdown(DrawdownRequest request, String approvedBy);
+    DrawdownRequest requestDrawdown(Salesperson salesperson, BigDecimal amount);
 
     /**
-     * Reject drawdown request
+     * Approve a PENDING drawdown request (its reservation becomes the approved amount).
+     * Throws InvalidStateTransitionException if the request is no longer PENDING, and
+     * DrawdownPolicyException if batch approval would refuse it (policy minimum month
+     * or per-quarter limit).
      */
-    void rejectDrawdown(DrawdownRequest request, String rejectionReason, String rejectedBy);
+    DrawdownRequest approveDrawdown(Long requestId, String approvedBy);
 
     /**
-     * Process payment for approved drawdown
+     * Reject a PENDING or APPROVED drawdown request, releasing its amount.
+     * Throws InvalidStateTransitionException if the request is already REJECTED or PAID.
      */
-    void processPayment(DrawdownRequest request, String paidBy);
+    DrawdownRequest rejectDrawdown(Long requestId, String rejectionReason, String rejectedBy);
+
+    /**
+     * Process payment for an APPROVED drawdown request.
+     * Throws InvalidStateTransitionException if the request is not APPROVED.
+     */
+    DrawdownRequest processPayment(Long requestId, String paidBy);
+
+    /**
+     * Approve a batch of PENDING drawdown requests at once.
+     * Eligibility (policy minimum month) and the per-quarter limit are checked for the whole batch;
+     * ids that can't be approved are reported in the response instead of failing the batch.
+     */
+    DrawdownBatchResponse approveDrawdowns(List<Long> requestIds, String approvedBy);
+
+    /**
+     * Pay a batch of APPROVED drawdown requests at once, reporting the outcome per id
+     */
+    DrawdownBatchResponse processPayments(List<Long> requestIds, String paidBy);
 
     /**
      * Check if max drawdowns per quarter exceeded
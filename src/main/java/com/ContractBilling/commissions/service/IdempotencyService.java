@@ -0,0 +1,20 @@
+package com.ContractBilling.commissions.service;
+
+import com.ContractBilling.commissions.dto.ApiResponse;
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    /**
+     * Run a POST action at most once per Idempotency-Key.
+     * The first call runs the action and stores its response in the same transaction;
+     * later calls with the same key replay that response without running the action again.
+     * A null key runs the action without any bookkeeping.
+     */
+    <T> ResponseEntity<ApiResponse<T>> execute(String key,
+                                               String operation,
+                                               Class<T> dataType,
+                                               Supplier<ResponseEntity<ApiResponse<T>>> action);
+}
@@ -0,0 +1,21 @@
+package com.ContractBilling.commissions.service;
+
+import com.ContractBilling.commissions.dto.LeaderboardEntry;
+
+import java.util.List;
+
+/**
+ * Ranking of salespeople by total planned commission
+ */
+public interface LeaderboardService {
+
+    /**
+     * Get the top salespeople by planned commission, highest first
+     */
+    List<LeaderboardEntry> getTopPerformers(int limit);
+
+    /**
+     * Drop in-memory state so the next read reloads from the database
+     */
+    void invalidate();
+}
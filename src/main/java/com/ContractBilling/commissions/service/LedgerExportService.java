@@ -0,0 +1,23 @@
+package com.ContractBilling.commissions.service;
+
+import com.ContractBilling.commissions.entity.LedgerEntryType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+/**
+ * Bulk export of ledger entries for payroll reconciliation and BI loads
+ */
+public interface LedgerExportService {
+
+    /**
+     * Stream ledger entries as CSV (with header row) straight to the given output stream.
+     * All filters are optional; dates are inclusive.
+     */
+    void exportCsv(LocalDate startDate,
+                   LocalDate endDate,
+                   Long salespersonId,
+                   LedgerEntryType entryType,
+                   OutputStream out) throws IOException;
+}
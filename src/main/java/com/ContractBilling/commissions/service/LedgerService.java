@@ -7,7 +7,9 @@ import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface LedgerService {
 
@@ -15,6 +17,9 @@ public interface LedgerService {
 
     List<LedgerResponse> getAll();
 
+    // Every ledger entry in id order, handed to the consumer one at a time; memory use doesn't depend on table size
+    void streamAll(Consumer<LedgerResponse> consumer);
+
     Page<LedgerResponse> getAll(Pageable pageable);
 
     List<LedgerResponse> findBySalesperson(Long salespersonId);
@@ -43,5 +48,15 @@ public interface LedgerService {
 
     void recordCommissionPaid(Long commissionPlanId, Long salespersonId, BigDecimal amount, String description);
 
+    // Payout of a drawdown, which draws on the salesperson's balance rather than one commission plan
+    void recordDrawdownPaid(Long drawdownId, Long salespersonId, BigDecimal amount, String description);
+
+    // Approval of a drawdown; same shape as the batch approval entries from recordDrawdownEntries
+    void recordDrawdownApproved(Long drawdownId, Long salespersonId, BigDecimal amount, String description);
+
     void recordAdjustment(Long salespersonId, BigDecimal amount, String description);
+
+    // One entry per drawdown request for its approved amount, written with a single INSERT ... SELECT.
+    // The description is suffixed with each drawdown's id. Returns the number of entries written.
+    int recordDrawdownEntries(Collection<Long> drawdownIds, LedgerEntryType entryType, String description);
 }
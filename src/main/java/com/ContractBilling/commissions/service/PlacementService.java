@@ -9,6 +9,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Service interface for Placement operations
@@ -25,6 +26,11 @@ public interface PlacementService {
      */
     List<PlacementResponse> getAll();
 
+    /**
+     * Stream all placements in id order, one at a time; memory use doesn't depend on table size
+     */
+    void streamAll(Consumer<PlacementResponse> consumer);
+
     /**
      * Get all placements with pagination
      */
@@ -0,0 +1,19 @@
+package com.ContractBilling.commissions.service;
+
+import com.ContractBilling.commissions.dto.ReportJobResponse;
+import com.ContractBilling.commissions.dto.SubmitReportJobRequest;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+public interface ReportJobService {
+
+    // Queue a report; returns immediately with the job id
+    ReportJobResponse submit(SubmitReportJobRequest request);
+
+    // Current state of a job
+    ReportJobResponse getJob(String jobId);
+
+    // Completes when the job finishes or after maxWait, whichever is first (long-poll)
+    CompletableFuture<ReportJobResponse> awaitJob(String jobId, Duration maxWait);
+}
@@ -0,0 +1,13 @@
+package com.ContractBilling.commissions.service;
+
+public interface ReportVersionService {
+
+    // ETag for reports about one salesperson, or null if no version is tracked for them yet
+    String salespersonETag(Long salespersonId);
+
+    // ETag for a report built from the given version of one salesperson's data
+    String salespersonETag(Long salespersonId, long version);
+
+    // ETag for reports that span all salespeople
+    String globalETag();
+}
@@ -1,5 +1,9 @@
 package com.ContractBilling.commissions.service;
 
+import com.ContractBilling.commissions.dto.CommissionByPlacementReport;
+import com.ContractBilling.commissions.dto.DrawdownHistoryReport;
+import org.springframework.data.domain.Pageable;
+
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Map;
@@ -12,14 +16,14 @@ public interface ReportingService {
     // Period summary (month, quarter, year)
     Map<String, Object> getPeriodSummary(Long salespersonId, LocalDate startDate, LocalDate endDate);
 
-    // Commission breakdown by placement
-    Map<String, Object> getCommissionByPlacement(Long salespersonId);
+    // Commission breakdown by placement (one page, ordered by plan)
+    CommissionByPlacementReport getCommissionByPlacement(Long salespersonId, Pageable pageable);
 
     // Revenue recognition status
     Map<String, Object> getRecognitionStatus(Long salespersonId);
 
-    // Drawdown history
-    Map<String, Object> getDrawdownHistory(Long salespersonId);
+    // Drawdown history (status counts plus one page of requests, newest first)
+    DrawdownHistoryReport getDrawdownHistory(Long salespersonId, Pageable pageable);
 
     // Top performers report
     Map<String, Object> getTopPerformers(int limit);
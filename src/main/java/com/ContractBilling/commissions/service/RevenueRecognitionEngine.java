@@ -20,8 +20,9 @@ public interface RevenueRecognitionEngine {
 
     /**
      * Recognize revenue for a specific schedule entry
+     * Returns false if the entry was already recognized (nothing is recorded twice)
      */
-    void recognizeRevenue(RecognitionSchedule schedule);
+    boolean recognizeRevenue(Long scheduleId);
 
     /**
      * Recognize all due revenue up to date
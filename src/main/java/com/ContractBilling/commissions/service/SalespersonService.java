@@ -8,6 +8,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface SalespersonService {
 
@@ -17,6 +18,9 @@ public interface SalespersonService {
     // Get all salespeople
     List<SalespersonResponse> getAll();
 
+    // Every salesperson in id order, handed to the consumer one at a time; memory use doesn't depend on table size
+    void streamAll(Consumer<SalespersonResponse> consumer);
+
     // Get all salespeople with pagination and sorting
     Page<SalespersonResponse> getAll(Pageable pageable);
 
@@ -35,7 +39,7 @@ public interface SalespersonService {
     // Find by status
     List<SalespersonResponse> findByStatus(SalespersonStatus status);
 
-    // Search by name
-    List<SalespersonResponse> searchByName(String keyword);
+    // Search by name, best match first; fuzzy, so small typos still match
+    List<SalespersonResponse> searchByName(String keyword, Pageable pageable);
 }
 
@@ -0,0 +1,12 @@
+package com.ContractBilling.commissions.service;
+
+import com.ContractBilling.commissions.dto.SearchResponse;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+public interface SearchService {
+
+    // Salespeople, clients and contractors by name in one ranked list; types (e.g. "client") narrow it, none means all
+    SearchResponse search(String query, List<String> types, Pageable pageable);
+}
@@ -3,30 +3,114 @@ package com.ContractBilling.commissions.service.impl;
 import com.ContractBilling.commissions.dto.AuthResponse;
 import com.ContractBilling.commissions.dto.LoginRequest;
 import com.ContractBilling.commissions.dto.RegisterRequest;
+import com.ContractBilling.commissions.entity.RevokedToken;
 import com.ContractBilling.commissions.entity.User;
+import com.ContractBilling.commissions.event.TokenRevokedEvent;
+import com.ContractBilling.commissions.event.UserAccessChangedEvent;
 import com.ContractBilling.commissions.exception.ResourceNotFoundException;
+import com.ContractBilling.commissions.exception.ServiceUnavailableException;
+import com.ContractBilling.commissions.exception.TooManyRequestsException;
+import com.ContractBilling.commissions.repository.RevokedTokenRepository;
 import com.ContractBilling.commissions.repository.UserRepository;
+import com.ContractBilling.commissions.security.JwtPrincipal;
 import com.ContractBilling.commissions.security.JwtTokenProvider;
+import com.ContractBilling.commissions.security.LoginAttemptLimiter;
 import com.ContractBilling.commissions.service.AuthService;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Registration and login.
+ *
+ * Password verification (BCrypt) is CPU-heavy, so logins run it on a small
+ * bounded pool and complete asynchronously: the request thread is released
+ * while the password is checked. A burst of logins then queues on the pool or
+ * is refused with 429, rather than tying up every request thread.
+ * Attempts are also rate limited per username and per client IP.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 @Transactional
 public class AuthServiceImpl implements AuthService {
 
     private final UserRepository userRepository;
+    private final RevokedTokenRepository revokedTokenRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
     private final AuthenticationManager authenticationManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LoginAttemptLimiter attemptLimiter;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolTaskExecutor passwordExecutor;
+    private final Timer verificationTimer;
+    private final Duration verificationTimeout;
+    private final Duration tokenLifetime;
+
+    public AuthServiceImpl(UserRepository userRepository,
+                           RevokedTokenRepository revokedTokenRepository,
+                           PasswordEncoder passwordEncoder,
+                           JwtTokenProvider jwtTokenProvider,
+                           AuthenticationManager authenticationManager,
+                           ApplicationEventPublisher eventPublisher,
+                           LoginAttemptLimiter attemptLimiter,
+                           MeterRegistry meterRegistry,
+                           @Value("${auth.login.threads:0}") int threads,
+                           @Value("${auth.login.queue-capacity:100}") int queueCapacity,
+                           @Value("${auth.login.timeout:10s}") Duration verificationTimeout,
+                           @Value("${jwt.expiration:3600000}") long jwtExpirationMs) {
+        this.userRepository = userRepository;
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.authenticationManager = authenticationManager;
+        this.eventPublisher = eventPublisher;
+        this.attemptLimiter = attemptLimiter;
+        this.meterRegistry = meterRegistry;
+        this.verificationTimeout = verificationTimeout;
+        this.tokenLifetime = Duration.ofMillis(jwtExpirationMs);
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.passwordExecutor = new ThreadPoolTaskExecutor();
+        passwordExecutor.setCorePoolSize(poolSize);
+        passwordExecutor.setMaxPoolSize(poolSize);
+        passwordExecutor.setQueueCapacity(queueCapacity);
+        passwordExecutor.setThreadNamePrefix("login-verify-");
+        passwordExecutor.initialize();
+
+        this.verificationTimer = Timer.builder("auth.login.verification")
+                .description("Time to verify a login password (user lookup and BCrypt)")
+                .register(meterRegistry);
+        Gauge.builder("auth.login.queue", passwordExecutor, ThreadPoolTaskExecutor::getQueueSize)
+                .description("Logins waiting for password verification")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        passwordExecutor.shutdown();
+    }
 
     @Override
     public AuthResponse register(RegisterRequest request) {
@@ -53,7 +137,7 @@ public class AuthServiceImpl implements AuthService {
         User savedUser = userRepository.save(user);
         log.info("User registered successfully: {}", savedUser.getId());
 
-        String token = jwtTokenProvider.generateTokenFromUsername(savedUser.getUsername());
+        String token = jwtTokenProvider.generateToken(savedUser);
 
         return AuthResponse.builder()
                 .token(token)
@@ -67,27 +151,107 @@ public class AuthServiceImpl implements AuthService {
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public AuthResponse login(LoginRequest request) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<AuthResponse> login(LoginRequest request, String clientIp) {
         log.info("Logging in user: {}", request.getUsername());
 
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
-        );
+        long retryAfter = attemptLimiter.tryAcquire(request.getUsername(), clientIp);
+        if (retryAfter > 0) {
+            rejected("rate_limited");
+            throw new TooManyRequestsException("Too many login attempts, please retry later", retryAfter);
+        }
 
-        User user = userRepository.findByUsername(request.getUsername())
-                .orElseThrow(() -> new ResourceNotFoundException("User", "username", request.getUsername()));
+        return verifyPassword(new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword()))
+                .thenApply(authentication -> {
+                    // DaoAuthenticationProvider returns the loaded User as the principal
+                    User user = authentication.getPrincipal() instanceof User principal
+                            ? principal
+                            : userRepository.findByUsername(request.getUsername())
+                                    .orElseThrow(() -> new ResourceNotFoundException(
+                                            "User", "username", request.getUsername()));
 
-        String token = jwtTokenProvider.generateToken(authentication);
+                    String token = jwtTokenProvider.generateToken(user);
 
-        return AuthResponse.builder()
-                .token(token)
-                .userId(user.getId())
-                .username(user.getUsername())
-                .email(user.getEmail())
-                .firstName(user.getFirstName())
-                .lastName(user.getLastName())
-                .role(user.getRole())
-                .build();
+                    return AuthResponse.builder()
+                            .token(token)
+                            .userId(user.getId())
+                            .username(user.getUsername())
+                            .email(user.getEmail())
+                            .firstName(user.getFirstName())
+                            .lastName(user.getLastName())
+                            .role(user.getRole())
+                            .build();
+                });
+    }
+
+    @Override
+    public void logout(JwtPrincipal principal) {
+        if (principal.tokenId() == null || principal.expiresAt() == null) {
+            throw new IllegalArgumentException("Token has no id and can't be revoked individually");
+        }
+
+        // Logging out twice is a no-op rather than a unique-key violation. The local list is still
+        // told, in case the first logout went to another node and hasn't been polled yet.
+        if (revokedTokenRepository.revokeToken(principal.tokenId(), principal.username(), LocalDateTime.now(),
+                LocalDateTime.ofInstant(principal.expiresAt(), ZoneId.systemDefault())) == 0) {
+            log.debug("Token {} was already revoked", principal.tokenId());
+        }
+
+        eventPublisher.publishEvent(new TokenRevokedEvent(principal.tokenId(), principal.expiresAt()));
+        log.info("User {} logged out", principal.username());
+    }
+
+    @Override
+    public void setEnabled(String username, boolean enabled) {
+        User user = userRepository.findCurrentByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+
+        LocalDateTime now = LocalDateTime.now();
+        user.setEnabled(enabled);
+        user.setUpdatedAt(now);
+        userRepository.save(user);
+
+        // Stored so other nodes revoke the user's tokens too; only needed while those tokens can be live
+        revokedTokenRepository.save(RevokedToken.builder()
+                .username(username)
+                .revokedAt(now)
+                .expiresAt(now.plus(tokenLifetime))
+                .build());
+
+        // Tokens carry the enabled flag, so the ones already issued have to be revoked
+        eventPublisher.publishEvent(new UserAccessChangedEvent(username));
+        log.info("User {} {}", username, enabled ? "enabled" : "disabled");
+    }
+
+    // BCrypt runs on the bounded verification pool; when it is saturated, logins are refused at once.
+    // A login still queued when the timeout fires is completed with the timeout and never runs.
+    private CompletableFuture<Authentication> verifyPassword(Authentication credentials) {
+        CompletableFuture<Authentication> verification;
+        try {
+            verification = passwordExecutor.submitCompletable(() ->
+                    verificationTimer.recordCallable(() -> authenticationManager.authenticate(credentials)));
+        } catch (TaskRejectedException e) {
+            rejected("queue_full");
+            throw new TooManyRequestsException("Login service is busy, please retry shortly", 1);
+        }
+
+        return verification
+                .orTimeout(verificationTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionally(failure -> {
+                    Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                            ? failure.getCause()
+                            : failure;
+                    if (cause instanceof TimeoutException) {
+                        rejected("timeout");
+                        throw new ServiceUnavailableException("Login timed out, please retry");
+                    }
+                    throw failure instanceof CompletionException completion
+                            ? completion
+                            : new CompletionException(cause);
+                });
+    }
+
+    private void rejected(String reason) {
+        meterRegistry.counter("auth.login.rejected", "reason", reason).increment();
     }
 }
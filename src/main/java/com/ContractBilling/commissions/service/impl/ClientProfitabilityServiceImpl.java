@@ -0,0 +1,255 @@
+package com.ContractBilling.commissions.service.impl;
+
+import com.ContractBilling.commissions.dto.ClientProfitabilityReport;
+import com.ContractBilling.commissions.dto.ClientProfitabilityRow;
+import com.ContractBilling.commissions.dto.PlacementFinancials;
+import com.ContractBilling.commissions.entity.Client;
+import com.ContractBilling.commissions.entity.Placement;
+import com.ContractBilling.commissions.entity.PlacementType;
+import com.ContractBilling.commissions.entity.PolicySettings;
+import com.ContractBilling.commissions.exception.ResourceNotFoundException;
+import com.ContractBilling.commissions.repository.ClientRepository;
+import com.ContractBilling.commissions.repository.PlacementRepository;
+import com.ContractBilling.commissions.repository.SettingsRepository;
+import com.ContractBilling.commissions.repository.projection.ClientTierTotal;
+import com.ContractBilling.commissions.service.ClientProfitabilityService;
+import com.ContractBilling.commissions.service.CommissionCalculationService;
+import com.ContractBilling.commissions.service.support.RequestCoalescer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Client profitability by contract tier.
+ *
+ * The stored basis is a single GROUP BY in the database over the figures saved
+ * on each placement. The current-policy basis has to re-run the commission
+ * calculation for every placement: placements are read in keyset chunks of
+ * plain columns (no entities, no mapper) and each chunk is aggregated on a
+ * dedicated fork-join pool while the next chunk is being read. Each chunk's
+ * totals are folded into the result as soon as it finishes, and reading waits
+ * once every worker has a chunk, so at most one chunk per worker (plus the one
+ * being read) is held in memory.
+ */
+@Service
+@Slf4j
+@Transactional(readOnly = true)
+public class ClientProfitabilityServiceImpl implements ClientProfitabilityService {
+
+    private static final String INPUTS_SQL =
+            "SELECT id, client_id, placement_type, sequence_number, annual_salary, hours_per_week, " +
+            "       weeks_per_year, bill_rate, admin_percentage, insurance_percentage, fixed_costs, " +
+            "       placement_fee, gross_annual_margin, net_annual_margin, commission_percentage, commission_total " +
+            "FROM placement WHERE id > ? ORDER BY id LIMIT ?";
+
+    private final PlacementRepository placementRepository;
+    private final ClientRepository clientRepository;
+    private final SettingsRepository settingsRepository;
+    private final CommissionCalculationService calculationService;
+    private final JdbcTemplate jdbcTemplate;
+    private final RequestCoalescer coalescer;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public ClientProfitabilityServiceImpl(PlacementRepository placementRepository,
+                                          ClientRepository clientRepository,
+                                          SettingsRepository settingsRepository,
+                                          CommissionCalculationService calculationService,
+                                          JdbcTemplate jdbcTemplate,
+                                          RequestCoalescer coalescer,
+                                          @Value("${reports.profitability.parallelism:0}") int parallelism,
+                                          @Value("${reports.profitability.chunk-size:10000}") int chunkSize) {
+        this.placementRepository = placementRepository;
+        this.clientRepository = clientRepository;
+        this.settingsRepository = settingsRepository;
+        this.calculationService = calculationService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.coalescer = coalescer;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.chunkSize = chunkSize;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ClientProfitabilityReport getClientProfitability(boolean recalculate) {
+        return coalescer.execute("clientProfitability", recalculate,
+                () -> recalculate ? recalculateWithCurrentPolicy() : sumStored());
+    }
+
+    private ClientProfitabilityReport sumStored() {
+        List<ClientProfitabilityRow> rows = new ArrayList<>();
+        long placementCount = 0;
+
+        for (ClientTierTotal total : placementRepository.sumProfitabilityByClientAndTier()) {
+            rows.add(new ClientProfitabilityRow(total.getClientId(), total.getClientName(), total.getTier(),
+                    total.getPlacementCount(), total.getGrossAnnualMargin(), total.getOverheads(),
+                    total.getNetAnnualMargin(), total.getCommissionTotal()));
+            placementCount += total.getPlacementCount();
+        }
+
+        return new ClientProfitabilityReport("STORED", placementCount, rows, LocalDateTime.now());
+    }
+
+    private ClientProfitabilityReport recalculateWithCurrentPolicy() {
+        PolicySettings settings = settingsRepository.findSingleton()
+                .orElseThrow(() -> new ResourceNotFoundException("PolicySettings", "id", PolicySettings.SINGLETON_ID));
+
+        long started = System.nanoTime();
+        Map<TierKey, Totals> merged = new HashMap<>();
+        // Oldest first; a task dropped from here releases its chunk's rows
+        Deque<ForkJoinTask<Map<TierKey, Totals>>> inFlight = new ArrayDeque<>();
+        int chunks = 0;
+        long lastId = 0;
+
+        while (true) {
+            List<PlacementInputs> chunk = jdbcTemplate.query(INPUTS_SQL, this::mapInputs, lastId, chunkSize);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            inFlight.add(pool.submit(() -> aggregate(chunk, settings)));
+            chunks++;
+            lastId = chunk.get(chunk.size() - 1).placement().getId();
+
+            while (!inFlight.isEmpty()
+                    && (inFlight.peek().isDone() || inFlight.size() > pool.getParallelism())) {
+                fold(inFlight.poll(), merged);
+            }
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+        }
+        while (!inFlight.isEmpty()) {
+            fold(inFlight.poll(), merged);
+        }
+
+        Map<Long, String> clientNames = new HashMap<>();
+        for (Client client : clientRepository.findAllById(
+                merged.keySet().stream().map(TierKey::clientId).distinct().toList())) {
+            clientNames.put(client.getId(), client.getName());
+        }
+
+        List<ClientProfitabilityRow> rows = new ArrayList<>();
+        long placementCount = 0;
+        for (Map.Entry<TierKey, Totals> entry : merged.entrySet()) {
+            TierKey key = entry.getKey();
+            Totals totals = entry.getValue();
+            rows.add(new ClientProfitabilityRow(key.clientId(), clientNames.get(key.clientId()), key.tier(),
+                    totals.count, totals.gross, totals.overheads, totals.net, totals.commission));
+            placementCount += totals.count;
+        }
+        rows.sort(Comparator.comparing(ClientProfitabilityRow::clientId)
+                .thenComparingInt(ClientProfitabilityRow::tier));
+
+        log.info("Client profitability recalculated: placements={}, chunks={}, elapsedMs={}",
+                placementCount, chunks, (System.nanoTime() - started) / 1_000_000);
+
+        return new ClientProfitabilityReport("CURRENT_POLICY", placementCount, rows, LocalDateTime.now());
+    }
+
+    // Runs on the calling thread only, so the merged map needs no locking
+    private static void fold(ForkJoinTask<Map<TierKey, Totals>> chunk, Map<TierKey, Totals> merged) {
+        chunk.join().forEach((key, totals) -> merged.merge(key, totals, Totals::merge));
+    }
+
+    private Map<TierKey, Totals> aggregate(List<PlacementInputs> chunk, PolicySettings settings) {
+        Map<TierKey, Totals> totals = new HashMap<>();
+        for (PlacementInputs inputs : chunk) {
+            PlacementFinancials figures = calculationService.recalculate(inputs.placement(), settings);
+            totals.computeIfAbsent(new TierKey(inputs.clientId(), tierOf(inputs.placement())), k -> new Totals())
+                    .add(figures);
+        }
+        return totals;
+    }
+
+    // Same tiering as the stored query: 1st, 2nd, 3rd and later contracts
+    private static int tierOf(Placement placement) {
+        Integer sequence = placement.getSequenceNumber();
+        return sequence == null ? 1 : Math.min(sequence, 3);
+    }
+
+    private PlacementInputs mapInputs(ResultSet rs, int rowNum) throws SQLException {
+        Placement placement = new Placement();
+        placement.setId(rs.getLong("id"));
+        placement.setPlacementType(PlacementType.valueOf(rs.getString("placement_type")));
+        placement.setSequenceNumber(rs.getObject("sequence_number", Integer.class));
+        placement.setAnnualSalary(rs.getBigDecimal("annual_salary"));
+        placement.setHoursPerWeek(rs.getBigDecimal("hours_per_week"));
+        placement.setWeeksPerYear(rs.getObject("weeks_per_year", Integer.class));
+        placement.setBillRate(rs.getBigDecimal("bill_rate"));
+        placement.setAdminPercentage(rs.getBigDecimal("admin_percentage"));
+        placement.setInsurancePercentage(rs.getBigDecimal("insurance_percentage"));
+        placement.setFixedCosts(rs.getBigDecimal("fixed_costs"));
+        placement.setPlacementFee(rs.getBigDecimal("placement_fee"));
+        placement.setGrossAnnualMargin(rs.getBigDecimal("gross_annual_margin"));
+        placement.setNetAnnualMargin(rs.getBigDecimal("net_annual_margin"));
+        placement.setCommissionPercentage(rs.getBigDecimal("commission_percentage"));
+        placement.setCommissionTotal(rs.getBigDecimal("commission_total"));
+        return new PlacementInputs(rs.getLong("client_id"), placement);
+    }
+
+    // Calculation inputs read from one placement row; the Placement is a detached holder, never persisted
+    private record PlacementInputs(long clientId, Placement placement) {
+    }
+
+    private record TierKey(long clientId, int tier) {
+    }
+
+    /**
+     * Running totals for one client and tier (confined to one fork-join task until merged)
+     */
+    private static class Totals {
+        private long count;
+        private BigDecimal gross = BigDecimal.ZERO;
+        private BigDecimal overheads = BigDecimal.ZERO;
+        private BigDecimal net = BigDecimal.ZERO;
+        private BigDecimal commission = BigDecimal.ZERO;
+
+        void add(PlacementFinancials figures) {
+            count++;
+            if (figures.grossAnnualMargin() != null) {
+                gross = gross.add(figures.grossAnnualMargin());
+                if (figures.netAnnualMargin() != null) {
+                    overheads = overheads.add(figures.grossAnnualMargin().subtract(figures.netAnnualMargin()));
+                }
+            }
+            if (figures.netAnnualMargin() != null) {
+                net = net.add(figures.netAnnualMargin());
+            }
+            if (figures.commissionTotal() != null) {
+                commission = commission.add(figures.commissionTotal());
+            }
+        }
+
+        Totals merge(Totals other) {
+            count += other.count;
+            gross = gross.add(other.gross);
+            overheads = overheads.add(other.overheads);
+            net = net.add(other.net);
+            commission = commission.add(other.commission);
+            return this;
+        }
+    }
+}
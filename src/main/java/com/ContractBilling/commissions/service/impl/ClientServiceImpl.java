@@ -6,19 +6,26 @@ import com.ContractBilling.commissions.dto.CreateClientRequest;
 import com.ContractBilling.commissions.dto.UpdateClientRequest;
 import com.ContractBilling.commissions.entity.Client;
 import com.ContractBilling.commissions.entity.ClientStatus;
+import com.ContractBilling.commissions.event.ClientChangedEvent;
 import com.ContractBilling.commissions.exception.DuplicateResourceException;
 import com.ContractBilling.commissions.exception.ResourceNotFoundException;
 import com.ContractBilling.commissions.repository.ClientRepository;
 import com.ContractBilling.commissions.service.ClientService;
+import com.ContractBilling.commissions.service.support.EntityStreams;
+import com.ContractBilling.commissions.service.support.NameSearch;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementation of ClientService
@@ -31,6 +38,8 @@ public class ClientServiceImpl implements ClientService {
 
     private final ClientRepository repository;
     private final ClientMapper mapper;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public ClientResponse create(CreateClientRequest request) {
@@ -53,6 +62,7 @@ public class ClientServiceImpl implements ClientService {
 
         // Save to database
         Client saved = repository.save(entity);
+        eventPublisher.publishEvent(new ClientChangedEvent(saved.getId()));
 
         log.info("Client created successfully with ID: {}", saved.getId());
 
@@ -71,6 +81,15 @@ public class ClientServiceImpl implements ClientService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<ClientResponse> consumer) {
+        try (Stream<Client> rows = repository.streamAll()) {
+            long count = EntityStreams.forEach(entityManager, rows, row -> consumer.accept(mapper.toResponse(row)));
+            log.info("Streamed {} clients", count);
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<ClientResponse> getAll(Pageable pageable) {
@@ -119,6 +138,7 @@ public class ClientServiceImpl implements ClientService {
 
         // Save (updatedAt is set automatically by @PreUpdate)
         Client updated = repository.save(entity);
+        eventPublisher.publishEvent(new ClientChangedEvent(id));
 
         log.info("Client updated successfully with ID: {}", id);
 
@@ -135,6 +155,7 @@ public class ClientServiceImpl implements ClientService {
         }
 
         repository.deleteById(id);
+        eventPublisher.publishEvent(new ClientChangedEvent(id));
 
         log.info("Client deleted successfully with ID: {}", id);
     }
@@ -163,10 +184,11 @@ public class ClientServiceImpl implements ClientService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ClientResponse> searchByName(String keyword) {
+    public List<ClientResponse> searchByName(String keyword, Pageable pageable) {
         log.info("Searching clients by name keyword: {}", keyword);
 
-        return repository.findByNameContainingIgnoreCase(keyword)
+        String query = NameSearch.normalize(keyword);
+        return repository.searchByName(query, NameSearch.containsPattern(query), NameSearch.page(pageable))
                 .stream()
                 .map(mapper::toResponse)
                 .collect(Collectors.toList());
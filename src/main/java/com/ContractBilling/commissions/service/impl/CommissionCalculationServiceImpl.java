@@ -1,6 +1,8 @@
 package com.ContractBilling.commissions.service.impl;
 
+import com.ContractBilling.commissions.dto.PlacementFinancials;
 import com.ContractBilling.commissions.entity.Placement;
+import com.ContractBilling.commissions.entity.PlacementType;
 import com.ContractBilling.commissions.entity.PolicySettings;
 import com.ContractBilling.commissions.service.CommissionCalculationService;
 import lombok.extern.slf4j.Slf4j;
@@ -30,6 +32,13 @@ public class CommissionCalculationServiceImpl implements CommissionCalculationSe
 
         log.debug("Calculating hourly pay cost for salary: {}, hours/week: {}", annualSalary, hoursPerWeek);
 
+        BigDecimal hourlyPayCost = hourlyPayCost(annualSalary, hoursPerWeek, settings);
+
+        log.debug("Calculated hourly pay cost: {}", hourlyPayCost);
+        return hourlyPayCost;
+    }
+
+    private static BigDecimal hourlyPayCost(BigDecimal annualSalary, BigDecimal hoursPerWeek, PolicySettings settings) {
         // Base hourly rate = Annual Salary ÷ 52 ÷ Hours/Week
         BigDecimal baseHourlyRate = annualSalary
                 .divide(WEEKS_PER_YEAR, 10, ROUNDING_MODE)
@@ -46,14 +55,11 @@ public class CommissionCalculationServiceImpl implements CommissionCalculationSe
                 settings.getPensionPercentage().divide(ONE_HUNDRED, 10, ROUNDING_MODE)
         );
 
-        BigDecimal hourlyPayCost = baseHourlyRate
+        return baseHourlyRate
                 .multiply(leaveMultiplier)
                 .multiply(prsiMultiplier)
                 .multiply(pensionMultiplier)
                 .setScale(SCALE, ROUNDING_MODE);
-
-        log.debug("Calculated hourly pay cost: {}", hourlyPayCost);
-        return hourlyPayCost;
     }
 
     @Override
@@ -63,14 +69,18 @@ public class CommissionCalculationServiceImpl implements CommissionCalculationSe
 
         log.debug("Calculating margin per hour: billRate={}, payRate={}", billRate, hourlyPayCost);
 
-        BigDecimal marginPerHour = billRate
-                .subtract(hourlyPayCost)
-                .setScale(SCALE, ROUNDING_MODE);
+        BigDecimal marginPerHour = marginPerHour(billRate, hourlyPayCost);
 
         log.debug("Calculated margin per hour: {}", marginPerHour);
         return marginPerHour;
     }
 
+    private static BigDecimal marginPerHour(BigDecimal billRate, BigDecimal hourlyPayCost) {
+        return billRate
+                .subtract(hourlyPayCost)
+                .setScale(SCALE, ROUNDING_MODE);
+    }
+
     @Override
     public BigDecimal calculateWeeklyMargin(
             BigDecimal marginPerHour,
@@ -78,14 +88,18 @@ public class CommissionCalculationServiceImpl implements CommissionCalculationSe
 
         log.debug("Calculating weekly margin: marginPerHour={}, hoursPerWeek={}", marginPerHour, hoursPerWeek);
 
-        BigDecimal weeklyMargin = marginPerHour
-                .multiply(hoursPerWeek)
-                .setScale(SCALE, ROUNDING_MODE);
+        BigDecimal weeklyMargin = weeklyMargin(marginPerHour, hoursPerWeek);
 
         log.debug("Calculated weekly margin: {}", weeklyMargin);
         return weeklyMargin;
     }
 
+    private static BigDecimal weeklyMargin(BigDecimal marginPerHour, BigDecimal hoursPerWeek) {
+        return marginPerHour
+                .multiply(hoursPerWeek)
+                .setScale(SCALE, ROUNDING_MODE);
+    }
+
     @Override
     public BigDecimal calculateGrossAnnualMargin(
             BigDecimal weeklyMargin,
@@ -93,14 +107,18 @@ public class CommissionCalculationServiceImpl implements CommissionCalculationSe
 
         log.debug("Calculating gross annual margin: weeklyMargin={}, weeksPerYear={}", weeklyMargin, weeksPerYear);
 
-        BigDecimal grossAnnualMargin = weeklyMargin
-                .multiply(new BigDecimal(weeksPerYear))
-                .setScale(SCALE, ROUNDING_MODE);
+        BigDecimal grossAnnualMargin = grossAnnualMargin(weeklyMargin, weeksPerYear);
 
         log.debug("Calculated gross annual margin: {}", grossAnnualMargin);
         return grossAnnualMargin;
     }
 
+    private static BigDecimal grossAnnualMargin(BigDecimal weeklyMargin, Integer weeksPerYear) {
+        return weeklyMargin
+                .multiply(new BigDecimal(weeksPerYear))
+                .setScale(SCALE, ROUNDING_MODE);
+    }
+
     @Override
     public BigDecimal calculateNetAnnualMargin(
             BigDecimal grossMargin,
@@ -111,19 +129,9 @@ public class CommissionCalculationServiceImpl implements CommissionCalculationSe
         log.debug("Calculating net annual margin: gross={}, admin%={}, insurance%={}, fixed={}",
                 grossMargin, adminPercentage, insurancePercentage, fixedCosts);
 
-        // Calculate overhead costs
-        BigDecimal adminCost = grossMargin
-                .multiply(adminPercentage.divide(ONE_HUNDRED, 10, ROUNDING_MODE))
-                .setScale(SCALE, ROUNDING_MODE);
-
-        BigDecimal insuranceCost = grossMargin
-                .multiply(insurancePercentage.divide(ONE_HUNDRED, 10, ROUNDING_MODE))
-                .setScale(SCALE, ROUNDING_MODE);
-
-        BigDecimal totalOverheads = adminCost
-                .add(insuranceCost)
-                .add(fixedCosts != null ? fixedCosts : BigDecimal.ZERO)
-                .setScale(SCALE, ROUNDING_MODE);
+        BigDecimal adminCost = percentageOf(grossMargin, adminPercentage);
+        BigDecimal insuranceCost = percentageOf(grossMargin, insurancePercentage);
+        BigDecimal totalOverheads = totalOverheads(adminCost, insuranceCost, fixedCosts);
 
         BigDecimal netAnnualMargin = grossMargin
                 .subtract(totalOverheads)
@@ -136,6 +144,28 @@ public class CommissionCalculationServiceImpl implements CommissionCalculationSe
         return netAnnualMargin;
     }
 
+    private static BigDecimal overheads(BigDecimal grossMargin,
+                                        BigDecimal adminPercentage,
+                                        BigDecimal insurancePercentage,
+                                        BigDecimal fixedCosts) {
+        return totalOverheads(percentageOf(grossMargin, adminPercentage),
+                percentageOf(grossMargin, insurancePercentage), fixedCosts);
+    }
+
+    // Admin or insurance cost: a percentage of the gross margin
+    private static BigDecimal percentageOf(BigDecimal grossMargin, BigDecimal percentage) {
+        return grossMargin
+                .multiply(percentage.divide(ONE_HUNDRED, 10, ROUNDING_MODE))
+                .setScale(SCALE, ROUNDING_MODE);
+    }
+
+    private static BigDecimal totalOverheads(BigDecimal adminCost, BigDecimal insuranceCost, BigDecimal fixedCosts) {
+        return adminCost
+                .add(insuranceCost)
+                .add(fixedCosts != null ? fixedCosts : BigDecimal.ZERO)
+                .setScale(SCALE, ROUNDING_MODE);
+    }
+
     @Override
     public BigDecimal determineCommissionPercentage(
             Integer sequenceNumber,
@@ -143,19 +173,21 @@ public class CommissionCalculationServiceImpl implements CommissionCalculationSe
 
         log.debug("Determining commission percentage for sequence number: {}", sequenceNumber);
 
-        BigDecimal commissionPercentage;
+        BigDecimal commissionPercentage = commissionPercentage(sequenceNumber, settings);
+
+        log.debug("Commission percentage for sequence {}: {}%", sequenceNumber, commissionPercentage);
+        return commissionPercentage;
+    }
 
+    private static BigDecimal commissionPercentage(Integer sequenceNumber, PolicySettings settings) {
         if (sequenceNumber == 1) {
-            commissionPercentage = settings.getFirstContractCommission();
+            return settings.getFirstContractCommission();
         } else if (sequenceNumber == 2) {
-            commissionPercentage = settings.getSecondContractCommission();
+            return settings.getSecondContractCommission();
         } else {
             // 3rd contract and beyond
-            commissionPercentage = settings.getThirdContractCommission();
+            return settings.getThirdContractCommission();
         }
-
-        log.debug("Commission percentage for sequence {}: {}%", sequenceNumber, commissionPercentage);
-        return commissionPercentage;
     }
 
     @Override
@@ -165,14 +197,18 @@ public class CommissionCalculationServiceImpl implements CommissionCalculationSe
 
         log.debug("Calculating commission total: netMargin={}, percentage={}%", netMargin, commissionPercentage);
 
-        BigDecimal commissionTotal = netMargin
-                .multiply(commissionPercentage.divide(ONE_HUNDRED, 10, ROUNDING_MODE))
-                .setScale(SCALE, ROUNDING_MODE);
+        BigDecimal commissionTotal = commissionTotal(netMargin, commissionPercentage);
 
         log.debug("Calculated commission total: {}", commissionTotal);
         return commissionTotal;
     }
 
+    private static BigDecimal commissionTotal(BigDecimal netMargin, BigDecimal commissionPercentage) {
+        return netMargin
+                .multiply(commissionPercentage.divide(ONE_HUNDRED, 10, ROUNDING_MODE))
+                .setScale(SCALE, ROUNDING_MODE);
+    }
+
     @Override
     public void calculateContractorCommission(Placement placement, PolicySettings settings) {
         log.info("Calculating contractor commission for placement ID: {}", placement.getId());
@@ -270,4 +306,43 @@ public class CommissionCalculationServiceImpl implements CommissionCalculationSe
         log.info("Permanent commission calculation complete: netMargin={}, commissionPct={}%, commissionTotal={}",
                 netMargin, commissionPercentage, commissionTotal);
     }
+
+    @Override
+    public PlacementFinancials recalculate(Placement placement, PolicySettings settings) {
+        // Same steps as calculateContractorCommission / calculatePermanentCommission,
+        // without logging each step or touching the placement
+        if (placement.getSequenceNumber() == null) {
+            return PlacementFinancials.storedOn(placement);
+        }
+        BigDecimal percentage = commissionPercentage(placement.getSequenceNumber(), settings);
+
+        if (placement.getPlacementType() == PlacementType.PERMANENT) {
+            BigDecimal fee = placement.getPlacementFee();
+            if (fee == null) {
+                return PlacementFinancials.storedOn(placement);
+            }
+            return new PlacementFinancials(null, fee, percentage, commissionTotal(fee, percentage));
+        }
+
+        if (placement.getAnnualSalary() == null || placement.getHoursPerWeek() == null
+                || placement.getBillRate() == null || placement.getAdminPercentage() == null
+                || placement.getInsurancePercentage() == null) {
+            return PlacementFinancials.storedOn(placement);
+        }
+
+        Integer weeksPerYear = placement.getWeeksPerYear() != null
+                ? placement.getWeeksPerYear()
+                : settings.getWeeksPerYear();
+
+        BigDecimal hourlyPayCost = hourlyPayCost(placement.getAnnualSalary(), placement.getHoursPerWeek(), settings);
+        BigDecimal weeklyMargin = weeklyMargin(
+                marginPerHour(placement.getBillRate(), hourlyPayCost), placement.getHoursPerWeek());
+        BigDecimal gross = grossAnnualMargin(weeklyMargin, weeksPerYear);
+        BigDecimal net = gross
+                .subtract(overheads(gross, placement.getAdminPercentage(), placement.getInsurancePercentage(),
+                        placement.getFixedCosts()))
+                .setScale(SCALE, ROUNDING_MODE);
+
+        return new PlacementFinancials(gross, net, percentage, commissionTotal(net, percentage));
+    }
 }
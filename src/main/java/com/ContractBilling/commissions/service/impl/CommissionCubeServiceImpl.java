@@ -0,0 +1,190 @@
+package com.ContractBilling.commissions.service.impl;
+
+import com.ContractBilling.commissions.entity.LedgerEntryType;
+import com.ContractBilling.commissions.event.CommissionPlanChangedEvent;
+import com.ContractBilling.commissions.event.LedgerEntryRecordedEvent;
+import com.ContractBilling.commissions.repository.CommissionCubeRepository;
+import com.ContractBilling.commissions.service.CommissionCubeService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Commission totals by month x salesperson x client x placement type.
+ *
+ * The commission_cube table is kept current inside the writing transaction:
+ * every commission plan change and recognized/paid ledger entry is folded into
+ * its cell with a single upsert, so the cube commits (or rolls back) together
+ * with the data it summarizes. Roll-ups then only scan the small cube table.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class CommissionCubeServiceImpl implements CommissionCubeService {
+
+    private final CommissionCubeRepository cubeRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Map<String, Object> rollUp(List<String> groupBy,
+                                      YearMonth fromMonth,
+                                      YearMonth toMonth,
+                                      Long salespersonId,
+                                      Long clientId,
+                                      String placementType) {
+
+        List<Dimension> dimensions = Dimension.parse(groupBy);
+
+        List<String> conditions = new ArrayList<>();
+        MapSqlParameterSource params = new MapSqlParameterSource();
+
+        if (fromMonth != null) {
+            conditions.add("month >= :fromMonth");
+            params.addValue("fromMonth", Date.valueOf(fromMonth.atDay(1)));
+        }
+        if (toMonth != null) {
+            conditions.add("month <= :toMonth");
+            params.addValue("toMonth", Date.valueOf(toMonth.atDay(1)));
+        }
+        if (salespersonId != null) {
+            conditions.add("salesperson_id = :salespersonId");
+            params.addValue("salespersonId", salespersonId);
+        }
+        if (clientId != null) {
+            conditions.add("client_id = :clientId");
+            params.addValue("clientId", clientId);
+        }
+        if (placementType != null) {
+            conditions.add("placement_type = :placementType");
+            params.addValue("placementType", placementType);
+        }
+
+        // Column names come from the Dimension whitelist only, never from the request
+        String columns = dimensions.stream().map(d -> d.column).collect(Collectors.joining(", "));
+
+        StringBuilder sql = new StringBuilder("SELECT ");
+        if (!dimensions.isEmpty()) {
+            sql.append(columns).append(", ");
+        }
+        sql.append("SUM(planned_amount) AS planned, SUM(recognized_amount) AS recognized, ")
+                .append("SUM(paid_amount) AS paid FROM commission_cube");
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        if (!dimensions.isEmpty()) {
+            sql.append(" GROUP BY ").append(columns).append(" ORDER BY ").append(columns);
+        }
+
+        List<Map<String, Object>> rows = jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (Dimension dimension : dimensions) {
+                row.put(dimension.key, dimension.read(rs.getObject(dimension.column)));
+            }
+            row.put("planned", rs.getBigDecimal("planned"));
+            row.put("recognized", rs.getBigDecimal("recognized"));
+            row.put("paid", rs.getBigDecimal("paid"));
+            return row;
+        });
+
+        Map<String, Object> report = new HashMap<>();
+        report.put("groupBy", dimensions.stream().map(d -> d.key).collect(Collectors.toList()));
+        report.put("fromMonth", fromMonth != null ? fromMonth.toString() : null);
+        report.put("toMonth", toMonth != null ? toMonth.toString() : null);
+        report.put("rows", rows);
+        report.put("rowCount", rows.size());
+
+        return report;
+    }
+
+    @Override
+    @Transactional
+    public void rebuild() {
+        // Blocks concurrent upserts (but not reads) until the rebuilt cube commits
+        jdbcTemplate.getJdbcOperations().execute("LOCK TABLE commission_cube IN EXCLUSIVE MODE");
+
+        cubeRepository.deleteAllInBatch();
+        int cells = cubeRepository.rebuildFromSource();
+
+        log.info("Commission cube rebuilt: {} cells", cells);
+    }
+
+    // Synchronous, so the cube update joins the transaction that changed the plan
+    @EventListener
+    @Transactional
+    public void onCommissionPlanChanged(CommissionPlanChangedEvent event) {
+        if (event.plannedDelta() == null || event.plannedDelta().signum() == 0) {
+            return;
+        }
+        cubeRepository.addPlanned(event.commissionPlanId(), event.plannedDelta());
+    }
+
+    // Synchronous, so the cube update joins the transaction that wrote the ledger entry
+    @EventListener
+    @Transactional
+    public void onLedgerEntryRecorded(LedgerEntryRecordedEvent event) {
+        if (event.entryType() != LedgerEntryType.COMMISSION_RECOGNIZED
+                && event.entryType() != LedgerEntryType.COMMISSION_PAID) {
+            return;
+        }
+        cubeRepository.addLedgerEntry(event.ledgerId());
+    }
+
+    private enum Dimension {
+        MONTH("month", "month"),
+        SALESPERSON("salesperson_id", "salespersonId"),
+        CLIENT("client_id", "clientId"),
+        PLACEMENT_TYPE("placement_type", "placementType");
+
+        private final String column;
+        private final String key;
+
+        Dimension(String column, String key) {
+            this.column = column;
+            this.key = key;
+        }
+
+        Object read(Object value) {
+            // Months are stored as their first day; report them as yyyy-MM
+            if (value instanceof Date date) {
+                return YearMonth.from(date.toLocalDate()).toString();
+            }
+            return value;
+        }
+
+        // Accepts e.g. "month", "placementType" or "PLACEMENT_TYPE"; duplicates are ignored
+        static List<Dimension> parse(List<String> names) {
+            if (names == null) {
+                return List.of();
+            }
+
+            List<Dimension> dimensions = new ArrayList<>();
+            for (String name : names) {
+                String normalized = name.trim().replace("_", "").toUpperCase();
+                Dimension dimension = Arrays.stream(values())
+                        .filter(d -> d.name().replace("_", "").equals(normalized))
+                        .findFirst()
+                        .orElseThrow(() -> new IllegalArgumentException(
+                                "Unknown groupBy dimension: " + name + ". Allowed: month, salesperson, client, placementType"));
+                if (!dimensions.contains(dimension)) {
+                    dimensions.add(dimension);
+                }
+            }
+            return dimensions;
+        }
+    }
+}
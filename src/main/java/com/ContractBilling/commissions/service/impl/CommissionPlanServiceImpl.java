@@ -8,21 +8,29 @@ import com.ContractBilling.commissions.entity.CommissionPlan;
 import com.ContractBilling.commissions.entity.CommissionPlanStatus;
 import com.ContractBilling.commissions.entity.Placement;
 import com.ContractBilling.commissions.entity.Salesperson;
+import com.ContractBilling.commissions.event.CommissionPlanChangedEvent;
 import com.ContractBilling.commissions.exception.ResourceNotFoundException;
 import com.ContractBilling.commissions.repository.CommissionPlanRepository;
 import com.ContractBilling.commissions.repository.PlacementRepository;
 import com.ContractBilling.commissions.repository.SalespersonRepository;
 import com.ContractBilling.commissions.service.CommissionPlanService;
+import com.ContractBilling.commissions.service.support.EntityStreams;
+import com.ContractBilling.commissions.service.support.RequestCoalescer;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -34,6 +42,9 @@ public class CommissionPlanServiceImpl implements CommissionPlanService {
     private final CommissionPlanMapper mapper;
     private final SalespersonRepository salespersonRepository;
     private final PlacementRepository placementRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RequestCoalescer coalescer;
+    private final EntityManager entityManager;
 
     @Override
     public CommissionPlanResponse create(CreateCommissionPlanRequest request) {
@@ -57,6 +68,9 @@ public class CommissionPlanServiceImpl implements CommissionPlanService {
         CommissionPlan saved = repository.save(entity);
         log.info("Commission plan created with ID: {}", saved.getId());
 
+        eventPublisher.publishEvent(new CommissionPlanChangedEvent(
+                saved.getId(), salesperson.getId(), saved.getPlannedAmount()));
+
         return mapper.toResponse(saved);
     }
 
@@ -76,6 +90,15 @@ public class CommissionPlanServiceImpl implements CommissionPlanService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<CommissionPlanResponse> consumer) {
+        try (Stream<CommissionPlan> rows = repository.streamAll()) {
+            long count = EntityStreams.forEach(entityManager, rows, row -> consumer.accept(mapper.toResponse(row)));
+            log.info("Streamed {} commission plans", count);
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<CommissionPlanResponse> getAll(Pageable pageable) {
@@ -92,16 +115,24 @@ public class CommissionPlanServiceImpl implements CommissionPlanService {
         mapper.updateEntity(entity, request);
         CommissionPlan updated = repository.save(entity);
 
+        eventPublisher.publishEvent(new CommissionPlanChangedEvent(
+                id, updated.getSalesperson().getId(), BigDecimal.ZERO));
+
         log.info("Commission plan updated: ID: {}", id);
         return mapper.toResponse(updated);
     }
 
     @Override
     public void delete(Long id) {
-        if (!repository.existsById(id)) {
-            throw new ResourceNotFoundException("CommissionPlan", "id", id);
-        }
-        repository.deleteById(id);
+        CommissionPlan entity = repository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("CommissionPlan", "id", id));
+
+        // Published before the delete so synchronous listeners can still read the plan
+        eventPublisher.publishEvent(new CommissionPlanChangedEvent(
+                id, entity.getSalesperson().getId(), entity.getPlannedAmount().negate()));
+
+        repository.delete(entity);
+
         log.info("Commission plan deleted: ID: {}", id);
     }
 
@@ -144,35 +175,43 @@ public class CommissionPlanServiceImpl implements CommissionPlanService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public BigDecimal getSalespersonTotalPlanned(Long salespersonId) {
-        Salesperson salesperson = salespersonRepository.findById(salespersonId)
-                .orElseThrow(() -> new ResourceNotFoundException("Salesperson", "id", salespersonId));
-        return repository.sumPlannedAmount(salesperson);
+        return coalescer.execute("commissionPlan.totalPlanned", salespersonId, () -> {
+            Salesperson salesperson = salespersonRepository.findById(salespersonId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Salesperson", "id", salespersonId));
+            return repository.sumPlannedAmount(salesperson);
+        });
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public BigDecimal getSalespersonTotalRecognized(Long salespersonId) {
-        Salesperson salesperson = salespersonRepository.findById(salespersonId)
-                .orElseThrow(() -> new ResourceNotFoundException("Salesperson", "id", salespersonId));
-        return repository.sumRecognizedAmount(salesperson);
+        return coalescer.execute("commissionPlan.totalRecognized", salespersonId, () -> {
+            Salesperson salesperson = salespersonRepository.findById(salespersonId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Salesperson", "id", salespersonId));
+            return repository.sumRecognizedAmount(salesperson);
+        });
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public BigDecimal getSalespersonTotalPaid(Long salespersonId) {
-        Salesperson salesperson = salespersonRepository.findById(salespersonId)
-                .orElseThrow(() -> new ResourceNotFoundException("Salesperson", "id", salespersonId));
-        return repository.sumPaidAmount(salesperson);
+        return coalescer.execute("commissionPlan.totalPaid", salespersonId, () -> {
+            Salesperson salesperson = salespersonRepository.findById(salespersonId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Salesperson", "id", salespersonId));
+            return repository.sumPaidAmount(salesperson);
+        });
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public BigDecimal getSalespersonOutstanding(Long salespersonId) {
-        Salesperson salesperson = salespersonRepository.findById(salespersonId)
-                .orElseThrow(() -> new ResourceNotFoundException("Salesperson", "id", salespersonId));
-        return repository.sumOutstandingAmount(salesperson);
+        return coalescer.execute("commissionPlan.outstanding", salespersonId, () -> {
+            Salesperson salesperson = salespersonRepository.findById(salespersonId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Salesperson", "id", salespersonId));
+            return repository.sumOutstandingAmount(salesperson);
+        });
     }
 
     @Override
@@ -11,6 +11,9 @@ import com.ContractBilling.commissions.exception.DuplicateResourceException;
 import com.ContractBilling.commissions.exception.ResourceNotFoundException;
 import com.ContractBilling.commissions.repository.ContractorRepository;
 import com.ContractBilling.commissions.service.ContractorService;
+import com.ContractBilling.commissions.service.support.EntityStreams;
+import com.ContractBilling.commissions.service.support.NameSearch;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -19,7 +22,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementation of ContractorService
@@ -32,6 +37,7 @@ public class ContractorServiceImpl implements ContractorService {
 
     private final ContractorRepository repository;
     private final ContractorMapper mapper;
+    private final EntityManager entityManager;
 
     @Override
     public ContractorResponse create(CreateContractorRequest request) {
@@ -67,6 +73,15 @@ public class ContractorServiceImpl implements ContractorService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<ContractorResponse> consumer) {
+        try (Stream<Contractor> rows = repository.streamAll()) {
+            long count = EntityStreams.forEach(entityManager, rows, row -> consumer.accept(mapper.toResponse(row)));
+            log.info("Streamed {} contractors", count);
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<ContractorResponse> getAll(Pageable pageable) {
@@ -163,10 +178,11 @@ public class ContractorServiceImpl implements ContractorService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ContractorResponse> searchByName(String keyword) {
+    public List<ContractorResponse> searchByName(String keyword, Pageable pageable) {
         log.info("Searching contractors by name keyword: {}", keyword);
 
-        return repository.findByNameContainingIgnoreCase(keyword)
+        String query = NameSearch.normalize(keyword);
+        return repository.searchByName(query, NameSearch.containsPattern(query), NameSearch.page(pageable))
                 .stream()
                 .map(mapper::toResponse)
                 .collect(Collectors.toList());
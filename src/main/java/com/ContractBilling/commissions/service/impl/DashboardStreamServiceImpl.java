@@ -0,0 +1,215 @@
+package com.ContractBilling.commissions.service.impl;
+
+import com.ContractBilling.commissions.event.CommissionPlanChangedEvent;
+import com.ContractBilling.commissions.event.DrawdownStatusChangedEvent;
+import com.ContractBilling.commissions.event.LedgerEntryRecordedEvent;
+import com.ContractBilling.commissions.exception.ServiceUnavailableException;
+import com.ContractBilling.commissions.service.DashboardStreamService;
+import com.ContractBilling.commissions.service.ReportingService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fan-out hub for live dashboard streams (Server-Sent Events).
+ *
+ * Open streams are servlet async responses, so an idle subscriber holds a socket
+ * but no request thread. Committed ledger, plan and drawdown changes are pushed
+ * to the salesperson's subscribers as "ledger", "plan" and "drawdown" delta
+ * events, followed shortly after by a refreshed "dashboard" event with the
+ * authoritative totals (one dashboard query per burst of changes, shared by
+ * all of that salesperson's streams). All sending happens on a small
+ * scheduler, never on the writer's thread.
+ */
+@Service
+@Slf4j
+public class DashboardStreamServiceImpl implements DashboardStreamService {
+
+    private static final long REFRESH_DELAY_MS = 250;
+
+    private final ReportingService reportingService;
+    private final long streamTimeoutMs;
+    private final int maxConnections;
+    private final int maxPerSalesperson;
+
+    private final Map<Long, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final Set<Long> pendingRefresh = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ScheduledExecutorService sender;
+
+    public DashboardStreamServiceImpl(ReportingService reportingService,
+                                      @Value("${reports.stream.timeout:30m}") Duration streamTimeout,
+                                      @Value("${reports.stream.heartbeat:25s}") Duration heartbeat,
+                                      @Value("${reports.stream.max-connections:10000}") int maxConnections,
+                                      @Value("${reports.stream.max-per-salesperson:20}") int maxPerSalesperson,
+                                      @Value("${reports.stream.sender-threads:2}") int senderThreads) {
+        this.reportingService = reportingService;
+        this.streamTimeoutMs = streamTimeout.toMillis();
+        this.maxConnections = maxConnections;
+        this.maxPerSalesperson = maxPerSalesperson;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sender = Executors.newScheduledThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-stream-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Comments keep proxies from closing idle streams and reveal dead clients
+        sender.scheduleAtFixedRate(this::sendHeartbeats,
+                heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        subscribers.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+    }
+
+    @Override
+    public SseEmitter subscribe(Long salespersonId) {
+        // Initial snapshot; also rejects unknown salespeople with a 404 before a stream is opened
+        Map<String, Object> dashboard = reportingService.getSalespersonDashboard(salespersonId);
+
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            throw new ServiceUnavailableException("Too many open dashboard streams, please retry later");
+        }
+
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        if (!register(salespersonId, emitter)) {
+            connections.decrementAndGet();
+            throw new ServiceUnavailableException("Too many open dashboard streams for this salesperson");
+        }
+
+        Runnable remove = () -> unsubscribe(salespersonId, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+
+        sender.execute(() -> send(salespersonId, emitter, "dashboard", dashboard));
+
+        log.debug("Dashboard stream opened for salesperson {} ({} open)", salespersonId, connections.get());
+        return emitter;
+    }
+
+    @Override
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    @TransactionalEventListener
+    public void onLedgerEntryRecorded(LedgerEntryRecordedEvent event) {
+        Map<String, Object> delta = new HashMap<>();
+        delta.put("ledgerId", event.ledgerId());
+        delta.put("commissionPlanId", event.commissionPlanId());
+        delta.put("entryType", event.entryType());
+        delta.put("amount", event.amount());
+        publish(event.salespersonId(), "ledger", delta);
+    }
+
+    @TransactionalEventListener
+    public void onCommissionPlanChanged(CommissionPlanChangedEvent event) {
+        Map<String, Object> delta = new HashMap<>();
+        delta.put("commissionPlanId", event.commissionPlanId());
+        delta.put("plannedDelta", event.plannedDelta());
+        publish(event.salespersonId(), "plan", delta);
+    }
+
+    // New requests are published outside a transaction, hence fallbackExecution
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDrawdownStatusChanged(DrawdownStatusChangedEvent event) {
+        Map<String, Object> delta = new HashMap<>();
+        delta.put("drawdownId", event.drawdownId());
+        delta.put("status", event.status());
+        delta.put("amount", event.amount());
+        publish(event.salespersonId(), "drawdown", delta);
+    }
+
+    private void publish(Long salespersonId, String eventName, Map<String, Object> delta) {
+        Set<SseEmitter> emitters = subscribers.get(salespersonId);
+        if (emitters == null || emitters.isEmpty()) {
+            return;
+        }
+
+        sender.execute(() -> emitters.forEach(emitter -> send(salespersonId, emitter, eventName, delta)));
+
+        // Coalesce bursts of changes into one dashboard refresh per salesperson
+        if (pendingRefresh.add(salespersonId)) {
+            sender.schedule(() -> refreshDashboard(salespersonId), REFRESH_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void refreshDashboard(Long salespersonId) {
+        pendingRefresh.remove(salespersonId);
+
+        Set<SseEmitter> emitters = subscribers.get(salespersonId);
+        if (emitters == null || emitters.isEmpty()) {
+            return;
+        }
+
+        try {
+            Map<String, Object> dashboard = reportingService.getSalespersonDashboard(salespersonId);
+            emitters.forEach(emitter -> send(salespersonId, emitter, "dashboard", dashboard));
+        } catch (Exception e) {
+            log.warn("Dashboard refresh failed for salesperson {}: {}", salespersonId, e.getMessage());
+        }
+    }
+
+    private void sendHeartbeats() {
+        subscribers.forEach((salespersonId, emitters) -> emitters.forEach(emitter -> {
+            try {
+                emitter.send(SseEmitter.event().comment("keep-alive"));
+            } catch (Exception e) {
+                unsubscribe(salespersonId, emitter);
+            }
+        }));
+    }
+
+    private void send(Long salespersonId, SseEmitter emitter, String eventName, Map<String, Object> data) {
+        try {
+            emitter.send(SseEmitter.event().name(eventName).data(data, MediaType.APPLICATION_JSON));
+        } catch (Exception e) {
+            // Client went away; the container will also call onError/onCompletion
+            unsubscribe(salespersonId, emitter);
+        }
+    }
+
+    // Set membership changes go through compute() so an emptied set is never removed while another stream joins it
+    private boolean register(Long salespersonId, SseEmitter emitter) {
+        AtomicBoolean added = new AtomicBoolean();
+        subscribers.compute(salespersonId, (id, emitters) -> {
+            Set<SseEmitter> current = emitters != null ? emitters : ConcurrentHashMap.newKeySet();
+            if (current.size() < maxPerSalesperson) {
+                current.add(emitter);
+                added.set(true);
+            }
+            return current.isEmpty() ? null : current;
+        });
+        return added.get();
+    }
+
+    private void unsubscribe(Long salespersonId, SseEmitter emitter) {
+        subscribers.computeIfPresent(salespersonId, (id, emitters) -> {
+            if (emitters.remove(emitter)) {
+                connections.decrementAndGet();
+            }
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
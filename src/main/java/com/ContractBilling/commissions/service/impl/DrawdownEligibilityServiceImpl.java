@@ -0,0 +1,171 @@
+package com.ContractBilling.commissions.service.impl;
+
+import com.ContractBilling.commissions.config.CacheConfig;
+import com.ContractBilling.commissions.dto.DrawdownEligibility;
+import com.ContractBilling.commissions.entity.PolicySettings;
+import com.ContractBilling.commissions.exception.ResourceNotFoundException;
+import com.ContractBilling.commissions.repository.SalespersonRepository;
+import com.ContractBilling.commissions.repository.SettingsRepository;
+import com.ContractBilling.commissions.repository.projection.DrawdownEligibilityFacts;
+import com.ContractBilling.commissions.service.DrawdownEligibilityService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Evaluates drawdown eligibility for a whole team at once.
+ *
+ * Cached decisions are served per salesperson; the misses are computed together
+ * with one grouped query (quarter counts, recognized months, balance) and one
+ * policy read. Entries are evicted when the salesperson's drawdowns, plans or
+ * ledger change and cleared on policy updates (see ReportCacheEvictionListener).
+ *
+ * Only committed state is cached: a call that runs inside a read-write transaction
+ * may see that transaction's own uncommitted writes, so its results are returned
+ * but not stored. A read that overlaps an eviction may have computed from the data
+ * before the change, so every eviction bumps a generation and a result is only
+ * kept if no eviction happened since its read began.
+ */
+@Service
+@Slf4j
+@Transactional(readOnly = true)
+public class DrawdownEligibilityServiceImpl implements DrawdownEligibilityService {
+
+    private static final int MAX_SALESPEOPLE = 500;
+
+    private final SalespersonRepository salespersonRepository;
+    private final SettingsRepository settingsRepository;
+    private final Cache cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public DrawdownEligibilityServiceImpl(SalespersonRepository salespersonRepository,
+                                          SettingsRepository settingsRepository,
+                                          CacheManager cacheManager) {
+        this.salespersonRepository = salespersonRepository;
+        this.settingsRepository = settingsRepository;
+        this.cache = cacheManager.getCache(CacheConfig.DRAWDOWN_ELIGIBILITY);
+    }
+
+    @Override
+    public DrawdownEligibility evaluate(Long salespersonId) {
+        List<DrawdownEligibility> result = evaluate(List.of(salespersonId));
+        if (result.isEmpty()) {
+            throw new ResourceNotFoundException("Salesperson", "id", salespersonId);
+        }
+        return result.get(0);
+    }
+
+    @Override
+    public List<DrawdownEligibility> evaluate(Collection<Long> salespersonIds) {
+        Set<Long> ids = new LinkedHashSet<>(salespersonIds);
+        if (ids.size() > MAX_SALESPEOPLE) {
+            throw new IllegalArgumentException("At most " + MAX_SALESPEOPLE + " salespeople per eligibility request");
+        }
+
+        Map<Long, DrawdownEligibility> found = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long id : ids) {
+            DrawdownEligibility cached = cache.get(id, DrawdownEligibility.class);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                misses.add(id);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            long readAt = generation.get();
+            boolean cacheable = !inReadWriteTransaction();
+            computeAll(misses).forEach(eligibility -> {
+                if (cacheable) {
+                    store(eligibility, readAt);
+                }
+                found.put(eligibility.salespersonId(), eligibility);
+            });
+            log.debug("Drawdown eligibility: {} cached, {} computed", ids.size() - misses.size(), misses.size());
+        }
+
+        List<DrawdownEligibility> result = new ArrayList<>(found.size());
+        for (Long id : ids) {
+            DrawdownEligibility eligibility = found.get(id);
+            if (eligibility != null) {
+                result.add(eligibility);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void evict(Long salespersonId) {
+        // Bumped before the eviction, so a put that lands after it sees the change and undoes itself
+        generation.incrementAndGet();
+        cache.evict(salespersonId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void evictAll() {
+        generation.incrementAndGet();
+        cache.clear();
+    }
+
+    // Put first, then check: an eviction either follows the put or has already bumped the generation
+    private void store(DrawdownEligibility eligibility, long readAt) {
+        cache.put(eligibility.salespersonId(), eligibility);
+        if (generation.get() != readAt) {
+            cache.evict(eligibility.salespersonId());
+        }
+    }
+
+    // Joined into a caller's write transaction, whose uncommitted changes this read can see
+    private static boolean inReadWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private List<DrawdownEligibility> computeAll(List<Long> salespersonIds) {
+        LocalDate today = LocalDate.now();
+        PolicySettings policy = settingsRepository.findSingleton().orElse(null);
+
+        return salespersonRepository.findDrawdownEligibilityFacts(
+                        salespersonIds, today.getYear(), (today.getMonthValue() - 1) / 3 + 1).stream()
+                .map(facts -> decide(facts, policy))
+                .toList();
+    }
+
+    private static DrawdownEligibility decide(DrawdownEligibilityFacts facts, PolicySettings policy) {
+        Integer minMonth = policy != null ? policy.getDrawdownMinMonth() : null;
+        Integer maxPerQuarter = policy != null ? policy.getDrawdownMaxPerQuarter() : null;
+        int monthsRecognized = facts.getMonthsRecognized() != null ? facts.getMonthsRecognized() : 0;
+        int drawdowns = facts.getDrawdownsInQuarter() != null ? facts.getDrawdownsInQuarter().intValue() : 0;
+        BigDecimal available = facts.getAvailableBalance() != null ? facts.getAvailableBalance() : BigDecimal.ZERO;
+
+        String reason = null;
+        if (minMonth != null && monthsRecognized < minMonth) {
+            reason = DrawdownEligibility.MIN_MONTH_NOT_REACHED;
+        } else if (maxPerQuarter != null && drawdowns >= maxPerQuarter) {
+            reason = DrawdownEligibility.QUARTER_LIMIT_REACHED;
+        } else if (available.signum() <= 0) {
+            reason = DrawdownEligibility.NO_AVAILABLE_BALANCE;
+        }
+
+        return new DrawdownEligibility(facts.getSalespersonId(), reason == null, reason,
+                monthsRecognized, minMonth, drawdowns, maxPerQuarter, available);
+    }
+}
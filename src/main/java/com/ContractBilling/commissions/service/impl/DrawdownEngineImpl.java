@@ -1,20 +1,66 @@
 package com.ContractBilling.commissions.service.impl;
 
+import com.ContractBilling.commissions.dto.DrawdownBatchItem;
+import com.ContractBilling.commissions.dto.DrawdownBatchOutcome;
+import com.ContractBilling.commissions.dto.DrawdownBatchResponse;
+import com.ContractBilling.commissions.dto.DrawdownEligibility;
 import com.ContractBilling.commissions.entity.DrawdownRequest;
+import com.ContractBilling.commissions.entity.LedgerEntryType;
+import com.ContractBilling.commissions.entity.PolicySettings;
 import com.ContractBilling.commissions.entity.Salesperson;
-import com.ContractBilling.commissions.repository.CommissionPlanRepository;
+import com.ContractBilling.commissions.event.DrawdownStatusChangedEvent;
+import com.ContractBilling.commissions.event.LedgerEntryRecordedEvent;
+import com.ContractBilling.commissions.exception.DrawdownPolicyException;
+import com.ContractBilling.commissions.exception.InsufficientBalanceException;
+import com.ContractBilling.commissions.exception.InvalidStateTransitionException;
+import com.ContractBilling.commissions.exception.ResourceNotFoundException;
+import com.ContractBilling.commissions.repository.DrawdownBalanceRepository;
 import com.ContractBilling.commissions.repository.DrawdownRequestRepository;
 import com.ContractBilling.commissions.repository.SettingsRepository;
+import com.ContractBilling.commissions.service.DrawdownEligibilityService;
 import com.ContractBilling.commissions.service.DrawdownEngine;
 import com.ContractBilling.commissions.service.LedgerService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
+/**
+ * Drawdown lifecycle on top of the drawdown_balance row.
+ *
+ * Every step moves money between the balance columns with one conditional UPDATE:
+ * a request reserves (available -> pending), an approval converts (pending -> approved),
+ * a rejection releases, and a payment settles (approved -> paid). The UPDATE only
+ * applies while the balance covers it, so concurrent requests can't overdraw a
+ * salesperson, and no request ever locks more than that salesperson's row.
+ *
+ * The request's own status moves the same way: approve, reject and pay are UPDATEs
+ * guarded by the expected current status, and only the call whose UPDATE matched
+ * goes on to touch the balance and the ledger. A retried or concurrent call gets
+ * an InvalidStateTransitionException instead of a second ledger entry.
+ *
+ * Every approval, single or batch, first locks the salespeople's balance rows and
+ * checks the policy's minimum recognized month and quarter limit in one grouped
+ * query. Batch approve/pay then apply the status guards set-wise: one UPDATE ...
+ * RETURNING moves the rows that pass, and their ledger entries go in with a single
+ * INSERT ... SELECT.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -22,113 +68,367 @@ import java.time.LocalDate;
 public class DrawdownEngineImpl implements DrawdownEngine {
 
     private final DrawdownRequestRepository drawdownRepository;
-    private final CommissionPlanRepository commissionPlanRepository;
+    private final DrawdownBalanceRepository balanceRepository;
     private final SettingsRepository settingsRepository;
     private final LedgerService ledgerService;
+    private final DrawdownEligibilityService eligibilityService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
 
     @Override
     public boolean canRequestDrawdown(Salesperson salesperson) {
-        BigDecimal available = getAvailableBalance(salesperson);
-        return available.compareTo(BigDecimal.ZERO) > 0;
+        return eligibilityService.evaluate(salesperson.getId()).eligible();
     }
 
     @Override
     public BigDecimal getMaxDrawableAmount(Salesperson salesperson) {
-        var settings = settingsRepository.findAll();
-        if (settings.isEmpty()) {
-            return BigDecimal.ZERO;
+        DrawdownEligibility eligibility = eligibilityService.evaluate(salesperson.getId());
+        return eligibility.eligible() ? eligibility.availableBalance() : BigDecimal.ZERO;
+    }
+
+    @Override
+    public BigDecimal getAvailableBalance(Salesperson salesperson) {
+        return balanceRepository.findAvailable(salesperson.getId()).orElse(BigDecimal.ZERO);
+    }
+
+    @Override
+    public DrawdownRequest requestDrawdown(Salesperson salesperson, BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("Drawdown amount must be positive");
         }
 
-        var policy = settings.get(0);
-        BigDecimal available = getAvailableBalance(salesperson);
+        if (balanceRepository.reserve(salesperson.getId(), amount) == 0) {
+            throw new InsufficientBalanceException(salesperson.getId(), amount, getAvailableBalance(salesperson));
+        }
 
-        // Check minimum month requirement
-        LocalDate minDate = LocalDate.now().minusMonths(policy.getDrawdownMinMonth());
-        // For simplicity, return available if eligible
+        DrawdownRequest request = DrawdownRequest.builder()
+                .salesperson(salesperson)
+                .requestedAmount(amount)
+                .status("PENDING")
+                .requestDate(LocalDate.now())
+                .build();
+
+        drawdownRepository.save(request);
+        publishStatusChange(request);
 
-        return available;
+        log.info("Drawdown requested: ID={}, Salesperson={}, Amount={}", request.getId(), salesperson.getId(), amount);
+        return request;
     }
 
     @Override
-    public BigDecimal getAvailableBalance(Salesperson salesperson) {
-        BigDecimal recognized = commissionPlanRepository.sumRecognizedAmount(salesperson);
-        BigDecimal paid = drawdownRepository.sumPaidAmount(salesperson);
+    public DrawdownRequest approveDrawdown(Long requestId, String approvedBy) {
+        log.info("Approving drawdown request ID: {}", requestId);
+
+        LocalDate today = LocalDate.now();
+        DrawdownBatchOutcome decision = screenApprovals(List.of(requestId), today.getYear(), quarterOf(today))
+                .get(requestId);
+        if (decision == DrawdownBatchOutcome.NOT_ELIGIBLE || decision == DrawdownBatchOutcome.QUARTER_LIMIT_REACHED) {
+            throw new DrawdownPolicyException(requestId, decision);
+        }
+
+        if (drawdownRepository.markApproved(requestId, approvedBy, today,
+                today.getYear(), quarterOf(today), LocalDateTime.now()) == 0) {
+            throw transitionRefused(requestId, "APPROVED");
+        }
 
-        return recognized.subtract(paid);
+        DrawdownRequest request = load(requestId);
+        Long salespersonId = request.getSalesperson().getId();
+        BigDecimal amount = request.getApprovedAmount();
+        if (balanceRepository.approve(salespersonId, amount, amount) == 0) {
+            throw new InsufficientBalanceException(salespersonId, amount,
+                    getAvailableBalance(request.getSalesperson()));
+        }
+
+        ledgerService.recordDrawdownApproved(requestId, salespersonId, amount, "Drawdown approved: " + requestId);
+        publishStatusChange(request);
+
+        log.info("Drawdown approved: ID={}, Amount={}", requestId, amount);
+        return request;
     }
 
     @Override
-    public void approveDrawdown(DrawdownRequest request, String approvedBy) {
-        log.info("Approving drawdown request ID: {}", request.getId());
+    public DrawdownRequest rejectDrawdown(Long requestId, String rejectionReason, String rejectedBy) {
+        log.info("Rejecting drawdown request ID: {}", requestId);
 
-        request.setStatus("APPROVED");
-        request.setApprovedAmount(request.getRequestedAmount());
-        request.setApprovedDate(LocalDate.now());
-        request.setApprovedBy(approvedBy);
+        // Give the reserved or approved amount back to whichever balance column this call moved it out of
+        LocalDateTime now = LocalDateTime.now();
+        DrawdownRequest request;
+        if (drawdownRepository.markRejected(requestId, "PENDING", rejectionReason, now) == 1) {
+            request = load(requestId);
+            balanceRepository.releasePending(request.getSalesperson().getId(), request.getRequestedAmount());
+        } else if (drawdownRepository.markRejected(requestId, "APPROVED", rejectionReason, now) == 1) {
+            request = load(requestId);
+            balanceRepository.releaseApproved(request.getSalesperson().getId(), request.getApprovedAmount());
+        } else {
+            throw transitionRefused(requestId, "REJECTED");
+        }
 
-        drawdownRepository.save(request);
+        publishStatusChange(request);
+
+        log.info("Drawdown rejected: ID={}, By={}, Reason={}", requestId, rejectedBy, rejectionReason);
+        return request;
+    }
+
+    @Override
+    public DrawdownRequest processPayment(Long requestId, String paidBy) {
+        log.info("Processing payment for drawdown ID: {}", requestId);
+
+        if (drawdownRepository.markPaid(requestId, paidBy, LocalDate.now(), LocalDateTime.now()) == 0) {
+            throw transitionRefused(requestId, "PAID");
+        }
+
+        DrawdownRequest request = load(requestId);
+        if (balanceRepository.pay(request.getSalesperson().getId(), request.getApprovedAmount()) == 0) {
+            throw new IllegalStateException("Drawdown balance has no approved amount for drawdown " + requestId);
+        }
 
-        ledgerService.recordAdjustment(
+        ledgerService.recordDrawdownPaid(
+                requestId,
                 request.getSalesperson().getId(),
                 request.getApprovedAmount(),
-                "Drawdown approved: " + request.getId()
+                "Drawdown paid: " + requestId
         );
+        publishStatusChange(request);
 
-        log.info("Drawdown approved: ID={}, Amount={}", request.getId(), request.getApprovedAmount());
+        log.info("Payment processed: ID={}, Amount={}", requestId, request.getApprovedAmount());
+        return request;
     }
 
     @Override
-    public void rejectDrawdown(DrawdownRequest request, String rejectionReason, String rejectedBy) {
-        log.info("Rejecting drawdown request ID: {}", request.getId());
+    public DrawdownBatchResponse approveDrawdowns(List<Long> requestIds, String approvedBy) {
+        List<Long> ids = distinct(requestIds);
+        log.info("Approving {} drawdown requests in batch", ids.size());
 
-        request.setStatus("REJECTED");
-        request.setRejectionReason(rejectionReason);
+        LocalDate today = LocalDate.now();
+        int quarterYear = today.getYear();
+        int quarterNumber = quarterOf(today);
+        Map<Long, DrawdownBatchOutcome> outcomes = screenApprovals(ids, quarterYear, quarterNumber);
+        List<Long> approvable = outcomes.entrySet().stream()
+                .filter(entry -> entry.getValue() == DrawdownBatchOutcome.APPROVED)
+                .map(Map.Entry::getKey)
+                .toList();
+        outcomes.values().removeIf(outcome -> outcome == DrawdownBatchOutcome.APPROVED);
 
-        drawdownRepository.save(request);
+        List<Transition> approved = approvable.isEmpty() ? List.of() : jdbcTemplate.query(
+                "UPDATE drawdown_request SET status = 'APPROVED', approved_amount = requested_amount, " +
+                "approved_date = :today, approved_by = :approvedBy, " +
+                "quarter_year = :quarterYear, quarter_number = :quarterNumber, updated_at = :now " +
+                "WHERE id IN (:approvable) AND status = 'PENDING' " +
+                "RETURNING id, salesperson_id, approved_amount",
+                new MapSqlParameterSource()
+                        .addValue("approvable", approvable)
+                        .addValue("approvedBy", approvedBy)
+                        .addValue("today", today)
+                        .addValue("quarterYear", quarterYear)
+                        .addValue("quarterNumber", quarterNumber)
+                        .addValue("now", LocalDateTime.now()),
+                Transition.MAPPER);
+
+        // The pending reservations become approved amounts, one balance update per salesperson
+        totalsBySalesperson(approved).forEach((salespersonId, amount) -> {
+            if (balanceRepository.approve(salespersonId, amount, amount) == 0) {
+                throw new IllegalStateException("Drawdown balance has no pending amount for salesperson " + salespersonId);
+            }
+        });
+
+        return finishBatch(ids, approved, outcomes, DrawdownBatchOutcome.APPROVED,
+                LedgerEntryType.ADJUSTMENT, "Drawdown approved: ");
+    }
+
+    @Override
+    public DrawdownBatchResponse processPayments(List<Long> requestIds, String paidBy) {
+        List<Long> ids = distinct(requestIds);
+        log.info("Paying {} drawdown requests in batch", ids.size());
+
+        List<Transition> paid = jdbcTemplate.query(
+                "UPDATE drawdown_request SET status = 'PAID', paid_date = :today, paid_by = :paidBy, " +
+                "updated_at = :now " +
+                "WHERE id IN (:ids) AND status = 'APPROVED' " +
+                "RETURNING id, salesperson_id, approved_amount",
+                new MapSqlParameterSource()
+                        .addValue("ids", ids)
+                        .addValue("paidBy", paidBy)
+                        .addValue("today", LocalDate.now())
+                        .addValue("now", LocalDateTime.now()),
+                Transition.MAPPER);
+
+        totalsBySalesperson(paid).forEach((salespersonId, amount) -> {
+            if (balanceRepository.pay(salespersonId, amount) == 0) {
+                throw new IllegalStateException("Drawdown balance has no approved amount for salesperson " + salespersonId);
+            }
+        });
+
+        return finishBatch(ids, paid, new HashMap<>(), DrawdownBatchOutcome.PAID,
+                LedgerEntryType.COMMISSION_PAID, "Drawdown paid: ");
+    }
 
-        log.info("Drawdown rejected: ID={}, Reason={}", request.getId(), rejectionReason);
+    @Override
+    public boolean canRequestInQuarter(Salesperson salesperson, Integer year, Integer quarter) {
+        return settingsRepository.findSingleton()
+                .map(policy -> getDrawdownCountInQuarter(salesperson, year, quarter) < policy.getDrawdownMaxPerQuarter())
+                .orElse(true);
     }
 
     @Override
-    public void processPayment(DrawdownRequest request, String paidBy) {
-        log.info("Processing payment for drawdown ID: {}", request.getId());
+    public int getDrawdownCountInQuarter(Salesperson salesperson, Integer year, Integer quarter) {
+        return drawdownRepository.countByQuarter(salesperson, year, quarter);
+    }
 
-        if (!"APPROVED".equals(request.getStatus())) {
-            log.warn("Cannot pay non-approved drawdown: {}", request.getId());
+    // Synchronous, so the recognized balance moves in the same transaction as the recognition itself
+    @EventListener
+    public void onLedgerEntryRecorded(LedgerEntryRecordedEvent event) {
+        if (event.entryType() != LedgerEntryType.COMMISSION_RECOGNIZED || event.amount() == null) {
             return;
         }
+        balanceRepository.addRecognized(event.salespersonId(), event.amount());
+    }
 
-        request.setStatus("PAID");
-        request.setPaidDate(LocalDate.now());
-        request.setPaidBy(paidBy);
+    /**
+     * Applies the drawdown policy to requests about to be approved, under a lock on their
+     * salespeople's balance rows that the caller's transaction holds until it commits, so
+     * concurrent approvals (single or batch) can't both count the same free quarter slot.
+     * Returns an outcome per existing request, in id order: APPROVED for those the policy
+     * lets through, with requests earlier in the list using up the quarter's slots first.
+     */
+    private Map<Long, DrawdownBatchOutcome> screenApprovals(List<Long> ids, int quarterYear, int quarterNumber) {
+        PolicySettings policy = settingsRepository.findSingleton().orElse(null);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("quarterYear", quarterYear)
+                .addValue("quarterNumber", quarterNumber);
 
-        drawdownRepository.save(request);
+        // Ordered to avoid deadlocks between overlapping approvals
+        jdbcTemplate.queryForList(
+                "SELECT salesperson_id FROM drawdown_balance WHERE salesperson_id IN " +
+                "(SELECT salesperson_id FROM drawdown_request WHERE id IN (:ids)) " +
+                "ORDER BY salesperson_id FOR UPDATE",
+                params, Long.class);
 
-        ledgerService.recordCommissionPaid(
-                null,
-                request.getSalesperson().getId(),
-                request.getApprovedAmount(),
-                "Drawdown paid: " + request.getId()
-        );
+        // Quarter usage and recognized months for every salesperson involved, in one grouped query
+        List<BatchCandidate> candidates = jdbcTemplate.query(
+                "WITH batch AS (SELECT id, salesperson_id, status FROM drawdown_request WHERE id IN (:ids)), " +
+                "quarter_usage AS (" +
+                "    SELECT dr.salesperson_id, COUNT(*) AS used FROM drawdown_request dr " +
+                "    WHERE dr.salesperson_id IN (SELECT salesperson_id FROM batch) " +
+                "    AND dr.quarter_year = :quarterYear AND dr.quarter_number = :quarterNumber " +
+                "    AND dr.status != 'REJECTED' " +
+                "    GROUP BY dr.salesperson_id), " +
+                "recognition AS (" +
+                "    SELECT cp.salesperson_id, MAX(cp.months_recognized) AS months FROM commission_plan cp " +
+                "    WHERE cp.salesperson_id IN (SELECT salesperson_id FROM batch) " +
+                "    GROUP BY cp.salesperson_id) " +
+                "SELECT b.id, b.salesperson_id, b.status, " +
+                "       COALESCE(q.used, 0) AS used, COALESCE(r.months, 0) AS months " +
+                "FROM batch b " +
+                "LEFT JOIN quarter_usage q ON q.salesperson_id = b.salesperson_id " +
+                "LEFT JOIN recognition r ON r.salesperson_id = b.salesperson_id " +
+                "ORDER BY b.id",
+                params,
+                (rs, rowNum) -> new BatchCandidate(rs.getLong("id"), rs.getLong("salesperson_id"),
+                        rs.getString("status"), rs.getInt("used"), rs.getInt("months")));
+
+        Map<Long, DrawdownBatchOutcome> outcomes = new LinkedHashMap<>();
+        Map<Long, Integer> quarterUsage = new HashMap<>();
+        for (BatchCandidate candidate : candidates) {
+            if (!"PENDING".equals(candidate.status())) {
+                outcomes.put(candidate.id(), DrawdownBatchOutcome.INVALID_STATE);
+                continue;
+            }
+            if (policy != null && candidate.monthsRecognized() < policy.getDrawdownMinMonth()) {
+                outcomes.put(candidate.id(), DrawdownBatchOutcome.NOT_ELIGIBLE);
+                continue;
+            }
 
-        log.info("Payment processed: ID={}, Amount={}", request.getId(), request.getApprovedAmount());
+            int used = quarterUsage.getOrDefault(candidate.salespersonId(), candidate.usedInQuarter());
+            if (policy != null && used >= policy.getDrawdownMaxPerQuarter()) {
+                outcomes.put(candidate.id(), DrawdownBatchOutcome.QUARTER_LIMIT_REACHED);
+                continue;
+            }
+            quarterUsage.put(candidate.salespersonId(), used + 1);
+            outcomes.put(candidate.id(), DrawdownBatchOutcome.APPROVED);
+        }
+        return outcomes;
     }
 
-    @Override
-    public boolean canRequestInQuarter(Salesperson salesperson, Integer year, Integer quarter) {
-        var settings = settingsRepository.findAll();
-        if (settings.isEmpty()) {
-            return true;
+    // Ledger entries and events for the rows a batch transitioned, then one item per requested id
+    private DrawdownBatchResponse finishBatch(List<Long> ids,
+                                              List<Transition> transitioned,
+                                              Map<Long, DrawdownBatchOutcome> outcomes,
+                                              DrawdownBatchOutcome success,
+                                              LedgerEntryType entryType,
+                                              String description) {
+        List<Long> transitionedIds = transitioned.stream().map(Transition::id).toList();
+        ledgerService.recordDrawdownEntries(transitionedIds, entryType, description);
+
+        for (Transition transition : transitioned) {
+            outcomes.put(transition.id(), success);
+            eventPublisher.publishEvent(new DrawdownStatusChangedEvent(
+                    transition.id(), transition.salespersonId(), success.name(), transition.amount()));
         }
 
-        var policy = settings.get(0);
-        int currentCount = getDrawdownCountInQuarter(salesperson, year, quarter);
+        Map<Long, String> statuses = new HashMap<>();
+        jdbcTemplate.query("SELECT id, status FROM drawdown_request WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", ids),
+                rs -> {
+                    statuses.put(rs.getLong("id"), rs.getString("status"));
+                });
+
+        List<DrawdownBatchItem> items = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            String status = statuses.get(id);
+            DrawdownBatchOutcome outcome = status == null
+                    ? DrawdownBatchOutcome.NOT_FOUND
+                    : outcomes.getOrDefault(id, DrawdownBatchOutcome.INVALID_STATE);
+            items.add(new DrawdownBatchItem(id, outcome, status));
+        }
 
-        return currentCount < policy.getDrawdownMaxPerQuarter();
+        log.info("Drawdown batch finished: {} of {} requests {}", transitioned.size(), ids.size(), success);
+        return new DrawdownBatchResponse(ids.size(), transitioned.size(), items);
     }
 
-    @Override
-    public int getDrawdownCountInQuarter(Salesperson salesperson, Integer year, Integer quarter) {
-        return drawdownRepository.countByQuarter(salesperson, year, quarter);
+    private static Map<Long, BigDecimal> totalsBySalesperson(List<Transition> transitions) {
+        return transitions.stream().collect(Collectors.groupingBy(
+                Transition::salespersonId,
+                Collectors.reducing(BigDecimal.ZERO, Transition::amount, BigDecimal::add)));
+    }
+
+    private static List<Long> distinct(List<Long> ids) {
+        return new ArrayList<>(new LinkedHashSet<>(ids));
+    }
+
+    private static int quarterOf(LocalDate date) {
+        return (date.getMonthValue() - 1) / 3 + 1;
+    }
+
+    private DrawdownRequest load(Long requestId) {
+        return drawdownRepository.findById(requestId)
+                .orElseThrow(() -> new ResourceNotFoundException("DrawdownRequest", "id", requestId));
+    }
+
+    // The conditional UPDATE matched nothing: either the request doesn't exist or another call moved it first
+    private RuntimeException transitionRefused(Long requestId, String targetStatus) {
+        return drawdownRepository.findStatusById(requestId)
+                .<RuntimeException>map(status ->
+                        new InvalidStateTransitionException("Drawdown", requestId, status, targetStatus))
+                .orElseGet(() -> new ResourceNotFoundException("DrawdownRequest", "id", requestId));
+    }
+
+    private void publishStatusChange(DrawdownRequest request) {
+        BigDecimal amount = request.getApprovedAmount() != null
+                ? request.getApprovedAmount()
+                : request.getRequestedAmount();
+
+        eventPublisher.publishEvent(new DrawdownStatusChangedEvent(
+                request.getId(), request.getSalesperson().getId(), request.getStatus(), amount));
+    }
+
+    private record BatchCandidate(Long id, Long salespersonId, String status, int usedInQuarter, int monthsRecognized) {
+    }
+
+    // A drawdown request moved by a batch UPDATE, as returned by its RETURNING clause
+    private record Transition(Long id, Long salespersonId, BigDecimal amount) {
+
+        static final RowMapper<Transition> MAPPER = (rs, rowNum) -> new Transition(
+                rs.getLong("id"), rs.getLong("salesperson_id"), rs.getBigDecimal("approved_amount"));
     }
 }
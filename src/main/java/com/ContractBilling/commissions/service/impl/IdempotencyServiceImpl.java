@@ -0,0 +1,135 @@
+package com.ContractBilling.commissions.service.impl;
+
+import com.ContractBilling.commissions.dto.ApiResponse;
+import com.ContractBilling.commissions.entity.IdempotencyRecord;
+import com.ContractBilling.commissions.repository.IdempotencyRecordRepository;
+import com.ContractBilling.commissions.service.IdempotencyService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key handling for POST endpoints.
+ *
+ * The key is claimed with INSERT ... ON CONFLICT DO NOTHING inside the caller's
+ * transaction, the action runs, and the response is stored before commit. If the
+ * action fails the claim rolls back with it, so the client can retry with the same
+ * key. A concurrent request with the same key waits on the uncommitted claim and
+ * then replays the stored response; a retry after commit replays it straight away
+ * from a plain read. Keys belong to the authenticated user, so one user's key
+ * never replays another user's response.
+ */
+@Service
+@Slf4j
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    // Owner of keys sent without an authenticated user (internal callers)
+    private static final String NO_PRINCIPAL = "";
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Duration retention;
+
+    public IdempotencyServiceImpl(IdempotencyRecordRepository repository,
+                                  ObjectMapper objectMapper,
+                                  @Value("${idempotency.retention:24h}") Duration retention) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.retention = retention;
+    }
+
+    @Override
+    @Transactional
+    public <T> ResponseEntity<ApiResponse<T>> execute(String key,
+                                                      String operation,
+                                                      Class<T> dataType,
+                                                      Supplier<ResponseEntity<ApiResponse<T>>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String principal = currentPrincipal();
+        var existing = repository.findByPrincipalAndIdempotencyKey(principal, key);
+        if (existing.isPresent()) {
+            return replay(existing.get(), operation, dataType);
+        }
+
+        if (repository.claim(principal, key, operation) == 0) {
+            // Another request claimed the key and has committed since our read
+            return replay(repository.findByPrincipalAndIdempotencyKey(principal, key).orElseThrow(),
+                    operation, dataType);
+        }
+
+        ResponseEntity<ApiResponse<T>> response = action.get();
+        repository.complete(principal, key, response.getStatusCode().value(), write(response.getBody()));
+
+        log.debug("Idempotency key stored: principal={}, key={}, operation={}", principal, key, operation);
+        return response;
+    }
+
+    private <T> ResponseEntity<ApiResponse<T>> replay(IdempotencyRecord record, String operation, Class<T> dataType) {
+        if (!record.getOperation().equals(operation)) {
+            throw new IllegalArgumentException("Idempotency-Key " + record.getIdempotencyKey()
+                    + " was already used for a different request");
+        }
+
+        log.info("Replaying stored response: key={}, operation={}", record.getIdempotencyKey(), operation);
+        return ResponseEntity.status(record.getStatusCode())
+                .header(REPLAYED_HEADER, "true")
+                .body(read(record.getResponseBody(), dataType));
+    }
+
+    private static String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : NO_PRINCIPAL;
+    }
+
+    private String write(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not store response for idempotent request", e);
+        }
+    }
+
+    private <T> ApiResponse<T> read(String body, Class<T> dataType) {
+        JavaType type = objectMapper.getTypeFactory().constructParametricType(ApiResponse.class, dataType);
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read stored response for idempotent request", e);
+        }
+    }
+
+    @Scheduled(initialDelay = 1, fixedDelay = 60, timeUnit = TimeUnit.MINUTES)
+    void purgeExpired() {
+        try {
+            int purged = repository.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+            if (purged > 0) {
+                log.info("Purged {} expired idempotency records", purged);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Idempotency record purge failed", e);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.ContractBilling.commissions.service.impl;
+
+import com.ContractBilling.commissions.dto.LeaderboardEntry;
+import com.ContractBilling.commissions.event.CommissionPlanChangedEvent;
+import com.ContractBilling.commissions.event.SalespersonChangedEvent;
+import com.ContractBilling.commissions.repository.CommissionPlanRepository;
+import com.ContractBilling.commissions.service.LeaderboardService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory leaderboard of planned commission per salesperson.
+ *
+ * Totals are loaded once with a single GROUP BY query and then kept current by
+ * applying the planned-amount deltas of committed commission plan changes.
+ * A load is only kept if no change was committing while it ran: such a change
+ * may already be in the result and still have its delta applied afterwards.
+ * The ranked top-K list is memoized until the next change, so steady-state reads
+ * are served from memory without touching the database.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderboardServiceImpl implements LeaderboardService {
+
+    private static final Comparator<LeaderboardEntry> RANKING =
+            Comparator.comparing(LeaderboardEntry::totalCommission)
+                    .reversed()
+                    .thenComparing(LeaderboardEntry::salespersonId);
+
+    private final CommissionPlanRepository commissionPlanRepository;
+
+    // Bumped on every change; a memoized top-K is only valid for the version it was built from
+    private final AtomicLong version = new AtomicLong();
+
+    // Changes from just before their commit until their transaction completes
+    private final AtomicInteger committing = new AtomicInteger();
+
+    // null until loaded (or after invalidation)
+    private volatile Map<Long, LeaderboardEntry> totals;
+
+    private volatile TopSnapshot snapshot;
+
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    @Override
+    public List<LeaderboardEntry> getTopPerformers(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        long currentVersion = version.get();
+        TopSnapshot cached = snapshot;
+        if (cached != null && cached.version() == currentVersion && cached.limit() >= limit) {
+            return cached.entries().subList(0, Math.min(limit, cached.entries().size()));
+        }
+
+        List<LeaderboardEntry> top = topK(totals(), limit);
+        snapshot = new TopSnapshot(currentVersion, limit, top);
+        return top;
+    }
+
+    @Override
+    public void invalidate() {
+        version.incrementAndGet();
+        totals = null;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void beforeCommissionPlanCommit(CommissionPlanChangedEvent event) {
+        if (!hasDelta(event)) {
+            return;
+        }
+
+        committing.incrementAndGet();
+        version.incrementAndGet();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                committing.decrementAndGet();
+            }
+        });
+    }
+
+    @TransactionalEventListener
+    public void onCommissionPlanChanged(CommissionPlanChangedEvent event) {
+        if (!hasDelta(event)) {
+            return;
+        }
+
+        Map<Long, LeaderboardEntry> current = totals;
+        if (current != null && current.computeIfPresent(event.salespersonId(),
+                (id, entry) -> entry.plus(event.plannedDelta())) == null) {
+            // Salesperson not on the board yet; rebuild on the next read
+            totals = null;
+        }
+
+        // After the update, so a top-K built from the old totals can't carry the new version
+        version.incrementAndGet();
+    }
+
+    @TransactionalEventListener
+    public void onSalespersonChanged(SalespersonChangedEvent event) {
+        invalidate();
+    }
+
+    private Map<Long, LeaderboardEntry> totals() {
+        Map<Long, LeaderboardEntry> current = totals;
+        if (current != null) {
+            return current;
+        }
+
+        // A lock rather than synchronized: the load blocks on JDBC, which would pin a virtual thread's carrier
+        loadLock.lock();
+        try {
+            if (totals != null) {
+                return totals;
+            }
+
+            // Version first: a change that starts committing after this read bumps it
+            long loadVersion = version.get();
+            boolean settled = committing.get() == 0;
+            Map<Long, LeaderboardEntry> loaded = new ConcurrentHashMap<>();
+            commissionPlanRepository.sumPlannedAmountBySalesperson().forEach(row ->
+                    loaded.put(row.getSalespersonId(),
+                            new LeaderboardEntry(row.getSalespersonId(), row.getName(), row.getTotalCommission())));
+
+            // A change committing before or while loading may or may not be in this result; use it once but don't keep it
+            if (settled && version.get() == loadVersion) {
+                totals = loaded;
+            }
+
+            log.info("Leaderboard loaded: {} salespeople", loaded.size());
+            return loaded;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private static boolean hasDelta(CommissionPlanChangedEvent event) {
+        return event.plannedDelta() != null && event.plannedDelta().signum() != 0;
+    }
+
+    private static List<LeaderboardEntry> topK(Map<Long, LeaderboardEntry> totals, int limit) {
+        // Min-heap holding the best 'limit' entries seen so far
+        PriorityQueue<LeaderboardEntry> heap = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        for (LeaderboardEntry entry : totals.values()) {
+            heap.offer(entry);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+
+        List<LeaderboardEntry> top = new ArrayList<>(heap);
+        top.sort(RANKING);
+        return List.copyOf(top);
+    }
+
+    private record TopSnapshot(long version, int limit, List<LeaderboardEntry> entries) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.ContractBilling.commissions.service.impl;
+
+import com.ContractBilling.commissions.entity.LedgerEntryType;
+import com.ContractBilling.commissions.service.LedgerExportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams the ledger out of Postgres with the COPY protocol.
+ * Rows go from the server socket to the response stream without being
+ * materialized as entities, so heap usage does not grow with the export size.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerExportServiceImpl implements LedgerExportService {
+
+    private static final String EXPORT_COLUMNS =
+            "SELECT l.id, l.created_at, l.salesperson_id, s.name AS salesperson_name, l.entry_type, l.amount, " +
+            "l.commission_plan_id, l.placement_id, l.reference_type, l.reference_id, l.status, l.description " +
+            "FROM ledger l JOIN salesperson s ON s.id = l.salesperson_id";
+
+    private final DataSource dataSource;
+
+    @Override
+    public void exportCsv(LocalDate startDate,
+                          LocalDate endDate,
+                          Long salespersonId,
+                          LedgerEntryType entryType,
+                          OutputStream out) throws IOException {
+
+        String sql = "COPY (" + buildQuery(startDate, endDate, salespersonId, entryType) + ") " +
+                "TO STDOUT WITH (FORMAT csv, HEADER true)";
+
+        long started = System.currentTimeMillis();
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setReadOnly(true);
+            long rows = connection.unwrap(PGConnection.class)
+                    .getCopyAPI()
+                    .copyOut(sql, out);
+
+            log.info("Ledger export completed: rows={}, elapsedMs={}", rows, System.currentTimeMillis() - started);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Ledger export failed", e);
+        }
+    }
+
+    /**
+     * COPY does not accept bind parameters, so filters are rendered as literals.
+     * Every value is a typed Long, LocalDate or enum, never free text.
+     */
+    private String buildQuery(LocalDate startDate, LocalDate endDate, Long salespersonId, LedgerEntryType entryType) {
+        List<String> conditions = new ArrayList<>();
+
+        if (startDate != null) {
+            conditions.add("l.created_at >= DATE '" + startDate + "'");
+        }
+        if (endDate != null) {
+            conditions.add("l.created_at < DATE '" + endDate.plusDays(1) + "'");
+        }
+        if (salespersonId != null) {
+            conditions.add("l.salesperson_id = " + salespersonId.longValue());
+        }
+        if (entryType != null) {
+            conditions.add("l.entry_type = '" + entryType.name() + "'");
+        }
+
+        StringBuilder query = new StringBuilder(EXPORT_COLUMNS);
+        if (!conditions.isEmpty()) {
+            query.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        query.append(" ORDER BY l.id");
+
+        return query.toString();
+    }
+}
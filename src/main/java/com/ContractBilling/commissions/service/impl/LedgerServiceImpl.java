@@ -3,22 +3,31 @@ package com.ContractBilling.commissions.service.impl;
 import com.ContractBilling.commissions.dto.LedgerMapper;
 import com.ContractBilling.commissions.dto.LedgerResponse;
 import com.ContractBilling.commissions.entity.*;
+import com.ContractBilling.commissions.event.LedgerEntryRecordedEvent;
 import com.ContractBilling.commissions.exception.ResourceNotFoundException;
 import com.ContractBilling.commissions.repository.CommissionPlanRepository;
 import com.ContractBilling.commissions.repository.LedgerRepository;
 import com.ContractBilling.commissions.repository.SalespersonRepository;
 import com.ContractBilling.commissions.service.LedgerService;
+import com.ContractBilling.commissions.service.support.EntityStreams;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -30,6 +39,9 @@ public class LedgerServiceImpl implements LedgerService {
     private final LedgerMapper mapper;
     private final SalespersonRepository salespersonRepository;
     private final CommissionPlanRepository commissionPlanRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional(readOnly = true)
@@ -47,6 +59,15 @@ public class LedgerServiceImpl implements LedgerService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<LedgerResponse> consumer) {
+        try (Stream<Ledger> rows = repository.streamAll()) {
+            long count = EntityStreams.forEach(entityManager, rows, row -> consumer.accept(mapper.toResponse(row)));
+            log.info("Streamed {} ledger entries", count);
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<LedgerResponse> getAll(Pageable pageable) {
@@ -154,7 +175,7 @@ public class LedgerServiceImpl implements LedgerService {
                 .status("COMPLETED")
                 .build();
 
-        repository.save(entry);
+        save(entry);
         log.info("Commission accrual recorded: CommissionPlan={}, Amount={}", commissionPlanId, amount);
     }
 
@@ -178,7 +199,7 @@ public class LedgerServiceImpl implements LedgerService {
                 .status("COMPLETED")
                 .build();
 
-        repository.save(entry);
+        save(entry);
         log.info("Commission recognized: CommissionPlan={}, Amount={}", commissionPlanId, amount);
     }
 
@@ -202,10 +223,48 @@ public class LedgerServiceImpl implements LedgerService {
                 .status("COMPLETED")
                 .build();
 
-        repository.save(entry);
+        save(entry);
         log.info("Commission paid: CommissionPlan={}, Amount={}", commissionPlanId, amount);
     }
 
+    @Override
+    public void recordDrawdownPaid(Long drawdownId, Long salespersonId, BigDecimal amount, String description) {
+        Salesperson salesperson = salespersonRepository.findById(salespersonId)
+                .orElseThrow(() -> new ResourceNotFoundException("Salesperson", "id", salespersonId));
+
+        Ledger entry = Ledger.builder()
+                .salesperson(salesperson)
+                .entryType(LedgerEntryType.COMMISSION_PAID)
+                .amount(amount)
+                .description(description)
+                .referenceType("DRAWDOWN")
+                .referenceId(drawdownId)
+                .status("COMPLETED")
+                .build();
+
+        save(entry);
+        log.info("Drawdown paid: Drawdown={}, Amount={}", drawdownId, amount);
+    }
+
+    @Override
+    public void recordDrawdownApproved(Long drawdownId, Long salespersonId, BigDecimal amount, String description) {
+        Salesperson salesperson = salespersonRepository.findById(salespersonId)
+                .orElseThrow(() -> new ResourceNotFoundException("Salesperson", "id", salespersonId));
+
+        Ledger entry = Ledger.builder()
+                .salesperson(salesperson)
+                .entryType(LedgerEntryType.ADJUSTMENT)
+                .amount(amount)
+                .description(description)
+                .referenceType("DRAWDOWN")
+                .referenceId(drawdownId)
+                .status("COMPLETED")
+                .build();
+
+        save(entry);
+        log.info("Drawdown approved: Drawdown={}, Amount={}", drawdownId, amount);
+    }
+
     @Override
     public void recordAdjustment(Long salespersonId, BigDecimal amount, String description) {
         Salesperson salesperson = salespersonRepository.findById(salespersonId)
@@ -219,7 +278,46 @@ public class LedgerServiceImpl implements LedgerService {
                 .status("COMPLETED")
                 .build();
 
-        repository.save(entry);
+        save(entry);
         log.info("Ledger adjustment recorded: Salesperson={}, Amount={}", salespersonId, amount);
     }
+
+    @Override
+    public int recordDrawdownEntries(Collection<Long> drawdownIds, LedgerEntryType entryType, String description) {
+        if (drawdownIds.isEmpty()) {
+            return 0;
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", drawdownIds)
+                .addValue("entryType", entryType.name())
+                .addValue("description", description);
+
+        List<LedgerEntryRecordedEvent> events = jdbcTemplate.query(
+                "INSERT INTO ledger (salesperson_id, entry_type, amount, description, reference_type, reference_id, " +
+                "                    status, created_at, updated_at) " +
+                "SELECT dr.salesperson_id, :entryType, dr.approved_amount, CONCAT(:description, dr.id), " +
+                "       'DRAWDOWN', dr.id, 'COMPLETED', now(), now() " +
+                "FROM drawdown_request dr WHERE dr.id IN (:ids) " +
+                "RETURNING id, salesperson_id, amount",
+                params,
+                (rs, rowNum) -> new LedgerEntryRecordedEvent(
+                        rs.getLong("id"), rs.getLong("salesperson_id"), null, entryType, rs.getBigDecimal("amount")));
+
+        // Same per-entry events as save(), so the cube, balance and report versions follow batch writes too
+        events.forEach(eventPublisher::publishEvent);
+
+        log.info("Ledger entries recorded in batch: Type={}, Count={}", entryType, events.size());
+        return events.size();
+    }
+
+    private void save(Ledger entry) {
+        Ledger saved = repository.save(entry);
+        eventPublisher.publishEvent(new LedgerEntryRecordedEvent(
+                saved.getId(),
+                saved.getSalesperson().getId(),
+                saved.getCommissionPlan() != null ? saved.getCommissionPlan().getId() : null,
+                saved.getEntryType(),
+                saved.getAmount()));
+    }
 }
@@ -6,21 +6,28 @@ import com.ContractBilling.commissions.dto.PlacementMapper;
 import com.ContractBilling.commissions.dto.PlacementResponse;
 import com.ContractBilling.commissions.dto.UpdatePlacementRequest;
 import com.ContractBilling.commissions.entity.*;
+import com.ContractBilling.commissions.event.CommissionPlanChangedEvent;
+import com.ContractBilling.commissions.event.PlacementChangedEvent;
 import com.ContractBilling.commissions.exception.ResourceNotFoundException;
 import com.ContractBilling.commissions.repository.*;
 import com.ContractBilling.commissions.service.CommissionCalculationService;
 import com.ContractBilling.commissions.service.CommissionPlanService;
 import com.ContractBilling.commissions.service.PlacementService;
 import com.ContractBilling.commissions.service.RevenueRecognitionEngine;
+import com.ContractBilling.commissions.service.support.EntityStreams;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementation of PlacementService
@@ -40,7 +47,10 @@ public class PlacementServiceImpl implements PlacementService {
     private final CommissionCalculationService calculationService;
     private final CommissionPlanService commissionPlanService;
     private final CommissionPlanRepository commissionPlanRepository;
+    private final DrawdownBalanceRepository balanceRepository;
     private final RevenueRecognitionEngine recognitionEngine;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
 
     @Override
     public PlacementResponse create(CreatePlacementRequest request) {
@@ -58,8 +68,7 @@ public class PlacementServiceImpl implements PlacementService {
                 .orElseThrow(() -> new ResourceNotFoundException("Contractor", "id", request.getContractorId()));
 
         // Get current settings for defaults
-        List<PolicySettings> allSettings = settingsRepository.findAll();
-        PolicySettings settings = allSettings.isEmpty() ? null : allSettings.get(0);
+        PolicySettings settings = settingsRepository.findSingleton().orElse(null);
 
         // Convert DTO → Entity
         Placement entity = mapper.toEntity(request);
@@ -123,19 +132,28 @@ public class PlacementServiceImpl implements PlacementService {
     public List<PlacementResponse> getAll() {
         log.info("Fetching all placements");
 
-        return repository.findAll()
+        return repository.findAllWithParties()
                 .stream()
                 .map(mapper::toResponse)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<PlacementResponse> consumer) {
+        try (Stream<Placement> rows = repository.streamAll()) {
+            long count = EntityStreams.forEach(entityManager, rows, row -> consumer.accept(mapper.toResponse(row)));
+            log.info("Streamed {} placements", count);
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<PlacementResponse> getAll(Pageable pageable) {
         log.info("Fetching placements with pagination: page={}, size={}, sort={}",
                 pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort());
 
-        return repository.findAll(pageable)
+        return repository.findPageWithParties(pageable)
                 .map(mapper::toResponse);
     }
 
@@ -144,7 +162,7 @@ public class PlacementServiceImpl implements PlacementService {
     public PlacementResponse getById(Long id) {
         log.info("Fetching placement with ID: {}", id);
 
-        Placement entity = repository.findById(id)
+        Placement entity = repository.findWithPartiesById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Placement", "id", id));
 
         return mapper.toResponse(entity);
@@ -171,8 +189,7 @@ public class PlacementServiceImpl implements PlacementService {
 
         if (shouldRecalculate) {
             // Get current settings
-            List<PolicySettings> allSettings = settingsRepository.findAll();
-            PolicySettings settings = allSettings.isEmpty() ? null : allSettings.get(0);
+            PolicySettings settings = settingsRepository.findSingleton().orElse(null);
 
             if (settings != null) {
                 if (entity.getPlacementType() == PlacementType.CONTRACTOR) {
@@ -186,6 +203,8 @@ public class PlacementServiceImpl implements PlacementService {
         // Save
         Placement updated = repository.save(entity);
 
+        eventPublisher.publishEvent(new PlacementChangedEvent(id, updated.getSalesperson().getId()));
+
         log.info("Placement updated successfully with ID: {}", id);
 
         return mapper.toResponse(updated);
@@ -200,6 +219,17 @@ public class PlacementServiceImpl implements PlacementService {
             throw new ResourceNotFoundException("Placement", "id", id);
         }
 
+        // The commission plan is removed by ON DELETE CASCADE, so announce it and
+        // take what it had recognized back out of the drawdown balance here
+        commissionPlanRepository.findByPlacementId(id).ifPresent(plan -> {
+            Long salespersonId = plan.getSalesperson().getId();
+            if (plan.getRecognizedAmount() != null && plan.getRecognizedAmount().signum() > 0) {
+                balanceRepository.removeRecognized(salespersonId, plan.getRecognizedAmount());
+            }
+            eventPublisher.publishEvent(new CommissionPlanChangedEvent(
+                    plan.getId(), salespersonId, plan.getPlannedAmount().negate()));
+        });
+
         repository.deleteById(id);
 
         log.info("Placement deleted successfully with ID: {}", id);
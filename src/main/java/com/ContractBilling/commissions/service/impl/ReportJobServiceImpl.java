@@ -0,0 +1,216 @@
+package com.ContractBilling.commissions.service.impl;
+
+import com.ContractBilling.commissions.dto.ReportJobResponse;
+import com.ContractBilling.commissions.dto.ReportJobStatus;
+import com.ContractBilling.commissions.dto.ReportJobType;
+import com.ContractBilling.commissions.dto.SubmitReportJobRequest;
+import com.ContractBilling.commissions.exception.ResourceNotFoundException;
+import com.ContractBilling.commissions.exception.ServiceUnavailableException;
+import com.ContractBilling.commissions.service.ClientProfitabilityService;
+import com.ContractBilling.commissions.service.ReportJobService;
+import com.ContractBilling.commissions.service.ReportingService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs heavy reports off the request thread.
+ *
+ * Jobs are queued on a small dedicated executor. Each job holds at most one
+ * database connection, so the thread count caps how much of the pool heavy
+ * reports can take and the transactional API keeps the rest. Queued and running
+ * jobs are held until they finish (their number is bounded by the executor);
+ * finished jobs and their results are then kept for a TTL, up to a size limit.
+ *
+ * The executor is owned here rather than exposed as a bean so it does not
+ * replace Spring's default task executor used for MVC async requests.
+ */
+@Service
+@Slf4j
+public class ReportJobServiceImpl implements ReportJobService {
+
+    private final ReportingService reportingService;
+    private final ClientProfitabilityService clientProfitabilityService;
+    private final ThreadPoolTaskExecutor executor;
+    // Queued and running jobs; never evicted, so pollers can't lose a job in flight
+    private final Map<String, ReportJob> active = new ConcurrentHashMap<>();
+    private final Cache<String, ReportJob> finished;
+
+    public ReportJobServiceImpl(ReportingService reportingService,
+                                ClientProfitabilityService clientProfitabilityService,
+                                @Value("${reports.jobs.threads:2}") int threads,
+                                @Value("${reports.jobs.queue-capacity:50}") int queueCapacity,
+                                @Value("${reports.jobs.result-ttl:15m}") Duration resultTtl,
+                                @Value("${reports.jobs.max-stored:1000}") long maxStored,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.reportingService = reportingService;
+        this.clientProfitabilityService = clientProfitabilityService;
+
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("report-job-");
+        // Still bounded by the pool size, which caps the connections jobs hold; virtual threads just don't tie up OS threads
+        executor.setVirtualThreads(virtualThreads);
+        executor.initialize();
+
+        this.finished = Caffeine.newBuilder()
+                .expireAfterWrite(resultTtl)
+                .maximumSize(maxStored)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public ReportJobResponse submit(SubmitReportJobRequest request) {
+        validate(request);
+
+        ReportJob job = new ReportJob(UUID.randomUUID().toString(), request);
+        active.put(job.id, job);
+
+        try {
+            executor.execute(() -> run(job));
+        } catch (TaskRejectedException e) {
+            active.remove(job.id);
+            throw new ServiceUnavailableException("Report queue is full, please retry later");
+        }
+
+        log.info("Report job submitted: id={}, type={}", job.id, request.getType());
+        return job.toResponse();
+    }
+
+    @Override
+    public ReportJobResponse getJob(String jobId) {
+        return find(jobId).toResponse();
+    }
+
+    @Override
+    public CompletableFuture<ReportJobResponse> awaitJob(String jobId, Duration maxWait) {
+        ReportJob job = find(jobId);
+
+        // copy() so the timeout doesn't complete the job's own future
+        return job.done.copy()
+                .completeOnTimeout(null, maxWait.toMillis(), TimeUnit.MILLISECONDS)
+                .thenApply(ignored -> job.toResponse());
+    }
+
+    private void run(ReportJob job) {
+        job.status = ReportJobStatus.RUNNING;
+        job.startedAt = LocalDateTime.now();
+
+        try {
+            job.result = execute(job.request);
+            job.status = ReportJobStatus.SUCCEEDED;
+        } catch (Exception e) {
+            log.error("Report job {} failed", job.id, e);
+            job.error = e.getMessage();
+            job.status = ReportJobStatus.FAILED;
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            // Stored before it leaves the active map, so it is always found in one of them
+            finished.put(job.id, job);
+            active.remove(job.id);
+            job.done.complete(null);
+        }
+
+        log.info("Report job finished: id={}, status={}, elapsedMs={}", job.id, job.status,
+                Duration.between(job.startedAt, job.finishedAt).toMillis());
+    }
+
+    private Object execute(SubmitReportJobRequest request) {
+        return switch (request.getType()) {
+            case PERIOD_SUMMARY -> reportingService.getPeriodSummary(
+                    request.getSalespersonId(), request.getStartDate(), request.getEndDate());
+            case COMMISSION_BY_PLACEMENT -> reportingService.getCommissionByPlacement(
+                    request.getSalespersonId(), pageOf(request));
+            case RECOGNITION_STATUS -> reportingService.getRecognitionStatus(request.getSalespersonId());
+            case DRAWDOWN_HISTORY -> reportingService.getDrawdownHistory(
+                    request.getSalespersonId(), pageOf(request));
+            case TOP_PERFORMERS -> reportingService.getTopPerformers(
+                    request.getLimit() != null ? request.getLimit() : 10);
+            case CLIENT_PROFITABILITY -> clientProfitabilityService.getClientProfitability(
+                    Boolean.TRUE.equals(request.getRecalculate()));
+        };
+    }
+
+    private Pageable pageOf(SubmitReportJobRequest request) {
+        return PageRequest.of(request.getPage() != null ? request.getPage() : 0,
+                request.getSize() != null ? request.getSize() : 500);
+    }
+
+    private void validate(SubmitReportJobRequest request) {
+        ReportJobType type = request.getType();
+
+        if (type != ReportJobType.TOP_PERFORMERS && type != ReportJobType.CLIENT_PROFITABILITY
+                && request.getSalespersonId() == null) {
+            throw new IllegalArgumentException("salespersonId is required for " + type);
+        }
+        if (type == ReportJobType.PERIOD_SUMMARY
+                && (request.getStartDate() == null || request.getEndDate() == null)) {
+            throw new IllegalArgumentException("startDate and endDate are required for " + type);
+        }
+    }
+
+    private ReportJob find(String jobId) {
+        ReportJob job = active.get(jobId);
+        if (job == null) {
+            job = finished.getIfPresent(jobId);
+        }
+        if (job == null) {
+            throw new ResourceNotFoundException("ReportJob", "id", jobId);
+        }
+        return job;
+    }
+
+    private static class ReportJob {
+        private final String id;
+        private final SubmitReportJobRequest request;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        // Written by the executor thread, read by pollers
+        private volatile ReportJobStatus status = ReportJobStatus.QUEUED;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile Object result;
+        private volatile String error;
+
+        private ReportJob(String id, SubmitReportJobRequest request) {
+            this.id = id;
+            this.request = request;
+        }
+
+        private ReportJobResponse toResponse() {
+            return ReportJobResponse.builder()
+                    .id(id)
+                    .type(request.getType())
+                    .status(status)
+                    .submittedAt(submittedAt)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .result(result)
+                    .error(error)
+                    .build();
+        }
+    }
+}
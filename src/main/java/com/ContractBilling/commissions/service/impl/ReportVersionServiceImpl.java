@@ -0,0 +1,61 @@
+package com.ContractBilling.commissions.service.impl;
+
+import com.ContractBilling.commissions.event.ClientChangedEvent;
+import com.ContractBilling.commissions.event.SalespersonEvent;
+import com.ContractBilling.commissions.repository.ReportVersionRepository;
+import com.ContractBilling.commissions.service.ReportVersionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * High-watermarks for conditional report GETs.
+ *
+ * Each salesperson has a version row that is incremented inside every
+ * transaction that changes their data, so a report's ETag can be checked with
+ * one primary-key read instead of running the report. Changes that aren't one
+ * salesperson's, such as a client rename shown in every report that lists clients,
+ * bump a shared row instead; it only feeds the global watermark.
+ *
+ * Cached reports are evicted only after commit, so one read just after a commit can
+ * still return the previous body. Those reports take their ETag from the version
+ * stored in the body (see the dashboard), never from the current row.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReportVersionServiceImpl implements ReportVersionService {
+
+    private final ReportVersionRepository repository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public String salespersonETag(Long salespersonId) {
+        return repository.findVersion(salespersonId)
+                .map(version -> salespersonETag(salespersonId, version))
+                .orElse(null);
+    }
+
+    @Override
+    public String salespersonETag(Long salespersonId, long version) {
+        return "\"s" + salespersonId + "-" + version + "\"";
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String globalETag() {
+        return "\"g" + repository.sumVersions() + "\"";
+    }
+
+    // Runs just before the writer commits, so the new version becomes visible together with the data
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onSalespersonEvent(SalespersonEvent event) {
+        repository.increment(event.salespersonId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onClientChanged(ClientChangedEvent event) {
+        repository.increment(ReportVersionRepository.SHARED_ROW);
+    }
+}
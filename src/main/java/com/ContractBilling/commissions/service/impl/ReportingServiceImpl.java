@@ -1,21 +1,40 @@
 package com.ContractBilling.commissions.service.impl;
 
+import com.ContractBilling.commissions.config.CacheConfig;
+import com.ContractBilling.commissions.dto.CommissionByPlacementReport;
+import com.ContractBilling.commissions.dto.DrawdownHistoryReport;
+import com.ContractBilling.commissions.dto.DrawdownHistoryRow;
+import com.ContractBilling.commissions.dto.PlacementCommissionRow;
+import com.ContractBilling.commissions.entity.LedgerEntryType;
 import com.ContractBilling.commissions.entity.Salesperson;
+import com.ContractBilling.commissions.exception.ResourceNotFoundException;
 import com.ContractBilling.commissions.repository.CommissionPlanRepository;
 import com.ContractBilling.commissions.repository.DrawdownRequestRepository;
 import com.ContractBilling.commissions.repository.LedgerRepository;
 import com.ContractBilling.commissions.repository.SalespersonRepository;
-import com.ContractBilling.commissions.service.DrawdownEngine;
+import com.ContractBilling.commissions.repository.projection.LedgerMonthlyTotal;
+import com.ContractBilling.commissions.repository.projection.SalespersonDashboardView;
+import com.ContractBilling.commissions.repository.projection.StatusCount;
+import com.ContractBilling.commissions.service.LeaderboardService;
 import com.ContractBilling.commissions.service.ReportingService;
+import com.ContractBilling.commissions.service.support.RequestCoalescer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -24,94 +43,153 @@ import java.util.Map;
 @Transactional(readOnly = true)
 public class ReportingServiceImpl implements ReportingService {
 
+    // Upper bound for list report pages, whatever the client asks for
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final SalespersonRepository salespersonRepository;
     private final CommissionPlanRepository commissionPlanRepository;
     private final DrawdownRequestRepository drawdownRepository;
     private final LedgerRepository ledgerRepository;
-    private final DrawdownEngine drawdownEngine;
+    private final LeaderboardService leaderboardService;
+    private final RequestCoalescer coalescer;
+
+    // Coalesced reports use SUPPORTS so a caller waiting on another request's
+    // computation doesn't hold a connection; the coalescer opens the transaction
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    @Cacheable(cacheNames = CacheConfig.SALESPERSON_DASHBOARD, key = "#salespersonId")
     public Map<String, Object> getSalespersonDashboard(Long salespersonId) {
-        Salesperson salesperson = salespersonRepository.findById(salespersonId).orElseThrow();
+        return coalescer.execute("dashboard", salespersonId, () -> buildDashboard(salespersonId));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Map<String, Object> getPeriodSummary(Long salespersonId, LocalDate startDate, LocalDate endDate) {
+        return coalescer.execute("periodSummary", List.of(salespersonId, startDate, endDate),
+                () -> buildPeriodSummary(salespersonId, startDate, endDate));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CommissionByPlacementReport getCommissionByPlacement(Long salespersonId, Pageable pageable) {
+        Pageable page = boundedPage(pageable);
+        return coalescer.execute("commissionByPlacement",
+                List.of(salespersonId, page.getPageNumber(), page.getPageSize()),
+                () -> buildCommissionByPlacement(salespersonId, page));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Map<String, Object> getRecognitionStatus(Long salespersonId) {
+        return coalescer.execute("recognitionStatus", salespersonId, () -> buildRecognitionStatus(salespersonId));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public DrawdownHistoryReport getDrawdownHistory(Long salespersonId, Pageable pageable) {
+        Pageable page = boundedPage(pageable);
+        return coalescer.execute("drawdownHistory",
+                List.of(salespersonId, page.getPageNumber(), page.getPageSize()),
+                () -> buildDrawdownHistory(salespersonId, page));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Map<String, Object> getTopPerformers(int limit) {
+        return coalescer.execute("topPerformers", limit, () -> {
+            Map<String, Object> report = new HashMap<>();
+            report.put("topPerformers", leaderboardService.getTopPerformers(limit));
+            return report;
+        });
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Map<String, Object> getSystemHealth() {
+        return coalescer.execute("systemHealth", "all", this::buildSystemHealth);
+    }
+
+    private Map<String, Object> buildDashboard(Long salespersonId) {
+        SalespersonDashboardView view = salespersonRepository.findDashboardById(salespersonId)
+                .orElseThrow(() -> new ResourceNotFoundException("Salesperson", "id", salespersonId));
 
         Map<String, Object> dashboard = new HashMap<>();
         dashboard.put("salespersonId", salespersonId);
-        dashboard.put("salespersonName", salesperson.getName());
+        dashboard.put("salespersonName", view.getSalespersonName());
+        dashboard.put("dataVersion", view.getDataVersion());
 
         // Financial summary
-        BigDecimal totalPlanned = commissionPlanRepository.sumPlannedAmount(salesperson);
-        BigDecimal totalRecognized = commissionPlanRepository.sumRecognizedAmount(salesperson);
-        BigDecimal totalPaid = drawdownRepository.sumPaidAmount(salesperson);
-        BigDecimal outstanding = totalRecognized.subtract(totalPaid);
+        BigDecimal outstanding = view.getTotalRecognized().subtract(view.getTotalPaid());
 
         dashboard.put("financialSummary", Map.of(
-                "totalPlanned", totalPlanned,
-                "totalRecognized", totalRecognized,
-                "totalPaid", totalPaid,
+                "totalPlanned", view.getTotalPlanned(),
+                "totalRecognized", view.getTotalRecognized(),
+                "totalPaid", view.getTotalPaid(),
                 "outstanding", outstanding
         ));
 
-        // Availability
-        BigDecimal available = drawdownEngine.getAvailableBalance(salesperson);
-        dashboard.put("availableForDrawdown", available);
-
-        // Commission plans count
-        int pendingPlans = (int) commissionPlanRepository.findByStatus(com.ContractBilling.commissions.entity.CommissionPlanStatus.PLANNED)
-                .stream()
-                .filter(p -> p.getSalesperson().getId().equals(salespersonId))
-                .count();
+        // Availability (recognized less pending, approved and paid drawdowns, from the drawdown balance)
+        dashboard.put("availableForDrawdown", view.getAvailableForDrawdown());
 
-        dashboard.put("pendingPlans", pendingPlans);
+        dashboard.put("pendingPlans", view.getPendingPlans().intValue());
         dashboard.put("generatedAt", LocalDateTime.now());
 
         return dashboard;
     }
 
-    @Override
-    public Map<String, Object> getPeriodSummary(Long salespersonId, LocalDate startDate, LocalDate endDate) {
-        Salesperson salesperson = salespersonRepository.findById(salespersonId).orElseThrow();
+    private Map<String, Object> buildPeriodSummary(Long salespersonId, LocalDate startDate, LocalDate endDate) {
+        if (!salespersonRepository.existsById(salespersonId)) {
+            throw new ResourceNotFoundException("Salesperson", "id", salespersonId);
+        }
 
         Map<String, Object> summary = new HashMap<>();
         summary.put("period", Map.of("start", startDate, "end", endDate));
 
-        var ledgerEntries = ledgerRepository.findByDateRange(salesperson, startDate.atStartOfDay(), endDate.atStartOfDay().plusDays(1));
+        // Totals are summed in the database per month and entry type; only those few rows come back
+        List<LedgerMonthlyTotal> rows = ledgerRepository.sumByMonthAndType(
+                salespersonId, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
 
-        BigDecimal totalAccrued = BigDecimal.ZERO;
-        BigDecimal totalRecognized = BigDecimal.ZERO;
-        BigDecimal totalPaid = BigDecimal.ZERO;
+        PeriodTotals period = new PeriodTotals();
+        Map<String, PeriodTotals> months = new LinkedHashMap<>();
 
-        for (var entry : ledgerEntries) {
-            if ("COMMISSION_ACCRUED".equals(entry.getEntryType().toString())) {
-                totalAccrued = totalAccrued.add(entry.getAmount());
-            } else if ("COMMISSION_RECOGNIZED".equals(entry.getEntryType().toString())) {
-                totalRecognized = totalRecognized.add(entry.getAmount());
-            } else if ("COMMISSION_PAID".equals(entry.getEntryType().toString())) {
-                totalPaid = totalPaid.add(entry.getAmount());
-            }
+        for (LedgerMonthlyTotal row : rows) {
+            LedgerEntryType type = LedgerEntryType.valueOf(row.getEntryType());
+            period.add(type, row.getTotal(), row.getEntryCount());
+            months.computeIfAbsent(row.getMonth(), m -> new PeriodTotals())
+                    .add(type, row.getTotal(), row.getEntryCount());
         }
 
-        summary.put("accrued", totalAccrued);
-        summary.put("recognized", totalRecognized);
-        summary.put("paid", totalPaid);
-        summary.put("transactionCount", ledgerEntries.size());
+        summary.put("accrued", period.accrued);
+        summary.put("recognized", period.recognized);
+        summary.put("paid", period.paid);
+        summary.put("transactionCount", period.transactionCount);
+
+        List<Map<String, Object>> monthly = new ArrayList<>();
+        months.forEach((month, totals) -> monthly.add(Map.of(
+                "month", month,
+                "accrued", totals.accrued,
+                "recognized", totals.recognized,
+                "paid", totals.paid,
+                "transactionCount", totals.transactionCount
+        )));
+        summary.put("monthly", monthly);
 
         return summary;
     }
 
-    @Override
-    public Map<String, Object> getCommissionByPlacement(Long salespersonId) {
-        Salesperson salesperson = salespersonRepository.findById(salespersonId).orElseThrow();
-        Map<String, Object> report = new HashMap<>();
+    private CommissionByPlacementReport buildCommissionByPlacement(Long salespersonId, Pageable pageable) {
+        if (!salespersonRepository.existsById(salespersonId)) {
+            throw new ResourceNotFoundException("Salesperson", "id", salespersonId);
+        }
 
-        var plans = commissionPlanRepository.findBySalesperson(salesperson);
-        report.put("placementCount", plans.size());
-        report.put("placements", plans);
+        Page<PlacementCommissionRow> rows = commissionPlanRepository.findPlacementCommissions(salespersonId, pageable);
 
-        return report;
+        return new CommissionByPlacementReport(salespersonId, rows.getTotalElements(), rows.getContent(),
+                rows.getNumber(), rows.getSize(), rows.getTotalPages());
     }
 
-    @Override
-    public Map<String, Object> getRecognitionStatus(Long salespersonId) {
+    private Map<String, Object> buildRecognitionStatus(Long salespersonId) {
         Salesperson salesperson = salespersonRepository.findById(salespersonId).orElseThrow();
 
         Map<String, Object> status = new HashMap<>();
@@ -134,43 +212,28 @@ public class ReportingServiceImpl implements ReportingService {
         return status;
     }
 
-    @Override
-    public Map<String, Object> getDrawdownHistory(Long salespersonId) {
-        Salesperson salesperson = salespersonRepository.findById(salespersonId).orElseThrow();
-
-        Map<String, Object> history = new HashMap<>();
-        var drawdowns = drawdownRepository.findBySalesperson(salesperson);
+    private DrawdownHistoryReport buildDrawdownHistory(Long salespersonId, Pageable pageable) {
+        if (!salespersonRepository.existsById(salespersonId)) {
+            throw new ResourceNotFoundException("Salesperson", "id", salespersonId);
+        }
 
-        history.put("totalRequests", drawdowns.size());
-        history.put("approved", drawdowns.stream().filter(d -> "APPROVED".equals(d.getStatus())).count());
-        history.put("paid", drawdowns.stream().filter(d -> "PAID".equals(d.getStatus())).count());
-        history.put("rejected", drawdowns.stream().filter(d -> "REJECTED".equals(d.getStatus())).count());
-        history.put("requests", drawdowns);
+        // Counts come from one GROUP BY so they cover every request, not just this page
+        Map<String, Long> counts = new HashMap<>();
+        for (StatusCount row : drawdownRepository.countByStatus(salespersonId)) {
+            counts.put(row.getStatus(), row.getCount());
+        }
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
 
-        return history;
-    }
+        Page<DrawdownHistoryRow> rows = drawdownRepository.findHistory(salespersonId, pageable);
 
-    @Override
-    public Map<String, Object> getTopPerformers(int limit) {
-        var salespeople = salespersonRepository.findAll();
-
-        Map<String, Object> report = new HashMap<>();
-        var topPerformers = salespeople.stream()
-                .map(s -> Map.of(
-                        "salespersonId", (Object) s.getId(),
-                        "name", s.getName(),
-                        "totalCommission", commissionPlanRepository.sumPlannedAmount(s)
-                ))
-                .sorted((a, b) -> ((BigDecimal) b.get("totalCommission")).compareTo((BigDecimal) a.get("totalCommission")))
-                .limit(limit)
-                .toList();
-
-        report.put("topPerformers", topPerformers);
-        return report;
+        return new DrawdownHistoryReport(salespersonId, total,
+                counts.getOrDefault("APPROVED", 0L),
+                counts.getOrDefault("PAID", 0L),
+                counts.getOrDefault("REJECTED", 0L),
+                rows.getContent(), rows.getNumber(), rows.getSize(), rows.getTotalPages());
     }
 
-    @Override
-    public Map<String, Object> getSystemHealth() {
+    private Map<String, Object> buildSystemHealth() {
         Map<String, Object> health = new HashMap<>();
 
         long totalSalespeople = salespersonRepository.count();
@@ -184,4 +247,32 @@ public class ReportingServiceImpl implements ReportingService {
 
         return health;
     }
+
+    // The report queries fix their own ORDER BY, so only page number and size are taken from the caller
+    private static Pageable boundedPage(Pageable pageable) {
+        if (pageable == null || pageable.isUnpaged()) {
+            return PageRequest.of(0, MAX_PAGE_SIZE);
+        }
+        return PageRequest.of(pageable.getPageNumber(), Math.min(pageable.getPageSize(), MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Running totals for a period (or one month of it)
+     */
+    private static class PeriodTotals {
+        private BigDecimal accrued = BigDecimal.ZERO;
+        private BigDecimal recognized = BigDecimal.ZERO;
+        private BigDecimal paid = BigDecimal.ZERO;
+        private long transactionCount;
+
+        void add(LedgerEntryType type, BigDecimal amount, long count) {
+            switch (type) {
+                case COMMISSION_ACCRUED -> accrued = accrued.add(amount);
+                case COMMISSION_RECOGNIZED -> recognized = recognized.add(amount);
+                case COMMISSION_PAID -> paid = paid.add(amount);
+                default -> { }
+            }
+            transactionCount += count;
+        }
+    }
 }
@@ -1,10 +1,11 @@
 package com.ContractBilling.commissions.service.impl;
 
 import com.ContractBilling.commissions.entity.CommissionPlan;
-import com.ContractBilling.commissions.entity.CommissionPlanStatus;
 import com.ContractBilling.commissions.entity.RecognitionSchedule;
+import com.ContractBilling.commissions.exception.ResourceNotFoundException;
 import com.ContractBilling.commissions.repository.CommissionPlanRepository;
 import com.ContractBilling.commissions.repository.RecognitionScheduleRepository;
+import com.ContractBilling.commissions.repository.projection.ScheduleRecognition;
 import com.ContractBilling.commissions.service.LedgerService;
 import com.ContractBilling.commissions.service.RevenueRecognitionEngine;
 import lombok.RequiredArgsConstructor;
@@ -15,8 +16,8 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.YearMonth;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -34,8 +35,6 @@ public class RevenueRecognitionEngineImpl implements RevenueRecognitionEngine {
     public List<RecognitionSchedule> generateRecognitionSchedule(CommissionPlan plan) {
         log.info("Generating recognition schedule for commission plan ID: {}", plan.getId());
 
-        List<RecognitionSchedule> schedules = new ArrayList<>();
-
         // Get recognition parameters
         Integer monthsToRecognize = plan.getMonthsToRecognize() != null ? plan.getMonthsToRecognize() : 12;
         LocalDate startDate = plan.getRecognitionStartDate() != null
@@ -44,81 +43,60 @@ public class RevenueRecognitionEngineImpl implements RevenueRecognitionEngine {
 
         BigDecimal monthlyAmount = calculateMonthlyAmount(plan);
 
-        // Generate monthly entries
-        for (int month = 1; month <= monthsToRecognize; month++) {
-            LocalDate recognitionDate = startDate.plusMonths(month - 1);
-
-            RecognitionSchedule schedule = RecognitionSchedule.builder()
-                    .commissionPlan(plan)
-                    .month(month)
-                    .recognitionDate(recognitionDate)
-                    .plannedAmount(monthlyAmount)
-                    .recognizedAmount(BigDecimal.ZERO)
-                    .status("PENDING")
-                    .build();
-
-            scheduleRepository.save(schedule);
-            schedules.add(schedule);
-        }
+        // All monthly entries in one INSERT, rather than one IDENTITY insert per month
+        scheduleRepository.insertMonthlySchedule(plan.getId(), startDate, monthsToRecognize, monthlyAmount,
+                LocalDateTime.now());
+        List<RecognitionSchedule> schedules = scheduleRepository.findByCommissionPlanIdOrderByMonth(plan.getId());
 
-        log.info("Generated {} recognition schedules for plan ID: {}", monthsToRecognize, plan.getId());
+        log.info("Generated {} recognition schedules for plan ID: {}", schedules.size(), plan.getId());
         return schedules;
     }
 
     @Override
-    public void recognizeRevenue(RecognitionSchedule schedule) {
-        log.info("Recognizing revenue for schedule ID: {}", schedule.getId());
-
-        if ("RECOGNIZED".equals(schedule.getStatus()) || "PAID".equals(schedule.getStatus())) {
-            log.warn("Schedule {} already recognized, skipping", schedule.getId());
-            return;
+    public boolean recognizeRevenue(Long scheduleId) {
+        log.info("Recognizing revenue for schedule ID: {}", scheduleId);
+
+        // Claim the entry with a conditional UPDATE: a retry or a concurrent run loses here
+        // and does nothing, so the plan and ledger are only ever credited once
+        if (scheduleRepository.markRecognized(scheduleId, LocalDateTime.now()) == 0) {
+            if (!scheduleRepository.existsById(scheduleId)) {
+                throw new ResourceNotFoundException("RecognitionSchedule", "id", scheduleId);
+            }
+            log.warn("Schedule {} already recognized, skipping", scheduleId);
+            return false;
         }
 
-        CommissionPlan plan = schedule.getCommissionPlan();
-        BigDecimal amount = schedule.getPlannedAmount();
-
-        // Update schedule
-        schedule.setRecognizedAmount(amount);
-        schedule.setStatus("RECOGNIZED");
-        scheduleRepository.save(schedule);
+        ScheduleRecognition recognition = scheduleRepository.findRecognitionById(scheduleId)
+                .orElseThrow(() -> new ResourceNotFoundException("RecognitionSchedule", "id", scheduleId));
 
-        // Update commission plan
-        BigDecimal currentRecognized = plan.getRecognizedAmount() != null
-            ? plan.getRecognizedAmount()
-            : BigDecimal.ZERO;
-        plan.setRecognizedAmount(currentRecognized.add(amount));
-
-        Integer monthsRecognized = plan.getMonthsRecognized() != null ? plan.getMonthsRecognized() : 0;
-        plan.setMonthsRecognized(monthsRecognized + 1);
-
-        if (plan.getMonthsRecognized() >= (plan.getMonthsToRecognize() != null ? plan.getMonthsToRecognize() : 12)) {
-            plan.setStatus(CommissionPlanStatus.RECOGNIZED);
-        }
-        planRepository.save(plan);
+        planRepository.addRecognizedMonth(recognition.getCommissionPlanId(), recognition.getAmount(),
+                LocalDateTime.now());
 
         // Record in ledger
         ledgerService.recordCommissionRecognized(
-                plan.getId(),
-                plan.getSalesperson().getId(),
-                amount,
-                "Monthly recognition - Month " + schedule.getMonth()
+                recognition.getCommissionPlanId(),
+                recognition.getSalespersonId(),
+                recognition.getAmount(),
+                "Monthly recognition - Month " + recognition.getMonth()
         );
 
-        log.info("Revenue recognized: Plan={}, Amount={}", plan.getId(), amount);
+        log.info("Revenue recognized: Plan={}, Amount={}", recognition.getCommissionPlanId(), recognition.getAmount());
+        return true;
     }
 
     @Override
     public int recognizeAllDue(LocalDate asOfDate) {
         log.info("Processing recognition for all due schedules as of {}", asOfDate);
 
-        List<RecognitionSchedule> dueSchedules = scheduleRepository.findDueForRecognition(asOfDate);
-
-        for (RecognitionSchedule schedule : dueSchedules) {
-            recognizeRevenue(schedule);
+        int recognized = 0;
+        for (Long scheduleId : scheduleRepository.findIdsDueForRecognition(asOfDate)) {
+            if (recognizeRevenue(scheduleId)) {
+                recognized++;
+            }
         }
 
-        log.info("Recognized {} schedules", dueSchedules.size());
-        return dueSchedules.size();
+        log.info("Recognized {} schedules", recognized);
+        return recognized;
     }
 
     @Override
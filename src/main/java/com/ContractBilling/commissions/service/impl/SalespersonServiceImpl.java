@@ -6,18 +6,25 @@ import com.ContractBilling.commissions.dto.SalespersonResponse;
 import com.ContractBilling.commissions.dto.UpdateSalespersonRequest;
 import com.ContractBilling.commissions.entity.Salesperson;
 import com.ContractBilling.commissions.entity.SalespersonStatus;
+import com.ContractBilling.commissions.event.SalespersonChangedEvent;
 import com.ContractBilling.commissions.exception.DuplicateResourceException;
 import com.ContractBilling.commissions.exception.ResourceNotFoundException;
 import com.ContractBilling.commissions.repository.SalespersonRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.ContractBilling.commissions.service.SalespersonService;
+import com.ContractBilling.commissions.service.support.EntityStreams;
+import com.ContractBilling.commissions.service.support.NameSearch;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service  // Tells Spring: this is a service bean
 @RequiredArgsConstructor  // Lombok: generates constructor for final fields
@@ -28,6 +35,8 @@ public class SalespersonServiceImpl implements SalespersonService {
     // Dependencies (injected by Spring via constructor)
     private final SalespersonRepository repository;
     private final SalespersonMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
 
     @Override
     public SalespersonResponse create(CreateSalespersonRequest request) {
@@ -43,6 +52,7 @@ public class SalespersonServiceImpl implements SalespersonService {
 
         // Save to database
         Salesperson saved = repository.save(entity);
+        eventPublisher.publishEvent(new SalespersonChangedEvent(saved.getId()));
 
         log.info("Salesperson created successfully with ID: {}", saved.getId());
 
@@ -61,6 +71,15 @@ public class SalespersonServiceImpl implements SalespersonService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<SalespersonResponse> consumer) {
+        try (Stream<Salesperson> rows = repository.streamAll()) {
+            long count = EntityStreams.forEach(entityManager, rows, row -> consumer.accept(mapper.toResponse(row)));
+            log.info("Streamed {} salespeople", count);
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<SalespersonResponse> getAll(Pageable pageable) {
@@ -102,6 +121,7 @@ public class SalespersonServiceImpl implements SalespersonService {
 
         // Save (updatedAt is set automatically by @PreUpdate)
         Salesperson updated = repository.save(entity);
+        eventPublisher.publishEvent(new SalespersonChangedEvent(id));
 
         log.info("Salesperson updated successfully with ID: {}", id);
 
@@ -118,6 +138,7 @@ public class SalespersonServiceImpl implements SalespersonService {
         }
 
         repository.deleteById(id);
+        eventPublisher.publishEvent(new SalespersonChangedEvent(id));
 
         log.info("Salesperson deleted successfully with ID: {}", id);
     }
@@ -146,10 +167,11 @@ public class SalespersonServiceImpl implements SalespersonService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<SalespersonResponse> searchByName(String keyword) {
+    public List<SalespersonResponse> searchByName(String keyword, Pageable pageable) {
         log.info("Searching salespeople by name keyword: {}", keyword);
 
-        return repository.findByNameContainingIgnoreCase(keyword)
+        String query = NameSearch.normalize(keyword);
+        return repository.searchByName(query, NameSearch.containsPattern(query), NameSearch.page(pageable))
                 .stream()
                 .map(mapper::toResponse)
                 .collect(Collectors.toList());
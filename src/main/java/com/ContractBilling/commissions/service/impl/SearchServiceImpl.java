@@ -0,0 +1,104 @@
+package com.ContractBilling.commissions.service.impl;
+
+import com.ContractBilling.commissions.dto.SearchResponse;
+import com.ContractBilling.commissions.dto.SearchResult;
+import com.ContractBilling.commissions.dto.SearchResultType;
+import com.ContractBilling.commissions.service.SearchService;
+import com.ContractBilling.commissions.service.support.NameSearch;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Name search across salespeople, clients and contractors in one statement.
+ *
+ * Each type contributes only its best matches up to the end of the requested page
+ * (plus one, to tell whether a next page exists), read in rank order from its own
+ * GiST trigram index; the union of those short lists is then ranked together. The
+ * work depends on how deep the page is, not on how many names match.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class SearchServiceImpl implements SearchService {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public SearchResponse search(String query, List<String> types, Pageable pageable) {
+        log.info("Searching names for: {}", query);
+
+        String normalized = NameSearch.normalize(query);
+        Pageable page = NameSearch.page(pageable);
+        Set<SearchResultType> selected = parseTypes(types);
+
+        String matches = selected.stream()
+                .map(type -> "(" + branch(type) + ")")
+                .collect(Collectors.joining(" UNION ALL "));
+        String sql = "SELECT entity_type, id, name, email, score FROM (" + matches + ") matches " +
+                     "ORDER BY score DESC, name, entity_type, id LIMIT :limit OFFSET :offset";
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("query", normalized)
+                .addValue("pattern", NameSearch.containsPattern(normalized))
+                .addValue("window", page.getOffset() + page.getPageSize() + 1)
+                .addValue("limit", page.getPageSize() + 1)
+                .addValue("offset", page.getOffset());
+
+        List<SearchResult> results = jdbcTemplate.query(sql, params, (rs, rowNum) -> new SearchResult(
+                SearchResultType.valueOf(rs.getString("entity_type")),
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getString("email"),
+                rs.getDouble("score")));
+
+        boolean hasNext = results.size() > page.getPageSize();
+        if (hasNext) {
+            results = results.subList(0, page.getPageSize());
+        }
+
+        return new SearchResponse(normalized, results, page.getPageNumber(), page.getPageSize(), hasNext);
+    }
+
+    // Accepts e.g. "client" or "CONTRACTOR"; none means every type
+    private static Set<SearchResultType> parseTypes(List<String> names) {
+        if (names == null || names.isEmpty()) {
+            return EnumSet.allOf(SearchResultType.class);
+        }
+
+        Set<SearchResultType> types = EnumSet.noneOf(SearchResultType.class);
+        for (String name : names) {
+            String normalized = name.trim().toUpperCase();
+            types.add(Arrays.stream(SearchResultType.values())
+                    .filter(type -> type.name().equals(normalized))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException(
+                            "Unknown search type: " + name + ". Allowed: salesperson, client, contractor")));
+        }
+        return types;
+    }
+
+    // Table names come from this switch only, never from the request
+    private static String branch(SearchResultType type) {
+        String table = switch (type) {
+            case SALESPERSON -> "salesperson";
+            case CLIENT -> "client";
+            case CONTRACTOR -> "contractor";
+        };
+        return "SELECT '" + type.name() + "' AS entity_type, id, name, email, " +
+               "1 - (:query <<-> name) AS score FROM " + table + " " +
+               "WHERE name ILIKE :pattern OR :query <% name " +
+               "ORDER BY :query <<-> name, name, id LIMIT :window";
+    }
+}
@@ -4,17 +4,18 @@ import com.ContractBilling.commissions.dto.SettingsMapper;
 import com.ContractBilling.commissions.dto.SettingsResponse;
 import com.ContractBilling.commissions.dto.UpdateSettingsRequest;
 import com.ContractBilling.commissions.entity.PolicySettings;
+import com.ContractBilling.commissions.event.PolicySettingsChangedEvent;
 import com.ContractBilling.commissions.exception.ResourceNotFoundException;
 import com.ContractBilling.commissions.repository.SettingsRepository;
 import com.ContractBilling.commissions.service.SettingsService;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.util.List;
 
 /**
  * Implementation of SettingsService
@@ -28,6 +29,7 @@ public class SettingsServiceImpl implements SettingsService {
 
     private final SettingsRepository repository;
     private final SettingsMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Run after service is created - initialize default settings if needed
@@ -42,14 +44,11 @@ public class SettingsServiceImpl implements SettingsService {
     public SettingsResponse getSettings() {
         log.info("Fetching policy settings");
 
-        // Get the first (and should be only) record
-        List<PolicySettings> allSettings = repository.findAll();
-
-        if (allSettings.isEmpty()) {
-            throw new ResourceNotFoundException("PolicySettings", "id", 1L);
-        }
+        // Get the singleton record
+        PolicySettings settings = repository.findSingleton()
+                .orElseThrow(() -> new ResourceNotFoundException("PolicySettings", "id", PolicySettings.SINGLETON_ID));
 
-        return mapper.toResponse(allSettings.get(0));
+        return mapper.toResponse(settings);
     }
 
     @Override
@@ -57,19 +56,15 @@ public class SettingsServiceImpl implements SettingsService {
         log.info("Updating policy settings by: {}", updatedBy);
 
         // Get the singleton record
-        List<PolicySettings> allSettings = repository.findAll();
-
-        if (allSettings.isEmpty()) {
-            throw new ResourceNotFoundException("PolicySettings", "id", 1L);
-        }
-
-        PolicySettings entity = allSettings.get(0);
+        PolicySettings entity = repository.findSingleton()
+                .orElseThrow(() -> new ResourceNotFoundException("PolicySettings", "id", PolicySettings.SINGLETON_ID));
 
         // Update all fields
         mapper.updateEntity(entity, request, updatedBy);
 
         // Save
         PolicySettings updated = repository.save(entity);
+        eventPublisher.publishEvent(new PolicySettingsChangedEvent(updatedBy));
 
         log.info("Policy settings updated successfully");
 
@@ -113,6 +108,9 @@ public class SettingsServiceImpl implements SettingsService {
             repository.save(defaultSettings);
 
             log.info("Default settings created successfully");
+        } else if (repository.findSingleton().isEmpty()) {
+            // Every read loads the record by id; a row under any other id is never seen
+            log.warn("Settings exist but none with id {}. Count: {}", PolicySettings.SINGLETON_ID, count);
         } else {
             log.info("Settings already exist. Count: {}", count);
         }
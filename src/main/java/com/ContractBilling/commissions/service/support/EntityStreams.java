@@ -0,0 +1,35 @@
+package com.ContractBilling.commissions.service.support;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Walks a streamed repository query without letting the persistence context grow.
+ *
+ * Every entity read in a transaction stays in the persistence context until it ends,
+ * so streaming a whole table still ends up holding all of it. Clearing the context
+ * every batch of rows keeps memory flat; the rows already handed on are not touched again.
+ */
+public final class EntityStreams {
+
+    // Matches the fetch size hint on the streaming queries
+    private static final int CLEAR_EVERY = 500;
+
+    private EntityStreams() {
+    }
+
+    public static <T> long forEach(EntityManager entityManager, Stream<T> rows, Consumer<? super T> action) {
+        long count = 0;
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            action.accept(iterator.next());
+            if (++count % CLEAR_EVERY == 0) {
+                entityManager.clear();
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,50 @@
+package com.ContractBilling.commissions.service.support;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Input handling shared by the trigram name searches.
+ *
+ * A match is a name containing the query (ILIKE '%query%') or one with a word close
+ * to it (pg_trgm's <% operator, which tolerates typos); results are ranked by
+ * word_similarity, via its distance operator (<<->). The GiST trigram indexes (V18)
+ * return names in that order, so a search reads only as many as its page needs
+ * rather than every match. Queries need at least three characters, since shorter
+ * ones have no trigram to look up.
+ */
+public final class NameSearch {
+
+    public static final int MIN_QUERY_LENGTH = 3;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private NameSearch() {
+    }
+
+    // Trimmed, with runs of whitespace collapsed
+    public static String normalize(String query) {
+        String normalized = query == null ? "" : query.trim().replaceAll("\\s+", " ");
+        if (normalized.length() < MIN_QUERY_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Search text must be at least " + MIN_QUERY_LENGTH + " characters");
+        }
+        return normalized;
+    }
+
+    // ILIKE pattern for "contains", with the query's own wildcards escaped
+    public static String containsPattern(String normalizedQuery) {
+        String escaped = normalizedQuery
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    // The ranking decides the order, so any requested sort is dropped
+    public static Pageable page(Pageable pageable) {
+        if (pageable == null || pageable.isUnpaged()) {
+            return PageRequest.of(0, MAX_PAGE_SIZE);
+        }
+        return PageRequest.of(pageable.getPageNumber(), Math.min(pageable.getPageSize(), MAX_PAGE_SIZE));
+    }
+}
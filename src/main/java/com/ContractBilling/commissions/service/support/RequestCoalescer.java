@@ -0,0 +1,113 @@
+package com.ContractBilling.commissions.service.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution of read-only computations.
+ *
+ * Concurrent calls with the same name and key share one in-flight computation:
+ * the first caller (the leader) runs it, later callers wait for and receive the
+ * leader's result or exception. Nothing is cached once the computation finishes.
+ *
+ * Only callers without an active transaction are coalesced; the leader then runs
+ * the computation in a new read-only transaction, and followers wait without
+ * holding a connection. Callers inside a transaction run the computation
+ * directly, since their result may include their own uncommitted writes.
+ * Services should therefore declare coalesced methods with Propagation.SUPPORTS.
+ *
+ * Results are handed to several threads, so they must not be JPA entities;
+ * return DTOs or plain values.
+ *
+ * Metrics: reports.coalescing.calls{name, role=leader|follower} gives the
+ * per-name hit ratio as follower / (leader + follower);
+ * reports.coalescing.in_flight is the number of running computations.
+ */
+@Component
+@Slf4j
+public class RequestCoalescer {
+
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> leaderCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> followerCounters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public RequestCoalescer(MeterRegistry meterRegistry, PlatformTransactionManager transactionManager) {
+        this.meterRegistry = meterRegistry;
+
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        Gauge.builder("reports.coalescing.in_flight", inFlight, Map::size)
+                .description("Coalesced computations currently running")
+                .register(meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String name, Object key, Supplier<T> computation) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return computation.get();
+        }
+
+        Key inFlightKey = new Key(name, key);
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(inFlightKey, own);
+
+        if (existing != null) {
+            counter(followerCounters, name, "follower").increment();
+            return (T) await(existing);
+        }
+
+        counter(leaderCounters, name, "leader").increment();
+        try {
+            T result = readOnlyTransaction.execute(status -> computation.get());
+            own.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(inFlightKey, own);
+        }
+    }
+
+    private Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // Rethrow the leader's exception as-is so callers see e.g. ResourceNotFoundException
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private Counter counter(Map<String, Counter> counters, String name, String role) {
+        return counters.computeIfAbsent(name, n -> Counter.builder("reports.coalescing.calls")
+                .description("Coalesced calls by role; follower calls reused a running computation")
+                .tag("name", n)
+                .tag("role", role)
+                .register(meterRegistry));
+    }
+
+    private record Key(String name, Object key) {
+    }
+}
@@ -0,0 +1,62 @@
+-- Pre-aggregated commission totals by month, salesperson, client and placement type.
+-- Maintained incrementally by the application as commission plans and ledger entries are written.
+CREATE TABLE commission_cube (
+    id BIGSERIAL PRIMARY KEY,
+
+    -- Dimensions
+    month DATE NOT NULL,
+    salesperson_id BIGINT NOT NULL,
+    client_id BIGINT NOT NULL,
+    placement_type VARCHAR(20) NOT NULL,
+
+    -- Measures
+    planned_amount DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    recognized_amount DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    paid_amount DECIMAL(14, 2) NOT NULL DEFAULT 0,
+
+    -- Audit
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    -- One row per cell; target of the incremental upserts
+    CONSTRAINT uk_commission_cube_cell UNIQUE (month, salesperson_id, client_id, placement_type)
+);
+
+-- Indexes for common slices (month is covered by the unique constraint)
+CREATE INDEX idx_commission_cube_salesperson_month ON commission_cube(salesperson_id, month);
+CREATE INDEX idx_commission_cube_client_month ON commission_cube(client_id, month);
+
+COMMENT ON TABLE commission_cube IS 'Commission planned/recognized/paid per month x salesperson x client x placement type';
+COMMENT ON COLUMN commission_cube.client_id IS 'Client of the placement, 0 when the amount has no placement';
+COMMENT ON COLUMN commission_cube.placement_type IS 'Placement type, UNALLOCATED when the amount has no placement';
+
+-- Backfill from existing plans and ledger entries
+INSERT INTO commission_cube (month, salesperson_id, client_id, placement_type,
+                             planned_amount, recognized_amount, paid_amount)
+SELECT month, salesperson_id, client_id, placement_type,
+       SUM(planned), SUM(recognized), SUM(paid)
+FROM (
+    SELECT CAST(date_trunc('month', cp.created_at) AS DATE) AS month,
+           cp.salesperson_id,
+           p.client_id,
+           p.placement_type,
+           cp.planned_amount AS planned,
+           0 AS recognized,
+           0 AS paid
+    FROM commission_plan cp
+    JOIN placement p ON p.id = cp.placement_id
+
+    UNION ALL
+
+    SELECT CAST(date_trunc('month', l.created_at) AS DATE),
+           l.salesperson_id,
+           COALESCE(p.client_id, 0),
+           COALESCE(p.placement_type, 'UNALLOCATED'),
+           0,
+           CASE WHEN l.entry_type = 'COMMISSION_RECOGNIZED' THEN l.amount ELSE 0 END,
+           CASE WHEN l.entry_type = 'COMMISSION_PAID' THEN l.amount ELSE 0 END
+    FROM ledger l
+    LEFT JOIN commission_plan cp ON cp.id = l.commission_plan_id
+    LEFT JOIN placement p ON p.id = COALESCE(l.placement_id, cp.placement_id)
+    WHERE l.entry_type IN ('COMMISSION_RECOGNIZED', 'COMMISSION_PAID')
+) facts
+GROUP BY month, salesperson_id, client_id, placement_type;
@@ -0,0 +1,12 @@
+-- Per-salesperson data version used as the ETag high-watermark for reports.
+-- Incremented in the same transaction as every write that changes a salesperson's report data.
+CREATE TABLE report_version (
+    salesperson_id BIGINT PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 1,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE report_version IS 'Report data version per salesperson; SUM(version) is the global watermark';
+
+INSERT INTO report_version (salesperson_id, version)
+SELECT id, 1 FROM salesperson;
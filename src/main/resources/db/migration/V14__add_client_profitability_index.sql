@@ -0,0 +1,5 @@
+-- Covering index for the client profitability report: the per-client, per-tier
+-- aggregate reads this narrow index (index-only scan) instead of the wide placement rows.
+CREATE INDEX idx_placement_client_profitability
+    ON placement (client_id, sequence_number)
+    INCLUDE (gross_annual_margin, net_annual_margin, commission_total);
@@ -0,0 +1,29 @@
+-- Per-salesperson drawdown balance, kept in step with recognition and drawdown transitions.
+-- available = recognized - pending - approved - paid; every change is a single conditional UPDATE
+-- on this row, so concurrent requests and approvals cannot overdraw it.
+CREATE TABLE drawdown_balance (
+    salesperson_id BIGINT PRIMARY KEY,
+    recognized DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    pending DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    approved DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    paid DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_drawdown_balance_salesperson
+        FOREIGN KEY (salesperson_id) REFERENCES salesperson(id) ON DELETE CASCADE,
+    CONSTRAINT ck_drawdown_balance_non_negative
+        CHECK (pending >= 0 AND approved >= 0 AND paid >= 0)
+);
+
+COMMENT ON TABLE drawdown_balance IS 'Recognized commission and drawdown reservations per salesperson';
+
+INSERT INTO drawdown_balance (salesperson_id, recognized, pending, approved, paid)
+SELECT s.id,
+       COALESCE((SELECT SUM(cp.recognized_amount) FROM commission_plan cp WHERE cp.salesperson_id = s.id), 0),
+       COALESCE((SELECT SUM(dr.requested_amount) FROM drawdown_request dr
+                 WHERE dr.salesperson_id = s.id AND dr.status = 'PENDING'), 0),
+       COALESCE((SELECT SUM(dr.approved_amount) FROM drawdown_request dr
+                 WHERE dr.salesperson_id = s.id AND dr.status = 'APPROVED'), 0),
+       COALESCE((SELECT SUM(dr.approved_amount) FROM drawdown_request dr
+                 WHERE dr.salesperson_id = s.id AND dr.status = 'PAID'), 0)
+FROM salesperson s;
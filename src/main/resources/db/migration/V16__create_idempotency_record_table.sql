@@ -0,0 +1,15 @@
+-- Outcomes of POST requests sent with an Idempotency-Key header.
+-- The row is inserted before the action runs and completed in the same transaction, so a
+-- concurrent retry waits on the key and then replays the stored response instead of re-running it.
+CREATE TABLE idempotency_record (
+    idempotency_key VARCHAR(100) PRIMARY KEY,
+    operation VARCHAR(200) NOT NULL,
+    status_code INTEGER,
+    response_body TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP
+);
+
+CREATE INDEX idx_idempotency_record_created_at ON idempotency_record(created_at);
+
+COMMENT ON TABLE idempotency_record IS 'Stored responses for retried POST requests';
@@ -0,0 +1,15 @@
+-- Revoked JWTs, shared by all nodes. A row with a jti revokes that token (logout);
+-- a row without one revokes every token issued to the user before revoked_at (access change).
+-- Nodes poll this table into memory, so requests never read it directly.
+CREATE TABLE revoked_token (
+    id BIGSERIAL PRIMARY KEY,
+    jti VARCHAR(36) UNIQUE,
+    username VARCHAR(100) NOT NULL,
+    revoked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_revoked_token_revoked_at ON revoked_token(revoked_at);
+CREATE INDEX idx_revoked_token_expires_at ON revoked_token(expires_at);
+
+COMMENT ON TABLE revoked_token IS 'Logged-out tokens and user-wide token cut-offs, kept until the tokens expire';
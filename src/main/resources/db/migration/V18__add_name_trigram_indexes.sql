@@ -0,0 +1,17 @@
+-- Trigram indexes for name search (GET /api/search and the per-type /search endpoints).
+-- The LOWER(name) btree indexes from V5 only serve equality and prefix matches; pg_trgm's
+-- GiST operator class also serves ILIKE '%text%', the word-similarity operator (<%) and its
+-- distance operator (<<->) in ORDER BY, so the best matches come out of the index already
+-- ranked and a search stops once its page is full.
+-- Built CONCURRENTLY so writes to these tables continue while the indexes build
+-- (which is why this script runs outside a transaction, see the .conf file next to it,
+-- and why Flyway's lock must not hold a transaction open, see application.properties).
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_salesperson_name_trgm ON salesperson USING gist (name gist_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_client_name_trgm ON client USING gist (name gist_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_contractor_name_trgm ON contractor USING gist (name gist_trgm_ops);
+
+COMMENT ON INDEX idx_salesperson_name_trgm IS 'Ranked substring and fuzzy search on salesperson name';
+COMMENT ON INDEX idx_client_name_trgm IS 'Ranked substring and fuzzy search on client name';
+COMMENT ON INDEX idx_contractor_name_trgm IS 'Ranked substring and fuzzy search on contractor name';
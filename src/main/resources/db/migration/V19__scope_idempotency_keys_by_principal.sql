@@ -0,0 +1,8 @@
+-- Idempotency keys belong to the user who sent them, so two users can't collide on a key
+-- or replay each other's responses. Rows stored before this have no owner and are never
+-- replayed again; they age out with the usual retention purge.
+ALTER TABLE idempotency_record ADD COLUMN principal VARCHAR(100) NOT NULL DEFAULT '';
+ALTER TABLE idempotency_record ALTER COLUMN principal DROP DEFAULT;
+
+ALTER TABLE idempotency_record DROP CONSTRAINT idempotency_record_pkey;
+ALTER TABLE idempotency_record ADD PRIMARY KEY (principal, idempotency_key);
@@ -2,6 +2,9 @@ package com.ContractBilling.commissions;
 
 import com.ContractBilling.commissions.dto.LoginRequest;
 import com.ContractBilling.commissions.dto.RegisterRequest;
+import com.ContractBilling.commissions.security.JwtPrincipal;
+import com.ContractBilling.commissions.security.JwtTokenProvider;
+import com.ContractBilling.commissions.service.AuthService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,9 +13,20 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
 
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -26,6 +40,12 @@ public class AuthIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private AuthService authService;
+
     @Test
     public void testUserRegistration() throws Exception {
         RegisterRequest request = new RegisterRequest();
@@ -65,9 +85,7 @@ public class AuthIntegrationTest {
         loginRequest.setUsername("loginuser");
         loginRequest.setPassword("password123");
 
-        mockMvc.perform(post("/api/auth/login")
-                .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(loginRequest)))
+        login(loginRequest)
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.data.token").exists())
@@ -80,9 +98,93 @@ public class AuthIntegrationTest {
         request.setUsername("nonexistent");
         request.setPassword("wrongpassword");
 
-        mockMvc.perform(post("/api/auth/login")
+        login(request)
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void testTokenCarriesRolesAndIsRevokedWhenUserDisabled() throws Exception {
+        RegisterRequest request = new RegisterRequest();
+        request.setUsername("tokenuser");
+        request.setEmail("token@example.com");
+        request.setPassword("password123");
+        request.setFirstName("Token");
+        request.setLastName("User");
+
+        String body = mockMvc.perform(post("/api/auth/register")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
-                .andExpect(status().isUnauthorized());
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String token = objectMapper.readTree(body).path("data").path("token").asText();
+
+        JwtPrincipal principal = tokenProvider.parseToken(token).orElseThrow();
+        assertEquals("tokenuser", principal.username());
+        assertEquals(List.of("ROLE_USER"), principal.roles());
+        assertTrue(principal.enabled());
+
+        mockMvc.perform(get("/api/reports/health").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        // Ordinary users can't administer accounts
+        mockMvc.perform(put("/api/users/tokenuser/enabled").param("enabled", "false")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+
+        authService.setEnabled("tokenuser", false);
+
+        mockMvc.perform(get("/api/reports/health").header("Authorization", "Bearer " + token))
+                .andExpect(status().is4xxClientError());
+    }
+
+    @Test
+    public void testLogoutRevokesOnlyThatToken() throws Exception {
+        RegisterRequest request = new RegisterRequest();
+        request.setUsername("logoutuser");
+        request.setEmail("logout@example.com");
+        request.setPassword("password123");
+        request.setFirstName("Logout");
+        request.setLastName("User");
+
+        String body = mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String token = objectMapper.readTree(body).path("data").path("token").asText();
+
+        LoginRequest loginRequest = new LoginRequest();
+        loginRequest.setUsername("logoutuser");
+        loginRequest.setPassword("password123");
+        body = login(loginRequest)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String otherToken = objectMapper.readTree(body).path("data").path("token").asText();
+
+        assertNotEquals(tokenProvider.parseToken(token).orElseThrow().tokenId(),
+                tokenProvider.parseToken(otherToken).orElseThrow().tokenId());
+
+        mockMvc.perform(post("/api/auth/logout").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/reports/health").header("Authorization", "Bearer " + token))
+                .andExpect(status().is4xxClientError());
+
+        // A repeated logout, e.g. one that reached another node first, is accepted rather than failing
+        authService.logout(tokenProvider.parseToken(token).orElseThrow());
+
+        // The same user's other session is unaffected
+        mockMvc.perform(get("/api/reports/health").header("Authorization", "Bearer " + otherToken))
+                .andExpect(status().isOk());
+    }
+
+    // Login completes asynchronously: the request thread is released while the password is checked
+    private ResultActions login(LoginRequest request) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
     }
 }
@@ -0,0 +1,211 @@
+package com.ContractBilling.commissions;
+
+import com.ContractBilling.commissions.config.CacheConfig;
+import com.ContractBilling.commissions.dto.CreatePlacementRequest;
+import com.ContractBilling.commissions.dto.PlacementResponse;
+import com.ContractBilling.commissions.dto.UpdateCommissionPlanRequest;
+import com.ContractBilling.commissions.entity.Client;
+import com.ContractBilling.commissions.entity.Contractor;
+import com.ContractBilling.commissions.entity.PlacementType;
+import com.ContractBilling.commissions.entity.Salesperson;
+import com.ContractBilling.commissions.repository.ClientRepository;
+import com.ContractBilling.commissions.repository.ContractorRepository;
+import com.ContractBilling.commissions.repository.DrawdownBalanceRepository;
+import com.ContractBilling.commissions.repository.SalespersonRepository;
+import com.ContractBilling.commissions.service.CommissionPlanService;
+import com.ContractBilling.commissions.service.DrawdownEngine;
+import com.ContractBilling.commissions.service.PlacementService;
+import com.ContractBilling.commissions.service.ReportingService;
+import com.ContractBilling.commissions.support.QueryBudget;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The cached salesperson dashboard and its eviction on writes.
+ *
+ * Not @Transactional: eviction happens after commit, so every write here commits
+ * and the test data is removed explicitly afterwards.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class DashboardCacheIntegrationTest {
+
+    @Autowired
+    private ReportingService reportingService;
+
+    @Autowired
+    private PlacementService placementService;
+
+    @Autowired
+    private CommissionPlanService commissionPlanService;
+
+    @Autowired
+    private DrawdownEngine drawdownEngine;
+
+    @Autowired
+    private SalespersonRepository salespersonRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private ContractorRepository contractorRepository;
+
+    @Autowired
+    private DrawdownBalanceRepository balanceRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private QueryBudget queryBudget;
+
+    private Salesperson salesperson;
+    private Client client;
+    private Contractor contractor;
+
+    @BeforeEach
+    public void setUp() {
+        String suffix = UUID.randomUUID().toString();
+
+        salesperson = new Salesperson();
+        salesperson.setName("Dashboard Cache User");
+        salesperson.setEmail("dashboard-" + suffix + "@example.com");
+        salespersonRepository.save(salesperson);
+
+        client = new Client();
+        client.setName("Dashboard Cache Client");
+        client.setEmail("client-" + suffix + "@example.com");
+        clientRepository.save(client);
+
+        contractor = new Contractor();
+        contractor.setName("Dashboard Cache Contractor");
+        contractor.setEmail("contractor-" + suffix + "@example.com");
+        contractorRepository.save(contractor);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Long id = salesperson.getId();
+        jdbcTemplate.update("DELETE FROM ledger WHERE salesperson_id = ?", id);
+        jdbcTemplate.update("DELETE FROM recognition_schedule WHERE commission_plan_id IN " +
+                "(SELECT id FROM commission_plan WHERE salesperson_id = ?)", id);
+        jdbcTemplate.update("DELETE FROM commission_plan WHERE salesperson_id = ?", id);
+        jdbcTemplate.update("DELETE FROM placement WHERE salesperson_id = ?", id);
+        jdbcTemplate.update("DELETE FROM drawdown_request WHERE salesperson_id = ?", id);
+        jdbcTemplate.update("DELETE FROM drawdown_balance WHERE salesperson_id = ?", id);
+        jdbcTemplate.update("DELETE FROM commission_cube WHERE salesperson_id = ?", id);
+        jdbcTemplate.update("DELETE FROM report_version WHERE salesperson_id = ?", id);
+        jdbcTemplate.update("DELETE FROM salesperson WHERE id = ?", id);
+        jdbcTemplate.update("DELETE FROM client WHERE id = ?", client.getId());
+        jdbcTemplate.update("DELETE FROM contractor WHERE id = ?", contractor.getId());
+
+        // Rows deleted behind Hibernate's back would otherwise stay in the entity cache
+        entityManagerFactory.getCache().evict(Salesperson.class, id);
+        entityManagerFactory.getCache().evict(Client.class, client.getId());
+        entityManagerFactory.getCache().evict(Contractor.class, contractor.getId());
+        dashboards().evict(id);
+    }
+
+    @Test
+    public void testCachedDashboardIsServedWithoutQueries() {
+        Long id = salesperson.getId();
+
+        Map<String, Object> first = queryBudget.assertAtMost(1, "dashboard", () -> reportingService.getSalespersonDashboard(id));
+        Map<String, Object> second = queryBudget.assertAtMost(0, "cached dashboard",
+                () -> reportingService.getSalespersonDashboard(id));
+
+        assertSame(first, second);
+        assertNotNull(dashboards().get(id));
+    }
+
+    @Test
+    public void testPlacementWriteEvictsAfterCommit() {
+        Long id = salesperson.getId();
+        assertEquals(0, totalPlanned(reportingService.getSalespersonDashboard(id)).signum());
+
+        // Still cached while the writing transaction is open
+        transactionTemplate.executeWithoutResult(status -> {
+            placementService.create(placementRequest());
+            assertNotNull(dashboards().get(id));
+        });
+
+        assertNull(dashboards().get(id));
+        assertTrue(totalPlanned(reportingService.getSalespersonDashboard(id)).signum() > 0);
+    }
+
+    @Test
+    public void testCommissionPlanWriteEvictsAfterCommit() {
+        Long id = salesperson.getId();
+        PlacementResponse placement = placementService.create(placementRequest());
+        Long planId = commissionPlanService.findByPlacement(placement.getId()).getId();
+        reportingService.getSalespersonDashboard(id);
+
+        UpdateCommissionPlanRequest request = new UpdateCommissionPlanRequest();
+        request.setNotes("Reviewed");
+        commissionPlanService.update(planId, request);
+
+        assertNull(dashboards().get(id));
+    }
+
+    @Test
+    public void testDrawdownWriteEvictsAfterCommit() {
+        Long id = salesperson.getId();
+        transactionTemplate.executeWithoutResult(status ->
+                balanceRepository.addRecognized(id, new BigDecimal("500.00")));
+
+        Map<String, Object> before = reportingService.getSalespersonDashboard(id);
+        assertEquals(0, new BigDecimal("500.00").compareTo((BigDecimal) before.get("availableForDrawdown")));
+
+        drawdownEngine.requestDrawdown(salesperson, new BigDecimal("200.00"));
+
+        assertNull(dashboards().get(id));
+        Map<String, Object> after = reportingService.getSalespersonDashboard(id);
+        assertEquals(0, new BigDecimal("300.00").compareTo((BigDecimal) after.get("availableForDrawdown")));
+    }
+
+    private CreatePlacementRequest placementRequest() {
+        CreatePlacementRequest request = new CreatePlacementRequest();
+        request.setSalespersonId(salesperson.getId());
+        request.setClientId(client.getId());
+        request.setContractorId(contractor.getId());
+        request.setPlacementType(PlacementType.PERMANENT);
+        request.setStartDate(LocalDate.now());
+        request.setAnnualSalary(new BigDecimal("60000"));
+        request.setPlacementFee(new BigDecimal("5000"));
+        return request;
+    }
+
+    private Cache dashboards() {
+        return cacheManager.getCache(CacheConfig.SALESPERSON_DASHBOARD);
+    }
+
+    private static BigDecimal totalPlanned(Map<String, Object> dashboard) {
+        return (BigDecimal) ((Map<?, ?>) dashboard.get("financialSummary")).get("totalPlanned");
+    }
+}
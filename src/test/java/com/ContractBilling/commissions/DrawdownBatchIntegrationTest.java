@@ -0,0 +1,166 @@
+package com.ContractBilling.commissions;
+
+import com.ContractBilling.commissions.dto.DrawdownBatchOutcome;
+import com.ContractBilling.commissions.dto.DrawdownBatchResponse;
+import com.ContractBilling.commissions.entity.PolicySettings;
+import com.ContractBilling.commissions.entity.Salesperson;
+import com.ContractBilling.commissions.exception.DrawdownPolicyException;
+import com.ContractBilling.commissions.repository.DrawdownBalanceRepository;
+import com.ContractBilling.commissions.repository.SalespersonRepository;
+import com.ContractBilling.commissions.service.DrawdownEngine;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Batch drawdown approval and payment, with an outcome per requested id.
+ *
+ * Not @Transactional: every engine call commits on its own thread, like real requests,
+ * so the test data is removed explicitly afterwards.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class DrawdownBatchIntegrationTest {
+
+    private static final BigDecimal RECOGNIZED = new BigDecimal("1000.00");
+
+    @Autowired
+    private DrawdownEngine engine;
+
+    @Autowired
+    private SalespersonRepository salespersonRepository;
+
+    @Autowired
+    private DrawdownBalanceRepository balanceRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Salesperson salesperson;
+
+    // Original drawdown policy, if a test changed it
+    private Map<String, Object> policyOverride;
+
+    @BeforeEach
+    public void setUp() {
+        salesperson = new Salesperson();
+        salesperson.setName("Drawdown Batch User");
+        salesperson.setEmail("drawdown-" + UUID.randomUUID() + "@example.com");
+        salespersonRepository.save(salesperson);
+
+        transactionTemplate.executeWithoutResult(status ->
+                balanceRepository.addRecognized(salesperson.getId(), RECOGNIZED));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Long id = salesperson.getId();
+        jdbcTemplate.update("DELETE FROM ledger WHERE salesperson_id = ?", id);
+        jdbcTemplate.update("DELETE FROM drawdown_request WHERE salesperson_id = ?", id);
+        jdbcTemplate.update("DELETE FROM drawdown_balance WHERE salesperson_id = ?", id);
+        jdbcTemplate.update("DELETE FROM commission_cube WHERE salesperson_id = ?", id);
+        jdbcTemplate.update("DELETE FROM report_version WHERE salesperson_id = ?", id);
+        jdbcTemplate.update("DELETE FROM salesperson WHERE id = ?", id);
+        // Deleted behind Hibernate's back, so drop it from the second-level cache too
+        entityManagerFactory.getCache().evict(Salesperson.class, id);
+        if (policyOverride != null) {
+            jdbcTemplate.update("UPDATE policy_settings SET drawdown_min_month = ?, drawdown_max_per_quarter = ?",
+                    policyOverride.get("drawdown_min_month"), policyOverride.get("drawdown_max_per_quarter"));
+            entityManagerFactory.getCache().evict(PolicySettings.class);
+        }
+    }
+
+    @Test
+    public void testBatchApproveAndPayReportOutcomePerId() {
+        Long first = engine.requestDrawdown(salesperson, new BigDecimal("100.00")).getId();
+        Long second = engine.requestDrawdown(salesperson, new BigDecimal("100.00")).getId();
+        Long third = engine.requestDrawdown(salesperson, new BigDecimal("100.00")).getId();
+        Long missing = third + 1_000_000;
+
+        // No minimum month, two drawdowns per quarter (restored in tearDown)
+        policyOverride = jdbcTemplate.queryForMap(
+                "SELECT drawdown_min_month, drawdown_max_per_quarter FROM policy_settings ORDER BY id LIMIT 1");
+        jdbcTemplate.update("UPDATE policy_settings SET drawdown_min_month = 0, drawdown_max_per_quarter = 2");
+        entityManagerFactory.getCache().evict(PolicySettings.class);
+
+        DrawdownBatchResponse approved = engine.approveDrawdowns(
+                List.of(first, second, third, first, missing), "payroll");
+        assertEquals(4, approved.requested());
+        assertEquals(2, approved.succeeded());
+        assertEquals(DrawdownBatchOutcome.APPROVED, approved.items().get(0).outcome());
+        assertEquals(DrawdownBatchOutcome.APPROVED, approved.items().get(1).outcome());
+        assertEquals(DrawdownBatchOutcome.QUARTER_LIMIT_REACHED, approved.items().get(2).outcome());
+        assertEquals(DrawdownBatchOutcome.NOT_FOUND, approved.items().get(3).outcome());
+
+        DrawdownBatchResponse again = engine.approveDrawdowns(List.of(first), "payroll");
+        assertEquals(0, again.succeeded());
+        assertEquals(DrawdownBatchOutcome.INVALID_STATE, again.items().get(0).outcome());
+
+        DrawdownBatchResponse paid = engine.processPayments(List.of(first, second, third), "payroll");
+        assertEquals(2, paid.succeeded());
+        assertEquals(DrawdownBatchOutcome.INVALID_STATE, paid.items().get(2).outcome());
+        assertEquals("PENDING", paid.items().get(2).status());
+
+        // The third request is still reserved; the other two are paid
+        assertEquals(0, new BigDecimal("700.00").compareTo(engine.getAvailableBalance(salesperson)));
+
+        Integer ledgerEntries = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM ledger WHERE salesperson_id = ? AND reference_type = 'DRAWDOWN' " +
+                "AND entry_type IN ('ADJUSTMENT', 'COMMISSION_PAID')",
+                Integer.class, salesperson.getId());
+        assertEquals(4, ledgerEntries);
+    }
+
+    @Test
+    public void testSingleApprovalRefusesWhatBatchRefuses() {
+        Long first = engine.requestDrawdown(salesperson, new BigDecimal("100.00")).getId();
+        Long second = engine.requestDrawdown(salesperson, new BigDecimal("100.00")).getId();
+
+        // A minimum recognized month this salesperson hasn't reached (restored in tearDown)
+        policyOverride = jdbcTemplate.queryForMap(
+                "SELECT drawdown_min_month, drawdown_max_per_quarter FROM policy_settings ORDER BY id LIMIT 1");
+        jdbcTemplate.update("UPDATE policy_settings SET drawdown_min_month = 1, drawdown_max_per_quarter = 1");
+        entityManagerFactory.getCache().evict(PolicySettings.class);
+
+        assertEquals(DrawdownBatchOutcome.NOT_ELIGIBLE,
+                engine.approveDrawdowns(List.of(first), "payroll").items().get(0).outcome());
+        DrawdownPolicyException notEligible = assertThrows(DrawdownPolicyException.class,
+                () -> engine.approveDrawdown(first, "payroll"));
+        assertEquals(DrawdownBatchOutcome.NOT_ELIGIBLE, notEligible.getOutcome());
+
+        // No minimum month, one drawdown per quarter, and the first approval uses it
+        jdbcTemplate.update("UPDATE policy_settings SET drawdown_min_month = 0, drawdown_max_per_quarter = 1");
+        entityManagerFactory.getCache().evict(PolicySettings.class);
+        engine.approveDrawdown(first, "payroll");
+
+        assertEquals(DrawdownBatchOutcome.QUARTER_LIMIT_REACHED,
+                engine.approveDrawdowns(List.of(second), "payroll").items().get(0).outcome());
+        DrawdownPolicyException overLimit = assertThrows(DrawdownPolicyException.class,
+                () -> engine.approveDrawdown(second, "payroll"));
+        assertEquals(DrawdownBatchOutcome.QUARTER_LIMIT_REACHED, overLimit.getOutcome());
+
+        // The refused request keeps its reservation and status
+        assertEquals("PENDING", jdbcTemplate.queryForObject(
+                "SELECT status FROM drawdown_request WHERE id = ?", String.class, second));
+        assertEquals(0, new BigDecimal("800.00").compareTo(engine.getAvailableBalance(salesperson)));
+    }
+}
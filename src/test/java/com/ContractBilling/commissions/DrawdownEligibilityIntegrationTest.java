@@ -0,0 +1,149 @@
+package com.ContractBilling.commissions;
+
+import com.ContractBilling.commissions.config.CacheConfig;
+import com.ContractBilling.commissions.dto.DrawdownEligibility;
+import com.ContractBilling.commissions.entity.PolicySettings;
+import com.ContractBilling.commissions.entity.Salesperson;
+import com.ContractBilling.commissions.repository.DrawdownBalanceRepository;
+import com.ContractBilling.commissions.repository.SalespersonRepository;
+import com.ContractBilling.commissions.service.DrawdownEligibilityService;
+import com.ContractBilling.commissions.service.DrawdownEngine;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drawdown eligibility and its cache.
+ *
+ * Not @Transactional: every engine call commits on its own thread, like real requests,
+ * so the test data is removed explicitly afterwards.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class DrawdownEligibilityIntegrationTest {
+
+    private static final BigDecimal RECOGNIZED = new BigDecimal("1000.00");
+
+    @Autowired
+    private DrawdownEngine engine;
+
+    @Autowired
+    private SalespersonRepository salespersonRepository;
+
+    @Autowired
+    private DrawdownBalanceRepository balanceRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DrawdownEligibilityService eligibilityService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Salesperson salesperson;
+
+    // Original drawdown policy, if a test changed it
+    private Map<String, Object> policyOverride;
+
+    @BeforeEach
+    public void setUp() {
+        salesperson = new Salesperson();
+        salesperson.setName("Drawdown Eligibility User");
+        salesperson.setEmail("drawdown-" + UUID.randomUUID() + "@example.com");
+        salespersonRepository.save(salesperson);
+
+        transactionTemplate.executeWithoutResult(status ->
+                balanceRepository.addRecognized(salesperson.getId(), RECOGNIZED));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Long id = salesperson.getId();
+        jdbcTemplate.update("DELETE FROM ledger WHERE salesperson_id = ?", id);
+        jdbcTemplate.update("DELETE FROM drawdown_request WHERE salesperson_id = ?", id);
+        jdbcTemplate.update("DELETE FROM drawdown_balance WHERE salesperson_id = ?", id);
+        jdbcTemplate.update("DELETE FROM commission_cube WHERE salesperson_id = ?", id);
+        jdbcTemplate.update("DELETE FROM report_version WHERE salesperson_id = ?", id);
+        jdbcTemplate.update("DELETE FROM salesperson WHERE id = ?", id);
+        // Deleted behind Hibernate's back, so drop it from the second-level cache too
+        entityManagerFactory.getCache().evict(Salesperson.class, id);
+        eligibilityCache().evict(id);
+        if (policyOverride != null) {
+            jdbcTemplate.update("UPDATE policy_settings SET drawdown_min_month = ?, drawdown_max_per_quarter = ?",
+                    policyOverride.get("drawdown_min_month"), policyOverride.get("drawdown_max_per_quarter"));
+            entityManagerFactory.getCache().evict(PolicySettings.class);
+        }
+    }
+
+    @Test
+    public void testEligibilityIsCachedUntilDrawdownsChange() {
+        policyOverride = jdbcTemplate.queryForMap(
+                "SELECT drawdown_min_month, drawdown_max_per_quarter FROM policy_settings ORDER BY id LIMIT 1");
+        jdbcTemplate.update("UPDATE policy_settings SET drawdown_min_month = 0, drawdown_max_per_quarter = 1");
+        entityManagerFactory.getCache().evict(PolicySettings.class);
+
+        List<DrawdownEligibility> team = eligibilityService.evaluate(List.of(salesperson.getId(), -1L));
+        assertEquals(1, team.size());
+        assertTrue(team.get(0).eligible());
+        assertEquals(0, RECOGNIZED.compareTo(team.get(0).availableBalance()));
+
+        // A committed approval uses the quarter's only slot and evicts the cached decision
+        Long requestId = engine.requestDrawdown(salesperson, new BigDecimal("100.00")).getId();
+        engine.approveDrawdown(requestId, "payroll");
+
+        DrawdownEligibility after = eligibilityService.evaluate(salesperson.getId());
+        assertFalse(after.eligible());
+        assertEquals(DrawdownEligibility.QUARTER_LIMIT_REACHED, after.reason());
+        assertEquals(1, after.drawdownsThisQuarter());
+        assertEquals(0, new BigDecimal("900.00").compareTo(after.availableBalance()));
+    }
+
+    @Test
+    public void testEvaluationInsideAWriteTransactionIsNotCached() {
+        policyOverride = jdbcTemplate.queryForMap(
+                "SELECT drawdown_min_month, drawdown_max_per_quarter FROM policy_settings ORDER BY id LIMIT 1");
+        jdbcTemplate.update("UPDATE policy_settings SET drawdown_min_month = 0, drawdown_max_per_quarter = 5");
+        entityManagerFactory.getCache().evict(PolicySettings.class);
+
+        // The writer sees its own reservation before it commits; that view must not reach other readers
+        transactionTemplate.executeWithoutResult(status -> {
+            engine.requestDrawdown(salesperson, new BigDecimal("100.00"));
+            DrawdownEligibility inside = eligibilityService.evaluate(salesperson.getId());
+            assertEquals(0, new BigDecimal("900.00").compareTo(inside.availableBalance()));
+            status.setRollbackOnly();
+        });
+        assertNull(eligibilityCache().get(salesperson.getId()));
+
+        // A read-only evaluation of committed data is cached
+        DrawdownEligibility committed = eligibilityService.evaluate(salesperson.getId());
+        assertEquals(0, RECOGNIZED.compareTo(committed.availableBalance()));
+        assertNotNull(eligibilityCache().get(salesperson.getId()));
+    }
+
+    private Cache eligibilityCache() {
+        return cacheManager.getCache(CacheConfig.DRAWDOWN_ELIGIBILITY);
+    }
+}
@@ -0,0 +1,110 @@
+package com.ContractBilling.commissions;
+
+import com.ContractBilling.commissions.dto.DrawdownBatchResponse;
+import com.ContractBilling.commissions.entity.DrawdownRequest;
+import com.ContractBilling.commissions.entity.PolicySettings;
+import com.ContractBilling.commissions.entity.Salesperson;
+import com.ContractBilling.commissions.repository.DrawdownBalanceRepository;
+import com.ContractBilling.commissions.repository.SalespersonRepository;
+import com.ContractBilling.commissions.service.DrawdownEngine;
+import com.ContractBilling.commissions.support.QueryBudget;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class DrawdownIntegrationTest {
+
+    @Autowired
+    private DrawdownEngine engine;
+
+    @Autowired
+    private SalespersonRepository salespersonRepository;
+
+    @Autowired
+    private DrawdownBalanceRepository balanceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private QueryBudget queryBudget;
+
+    private Salesperson salesperson;
+
+    @BeforeEach
+    public void setUp() {
+        salesperson = new Salesperson();
+        salesperson.setName("Drawdown Test User");
+        salesperson.setEmail("drawdown@example.com");
+        salespersonRepository.save(salesperson);
+
+        balanceRepository.addRecognized(salesperson.getId(), new BigDecimal("1000.00"));
+
+        // No minimum month and room for every request this quarter (rolled back with the test)
+        jdbcTemplate.update("UPDATE policy_settings SET drawdown_min_month = 0, drawdown_max_per_quarter = 10");
+        entityManagerFactory.getCache().evict(PolicySettings.class);
+    }
+
+    @AfterTransaction
+    public void evictRolledBackPolicy() {
+        // The policy loaded during the test holds the rolled-back values
+        entityManagerFactory.getCache().evict(PolicySettings.class);
+    }
+
+    @Test
+    public void testSingleDrawdownStatementBudgets() {
+        // Balance reservation and the request insert
+        DrawdownRequest request = queryBudget.assertAtMost(2, "request drawdown",
+                () -> engine.requestDrawdown(salesperson, new BigDecimal("100.00")));
+        Long id = request.getId();
+
+        // Policy, row lock and policy check as in batch approval, transition, request reload,
+        // balance move, then the ledger entry with its salesperson lookup
+        DrawdownRequest approved = queryBudget.assertAtMost(8, "approve drawdown",
+                () -> engine.approveDrawdown(id, "payroll"));
+        assertEquals("APPROVED", approved.getStatus());
+
+        // As approval, plus the cube upsert for the paid ledger entry
+        DrawdownRequest paid = queryBudget.assertAtMost(6, "pay drawdown",
+                () -> engine.processPayment(id, "payroll"));
+        assertEquals("PAID", paid.getStatus());
+    }
+
+    @Test
+    public void testBatchDrawdownStatementBudgets() {
+        List<Long> ids = List.of(
+                engine.requestDrawdown(salesperson, new BigDecimal("100.00")).getId(),
+                engine.requestDrawdown(salesperson, new BigDecimal("100.00")).getId(),
+                engine.requestDrawdown(salesperson, new BigDecimal("100.00")).getId());
+
+        // Policy, row locks, candidates, transition, one balance update for the one salesperson,
+        // the ledger insert and the final statuses: the same for any number of ids
+        DrawdownBatchResponse approved = queryBudget.assertAtMost(7, "approve drawdown batch",
+                () -> engine.approveDrawdowns(ids, "payroll"));
+        assertEquals(3, approved.succeeded());
+
+        // Transition, balance, ledger insert and statuses, plus one cube upsert per paid entry
+        DrawdownBatchResponse paid = queryBudget.assertAtMost(4 + ids.size(), "pay drawdown batch",
+                () -> engine.processPayments(ids, "payroll"));
+        assertEquals(3, paid.succeeded());
+
+        assertEquals(0, new BigDecimal("700.00").compareTo(engine.getAvailableBalance(salesperson)));
+    }
+}
@@ -0,0 +1,171 @@
+package com.ContractBilling.commissions;
+
+import com.ContractBilling.commissions.entity.DrawdownRequest;
+import com.ContractBilling.commissions.entity.PolicySettings;
+import com.ContractBilling.commissions.entity.Salesperson;
+import com.ContractBilling.commissions.exception.InsufficientBalanceException;
+import com.ContractBilling.commissions.exception.InvalidStateTransitionException;
+import com.ContractBilling.commissions.repository.DrawdownBalanceRepository;
+import com.ContractBilling.commissions.repository.SalespersonRepository;
+import com.ContractBilling.commissions.service.DrawdownEngine;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drawdown reservations and status transitions under concurrent load.
+ *
+ * Not @Transactional: every engine call commits on its own thread, like real requests,
+ * so the test data is removed explicitly afterwards.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class DrawdownReservationConcurrencyTest {
+
+    private static final BigDecimal RECOGNIZED = new BigDecimal("1000.00");
+
+    @Autowired
+    private DrawdownEngine engine;
+
+    @Autowired
+    private SalespersonRepository salespersonRepository;
+
+    @Autowired
+    private DrawdownBalanceRepository balanceRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Salesperson salesperson;
+
+    // Original drawdown policy, restored in tearDown
+    private Map<String, Object> policyOverride;
+
+    @BeforeEach
+    public void setUp() {
+        salesperson = new Salesperson();
+        salesperson.setName("Drawdown Stress User");
+        salesperson.setEmail("drawdown-" + UUID.randomUUID() + "@example.com");
+        salespersonRepository.save(salesperson);
+
+        transactionTemplate.executeWithoutResult(status ->
+                balanceRepository.addRecognized(salesperson.getId(), RECOGNIZED));
+
+        // No minimum month and room for every approval this quarter
+        policyOverride = jdbcTemplate.queryForMap(
+                "SELECT drawdown_min_month, drawdown_max_per_quarter FROM policy_settings ORDER BY id LIMIT 1");
+        jdbcTemplate.update("UPDATE policy_settings SET drawdown_min_month = 0, drawdown_max_per_quarter = 10");
+        entityManagerFactory.getCache().evict(PolicySettings.class);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Long id = salesperson.getId();
+        jdbcTemplate.update("DELETE FROM ledger WHERE salesperson_id = ?", id);
+        jdbcTemplate.update("DELETE FROM drawdown_request WHERE salesperson_id = ?", id);
+        jdbcTemplate.update("DELETE FROM drawdown_balance WHERE salesperson_id = ?", id);
+        jdbcTemplate.update("DELETE FROM commission_cube WHERE salesperson_id = ?", id);
+        jdbcTemplate.update("DELETE FROM report_version WHERE salesperson_id = ?", id);
+        jdbcTemplate.update("DELETE FROM salesperson WHERE id = ?", id);
+        // Deleted behind Hibernate's back, so drop it from the second-level cache too
+        entityManagerFactory.getCache().evict(Salesperson.class, id);
+        jdbcTemplate.update("UPDATE policy_settings SET drawdown_min_month = ?, drawdown_max_per_quarter = ?",
+                policyOverride.get("drawdown_min_month"), policyOverride.get("drawdown_max_per_quarter"));
+        entityManagerFactory.getCache().evict(PolicySettings.class);
+    }
+
+    @Test
+    public void testConcurrentRequestsCannotOverdraw() throws Exception {
+        int threads = 16;
+        int requests = 48;
+        BigDecimal amount = new BigDecimal("30.00");
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        for (int i = 0; i < requests; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                try {
+                    engine.requestDrawdown(salesperson, amount);
+                    return true;
+                } catch (InsufficientBalanceException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int granted = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(30, TimeUnit.SECONDS)) {
+                granted++;
+            }
+        }
+        pool.shutdown();
+
+        // 1000 / 30 = 33 requests fit; the rest must be refused, whatever the interleaving
+        assertEquals(33, granted);
+        assertEquals(0, new BigDecimal("10.00").compareTo(engine.getAvailableBalance(salesperson)));
+
+        BigDecimal reservedInRequests = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(requested_amount), 0) FROM drawdown_request " +
+                "WHERE salesperson_id = ? AND status = 'PENDING'", BigDecimal.class, salesperson.getId());
+        assertEquals(0, new BigDecimal("990.00").compareTo(reservedInRequests));
+    }
+
+    @Test
+    public void testRejectReleasesAndPaymentSettles() {
+        DrawdownRequest first = engine.requestDrawdown(salesperson, new BigDecimal("300.00"));
+        DrawdownRequest second = engine.requestDrawdown(salesperson, new BigDecimal("300.00"));
+        engine.requestDrawdown(salesperson, new BigDecimal("300.00"));
+
+        assertThrows(InsufficientBalanceException.class,
+                () -> engine.requestDrawdown(salesperson, new BigDecimal("200.00")));
+
+        engine.rejectDrawdown(first.getId(), "Duplicate", "payroll");
+        assertEquals(0, new BigDecimal("400.00").compareTo(engine.getAvailableBalance(salesperson)));
+
+        engine.approveDrawdown(second.getId(), "payroll");
+        engine.processPayment(second.getId(), "payroll");
+        assertEquals(0, new BigDecimal("400.00").compareTo(engine.getAvailableBalance(salesperson)));
+
+        // The payout is on the ledger against the drawdown, not a commission plan
+        Integer paidEntries = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM ledger WHERE salesperson_id = ? AND entry_type = 'COMMISSION_PAID' " +
+                "AND reference_type = 'DRAWDOWN' AND reference_id = ? AND commission_plan_id IS NULL",
+                Integer.class, salesperson.getId(), second.getId());
+        assertEquals(1, paidEntries);
+
+        // Paying again is refused rather than settling twice
+        assertThrows(InvalidStateTransitionException.class, () -> engine.processPayment(second.getId(), "payroll"));
+        assertThrows(InvalidStateTransitionException.class,
+                () -> engine.rejectDrawdown(second.getId(), "Too late", "payroll"));
+    }
+}
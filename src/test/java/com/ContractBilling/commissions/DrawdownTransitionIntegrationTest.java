@@ -0,0 +1,192 @@
+package com.ContractBilling.commissions;
+
+import com.ContractBilling.commissions.dto.ApiResponse;
+import com.ContractBilling.commissions.entity.PolicySettings;
+import com.ContractBilling.commissions.entity.Salesperson;
+import com.ContractBilling.commissions.exception.InvalidStateTransitionException;
+import com.ContractBilling.commissions.repository.DrawdownBalanceRepository;
+import com.ContractBilling.commissions.repository.SalespersonRepository;
+import com.ContractBilling.commissions.service.DrawdownEngine;
+import com.ContractBilling.commissions.service.IdempotencyService;
+import com.ContractBilling.commissions.service.impl.IdempotencyServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Conditional drawdown status transitions and Idempotency-Key replays.
+ *
+ * Not @Transactional: every engine call commits on its own thread, like real requests,
+ * so the test data is removed explicitly afterwards.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class DrawdownTransitionIntegrationTest {
+
+    private static final BigDecimal RECOGNIZED = new BigDecimal("1000.00");
+
+    @Autowired
+    private DrawdownEngine engine;
+
+    @Autowired
+    private SalespersonRepository salespersonRepository;
+
+    @Autowired
+    private DrawdownBalanceRepository balanceRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    private Salesperson salesperson;
+
+    // Original drawdown policy, restored in tearDown
+    private Map<String, Object> policyOverride;
+
+    private final String idempotencyKey = UUID.randomUUID().toString();
+
+    @BeforeEach
+    public void setUp() {
+        salesperson = new Salesperson();
+        salesperson.setName("Drawdown Transition User");
+        salesperson.setEmail("drawdown-" + UUID.randomUUID() + "@example.com");
+        salespersonRepository.save(salesperson);
+
+        transactionTemplate.executeWithoutResult(status ->
+                balanceRepository.addRecognized(salesperson.getId(), RECOGNIZED));
+
+        // No minimum month and room for every approval this quarter
+        policyOverride = jdbcTemplate.queryForMap(
+                "SELECT drawdown_min_month, drawdown_max_per_quarter FROM policy_settings ORDER BY id LIMIT 1");
+        jdbcTemplate.update("UPDATE policy_settings SET drawdown_min_month = 0, drawdown_max_per_quarter = 10");
+        entityManagerFactory.getCache().evict(PolicySettings.class);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Long id = salesperson.getId();
+        jdbcTemplate.update("DELETE FROM ledger WHERE salesperson_id = ?", id);
+        jdbcTemplate.update("DELETE FROM drawdown_request WHERE salesperson_id = ?", id);
+        jdbcTemplate.update("DELETE FROM drawdown_balance WHERE salesperson_id = ?", id);
+        jdbcTemplate.update("DELETE FROM commission_cube WHERE salesperson_id = ?", id);
+        jdbcTemplate.update("DELETE FROM report_version WHERE salesperson_id = ?", id);
+        jdbcTemplate.update("DELETE FROM salesperson WHERE id = ?", id);
+        // Deleted behind Hibernate's back, so drop it from the second-level cache too
+        entityManagerFactory.getCache().evict(Salesperson.class, id);
+        jdbcTemplate.update("UPDATE policy_settings SET drawdown_min_month = ?, drawdown_max_per_quarter = ?",
+                policyOverride.get("drawdown_min_month"), policyOverride.get("drawdown_max_per_quarter"));
+        entityManagerFactory.getCache().evict(PolicySettings.class);
+        jdbcTemplate.update("DELETE FROM idempotency_record WHERE idempotency_key = ?", idempotencyKey);
+    }
+
+    @Test
+    public void testConcurrentApprovalsTransitionOnce() throws Exception {
+        Long requestId = engine.requestDrawdown(salesperson, new BigDecimal("250.00")).getId();
+
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        for (int i = 0; i < threads; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                try {
+                    engine.approveDrawdown(requestId, "payroll");
+                    return true;
+                } catch (InvalidStateTransitionException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int approved = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(30, TimeUnit.SECONDS)) {
+                approved++;
+            }
+        }
+        pool.shutdown();
+
+        assertEquals(1, approved);
+        assertEquals(0, new BigDecimal("750.00").compareTo(engine.getAvailableBalance(salesperson)));
+
+        // Recorded against the drawdown, like the entries batch approval writes
+        Integer adjustments = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM ledger WHERE salesperson_id = ? AND entry_type = 'ADJUSTMENT' " +
+                "AND reference_type = 'DRAWDOWN' AND reference_id = ?",
+                Integer.class, salesperson.getId(), requestId);
+        assertEquals(1, adjustments);
+    }
+
+    @Test
+    public void testIdempotencyKeyReplaysStoredResponse() {
+        Long requestId = engine.requestDrawdown(salesperson, new BigDecimal("100.00")).getId();
+        AtomicInteger runs = new AtomicInteger();
+
+        Supplier<ResponseEntity<ApiResponse<String>>> approve = () -> {
+            runs.incrementAndGet();
+            engine.approveDrawdown(requestId, "payroll");
+            return ResponseEntity.ok(ApiResponse.success("APPROVED", "Drawdown approved"));
+        };
+
+        var first = idempotencyService.execute(idempotencyKey, "drawdown.approve:" + requestId, String.class, approve);
+        var retry = idempotencyService.execute(idempotencyKey, "drawdown.approve:" + requestId, String.class, approve);
+
+        assertEquals(1, runs.get());
+        assertNull(first.getHeaders().getFirst(IdempotencyServiceImpl.REPLAYED_HEADER));
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyServiceImpl.REPLAYED_HEADER));
+        assertEquals(HttpStatus.OK, retry.getStatusCode());
+        assertEquals("APPROVED", retry.getBody().getData());
+
+        // The same key can't be reused for a different operation
+        assertThrows(IllegalArgumentException.class, () -> idempotencyService.execute(
+                idempotencyKey, "drawdown.pay:" + requestId, String.class, approve));
+
+        // Keys belong to their sender: another user's identical key neither replays nor conflicts
+        SecurityContextHolder.getContext().setAuthentication(
+                new TestingAuthenticationToken("another-user", null, "ROLE_USER"));
+        try {
+            var other = idempotencyService.execute(idempotencyKey, "drawdown.pay:" + requestId, String.class,
+                    () -> ResponseEntity.ok(ApiResponse.success("PAID", "Drawdown paid")));
+            assertNull(other.getHeaders().getFirst(IdempotencyServiceImpl.REPLAYED_HEADER));
+            assertEquals("PAID", other.getBody().getData());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.ContractBilling.commissions;
+
+import com.ContractBilling.commissions.entity.LedgerEntryType;
+import com.ContractBilling.commissions.entity.Salesperson;
+import com.ContractBilling.commissions.repository.SalespersonRepository;
+import com.ContractBilling.commissions.security.JwtTokenProvider;
+import com.ContractBilling.commissions.service.LedgerExportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Ledger CSV export, end to end.
+ *
+ * Not @Transactional: the export reads over its own connection, so it only sees
+ * committed rows. The test data is removed explicitly afterwards.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class LedgerExportIntegrationTest {
+
+    private static final String HEADER = "id,created_at,salesperson_id,salesperson_name,entry_type,amount," +
+            "commission_plan_id,placement_id,reference_type,reference_id,status,description";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private LedgerExportService exportService;
+
+    @Autowired
+    private SalespersonRepository salespersonRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Salesperson salesperson;
+    private Salesperson other;
+    private long accrued;
+    private long recognized;
+    private long adjustment;
+
+    @BeforeEach
+    public void setUp() {
+        salesperson = createSalesperson("Export, \"Quoted\" Person");
+        other = createSalesperson("Other Exporter");
+
+        accrued = insertEntry(salesperson, LedgerEntryType.COMMISSION_ACCRUED, "1000.00",
+                "Accrued, first placement", "PLACEMENT", 11L, LocalDateTime.of(2025, 3, 10, 9, 0));
+        recognized = insertEntry(salesperson, LedgerEntryType.COMMISSION_RECOGNIZED, "83.33",
+                "Month 1 \"recognized\"", null, null, LocalDateTime.of(2025, 4, 10, 9, 0));
+        adjustment = insertEntry(salesperson, LedgerEntryType.ADJUSTMENT, "-50.00",
+                "Manual fix", null, null, LocalDateTime.of(2025, 5, 10, 23, 30));
+        insertEntry(other, LedgerEntryType.ADJUSTMENT, "10.00",
+                "Someone else's", null, null, LocalDateTime.of(2025, 5, 10, 9, 0));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        for (Salesperson s : List.of(salesperson, other)) {
+            jdbcTemplate.update("DELETE FROM ledger WHERE salesperson_id = ?", s.getId());
+            jdbcTemplate.update("DELETE FROM salesperson WHERE id = ?", s.getId());
+        }
+    }
+
+    @Test
+    public void testExportStreamsQuotedCsvWithItsOwnTimeout() throws Exception {
+        String token = tokenProvider.generateToken(
+                User.withUsername("exporter").password("unused").roles("USER").build());
+
+        MvcResult result = mockMvc.perform(get("/api/ledger/export")
+                        .param("salespersonId", salesperson.getId().toString())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Only this endpoint's request gets the long timeout
+        assertEquals(Duration.ofMinutes(30).toMillis(), result.getRequest().getAsyncContext().getTimeout());
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"ledger.csv\""));
+
+        String name = "\"Export, \"\"Quoted\"\" Person\"";
+        assertEquals(List.of(
+                HEADER,
+                accrued + ",2025-03-10 09:00:00," + salesperson.getId() + "," + name +
+                        ",COMMISSION_ACCRUED,1000.00,,,PLACEMENT,11,COMPLETED,\"Accrued, first placement\"",
+                recognized + ",2025-04-10 09:00:00," + salesperson.getId() + "," + name +
+                        ",COMMISSION_RECOGNIZED,83.33,,,,,COMPLETED,\"Month 1 \"\"recognized\"\"\"",
+                adjustment + ",2025-05-10 23:30:00," + salesperson.getId() + "," + name +
+                        ",ADJUSTMENT,-50.00,,,,,COMPLETED,Manual fix"),
+                result.getResponse().getContentAsString(StandardCharsets.UTF_8).lines().toList());
+    }
+
+    @Test
+    public void testExportAppliesFilters() throws Exception {
+        // The end date is inclusive, up to the end of that day
+        assertEquals(List.of(recognized, adjustment),
+                exportedIds(LocalDate.of(2025, 4, 1), LocalDate.of(2025, 5, 10), salesperson.getId(), null));
+
+        assertEquals(List.of(adjustment),
+                exportedIds(null, null, salesperson.getId(), LedgerEntryType.ADJUSTMENT));
+
+        assertEquals(List.of(accrued),
+                exportedIds(null, LocalDate.of(2025, 3, 31), salesperson.getId(), null));
+
+        assertEquals(List.of(),
+                exportedIds(LocalDate.of(2025, 6, 1), null, salesperson.getId(), null));
+    }
+
+    private List<Long> exportedIds(LocalDate startDate, LocalDate endDate, Long salespersonId,
+                                   LedgerEntryType entryType) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportCsv(startDate, endDate, salespersonId, entryType, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(HEADER, lines.get(0));
+        return lines.stream()
+                .skip(1)
+                .map(line -> Long.valueOf(line.substring(0, line.indexOf(','))))
+                .toList();
+    }
+
+    private Salesperson createSalesperson(String name) {
+        Salesperson s = new Salesperson();
+        s.setName(name);
+        s.setEmail("export-" + UUID.randomUUID() + "@example.com");
+        return salespersonRepository.save(s);
+    }
+
+    private long insertEntry(Salesperson owner, LedgerEntryType type, String amount, String description,
+                             String referenceType, Long referenceId, LocalDateTime createdAt) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO ledger (salesperson_id, entry_type, amount, description, reference_type, reference_id, " +
+                "status, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, 'COMPLETED', ?, ?) RETURNING id",
+                Long.class,
+                owner.getId(), type.name(), new BigDecimal(amount), description, referenceType, referenceId,
+                Timestamp.valueOf(createdAt), Timestamp.valueOf(createdAt));
+    }
+}
@@ -0,0 +1,110 @@
+package com.ContractBilling.commissions;
+
+import com.ContractBilling.commissions.entity.Ledger;
+import com.ContractBilling.commissions.entity.LedgerEntryType;
+import com.ContractBilling.commissions.entity.Salesperson;
+import com.ContractBilling.commissions.repository.LedgerRepository;
+import com.ContractBilling.commissions.repository.SalespersonRepository;
+import com.ContractBilling.commissions.service.ReportingService;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the period summary aggregate query against the previous
+ * "load every ledger entity and sum in Java" approach at 1M ledger rows.
+ *
+ * Run with: mvn test -Dtest=PeriodSummaryBenchmarkTest -Dbenchmark=true
+ */
+// The test profile logs at WARN; the timings are logged at INFO
+@SpringBootTest(properties = "logging.level.com.ContractBilling.commissions.PeriodSummaryBenchmarkTest=INFO")
+@ActiveProfiles("test")
+@Transactional
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Slf4j
+public class PeriodSummaryBenchmarkTest {
+
+    private static final int LEDGER_ROWS = 1_000_000;
+
+    @Autowired
+    private ReportingService reportingService;
+
+    @Autowired
+    private SalespersonRepository salespersonRepository;
+
+    @Autowired
+    private LedgerRepository ledgerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    public void compareAggregateQueryWithEntityLoading() {
+        Salesperson salesperson = new Salesperson();
+        salesperson.setName("Benchmark User");
+        salesperson.setEmail("benchmark@example.com");
+        salespersonRepository.saveAndFlush(salesperson);
+
+        jdbcTemplate.update(
+                "INSERT INTO ledger (salesperson_id, entry_type, amount, status, created_at, updated_at) " +
+                "SELECT ?, (ARRAY['COMMISSION_ACCRUED','COMMISSION_RECOGNIZED','COMMISSION_PAID'])[1 + g % 3], " +
+                "       (g % 1000) + 0.25, 'COMPLETED', " +
+                "       now() - (g % 360) * interval '1 day', now() " +
+                "FROM generate_series(1, ?) g",
+                salesperson.getId(), LEDGER_ROWS);
+        jdbcTemplate.execute("ANALYZE ledger");
+
+        LocalDate start = LocalDate.now().minusYears(1);
+        LocalDate end = LocalDate.now();
+
+        // Warm up both paths once
+        loadEntitiesAndSum(salesperson, start, end);
+        reportingService.getPeriodSummary(salesperson.getId(), start, end);
+
+        long entityStart = System.nanoTime();
+        BigDecimal entityAccrued = loadEntitiesAndSum(salesperson, start, end);
+        long entityMs = (System.nanoTime() - entityStart) / 1_000_000;
+
+        long aggregateStart = System.nanoTime();
+        Map<String, Object> summary = reportingService.getPeriodSummary(salesperson.getId(), start, end);
+        long aggregateMs = (System.nanoTime() - aggregateStart) / 1_000_000;
+
+        log.info("Period summary over {} ledger rows: entity loading {} ms, SQL aggregation {} ms",
+                LEDGER_ROWS, entityMs, aggregateMs);
+
+        assertEquals(0, entityAccrued.compareTo((BigDecimal) summary.get("accrued")));
+        assertEquals((long) LEDGER_ROWS, ((Number) summary.get("transactionCount")).longValue());
+    }
+
+    // The pre-aggregation implementation of getPeriodSummary, kept here as the baseline
+    private BigDecimal loadEntitiesAndSum(Salesperson salesperson, LocalDate start, LocalDate end) {
+        List<Ledger> entries = ledgerRepository.findByDateRange(
+                salesperson, start.atStartOfDay(), end.atStartOfDay().plusDays(1));
+
+        BigDecimal accrued = BigDecimal.ZERO;
+        for (Ledger entry : entries) {
+            if (entry.getEntryType() == LedgerEntryType.COMMISSION_ACCRUED) {
+                accrued = accrued.add(entry.getAmount());
+            }
+        }
+
+        entityManager.clear();
+        return accrued;
+    }
+}
@@ -1,21 +1,37 @@
 package com.ContractBilling.commissions;
 
+import com.ContractBilling.commissions.dto.ClientProfitabilityReport;
+import com.ContractBilling.commissions.dto.ClientProfitabilityRow;
 import com.ContractBilling.commissions.dto.CreatePlacementRequest;
 import com.ContractBilling.commissions.dto.PlacementResponse;
 import com.ContractBilling.commissions.entity.*;
 import com.ContractBilling.commissions.repository.ClientRepository;
+import com.ContractBilling.commissions.repository.CommissionPlanRepository;
 import com.ContractBilling.commissions.repository.ContractorRepository;
+import com.ContractBilling.commissions.repository.DrawdownBalanceRepository;
 import com.ContractBilling.commissions.repository.SalespersonRepository;
 import com.ContractBilling.commissions.repository.SettingsRepository;
+import com.ContractBilling.commissions.service.ClientProfitabilityService;
+import com.ContractBilling.commissions.service.CommissionCubeService;
 import com.ContractBilling.commissions.service.PlacementService;
+import com.ContractBilling.commissions.support.QueryBudget;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -39,6 +55,24 @@ public class PlacementServiceIntegrationTest {
     @Autowired
     private SettingsRepository settingsRepository;
 
+    @Autowired
+    private CommissionPlanRepository commissionPlanRepository;
+
+    @Autowired
+    private DrawdownBalanceRepository balanceRepository;
+
+    @Autowired
+    private CommissionCubeService commissionCubeService;
+
+    @Autowired
+    private ClientProfitabilityService clientProfitabilityService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private QueryBudget queryBudget;
+
     private Salesperson salesperson;
     private Client client;
     private Contractor contractor;
@@ -102,4 +136,213 @@ public class PlacementServiceIntegrationTest {
         assertEquals(PlacementType.PERMANENT, response.getPlacementType());
         assertNotNull(response.getCommissionTotal());
     }
+
+    @Test
+    public void testCreatePlacementStatementBudget() {
+        // Party, settings and sequence lookups (5), placement and plan inserts (2), the cube upsert (1),
+        // one insert for all recognition months and the schedule read-back (2); the second contract
+        // costs the same as the first
+        for (int sequence = 1; sequence <= 2; sequence++) {
+            CreatePlacementRequest request = new CreatePlacementRequest();
+            request.setSalespersonId(salesperson.getId());
+            request.setClientId(client.getId());
+            request.setContractorId(contractor.getId());
+            request.setPlacementType(PlacementType.CONTRACTOR);
+            request.setStartDate(java.time.LocalDate.now());
+            request.setBillRate(new BigDecimal("75.00"));
+            request.setHourlyPayRate(new BigDecimal("35.00"));
+            request.setHoursPerWeek(new BigDecimal("40"));
+            request.setWeeksPerYear(52);
+
+            PlacementResponse response = queryBudget.assertAtMost(10, "create placement #" + sequence,
+                    () -> placementService.create(request));
+            assertEquals(sequence, response.getSequenceNumber());
+        }
+    }
+
+    @Test
+    public void testDeleteTakesRecognizedCommissionOutOfDrawdownBalance() {
+        List<Long> placementIds = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            CreatePlacementRequest request = new CreatePlacementRequest();
+            request.setSalespersonId(salesperson.getId());
+            request.setClientId(client.getId());
+            request.setContractorId(contractor.getId());
+            request.setPlacementType(PlacementType.PERMANENT);
+            request.setStartDate(java.time.LocalDate.now());
+            request.setAnnualSalary(new BigDecimal("60000"));
+            request.setPlacementFee(new BigDecimal("5000"));
+            Long placementId = placementService.create(request).getId();
+            placementIds.add(placementId);
+
+            CommissionPlan plan = commissionPlanRepository.findByPlacementId(placementId).orElseThrow();
+            plan.setRecognizedAmount(new BigDecimal("300.00"));
+        }
+        balanceRepository.addRecognized(salesperson.getId(), new BigDecimal("500.00"));
+        entityManager.flush();
+
+        placementService.delete(placementIds.get(0));
+        entityManager.flush();
+        assertEquals(0, new BigDecimal("200.00").compareTo(
+                balanceRepository.findAvailable(salesperson.getId()).orElseThrow()));
+
+        // Only 200 left against the second plan's 300: the balance stops at zero
+        placementService.delete(placementIds.get(1));
+        entityManager.flush();
+        assertEquals(0, BigDecimal.ZERO.compareTo(
+                balanceRepository.findAvailable(salesperson.getId()).orElseThrow()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPlacementCommissionIsAddedToCube() {
+        CreatePlacementRequest request = new CreatePlacementRequest();
+        request.setSalespersonId(salesperson.getId());
+        request.setClientId(client.getId());
+        request.setContractorId(contractor.getId());
+        request.setPlacementType(PlacementType.PERMANENT);
+        request.setStartDate(java.time.LocalDate.now());
+        request.setAnnualSalary(new BigDecimal("60000"));
+        request.setPlacementFee(new BigDecimal("5000"));
+
+        PlacementResponse response = placementService.create(request);
+
+        Map<String, Object> report = commissionCubeService.rollUp(
+                List.of("client", "placementType"), null, null, salesperson.getId(), null, null);
+        List<Map<String, Object>> rows = (List<Map<String, Object>>) report.get("rows");
+
+        assertEquals(1, rows.size());
+        assertEquals(client.getId(), ((Number) rows.get(0).get("clientId")).longValue());
+        assertEquals("PERMANENT", rows.get(0).get("placementType"));
+        assertEquals(0, response.getCommissionTotal().compareTo((BigDecimal) rows.get(0).get("planned")));
+
+        // No groupBy gives the grand total
+        Map<String, Object> total = commissionCubeService.rollUp(
+                null, null, null, salesperson.getId(), null, null);
+        List<Map<String, Object>> totalRows = (List<Map<String, Object>>) total.get("rows");
+        assertEquals(0, response.getCommissionTotal().compareTo((BigDecimal) totalRows.get(0).get("planned")));
+    }
+
+    @Test
+    public void testClientProfitabilityByTier() {
+        // Same contractor at the same client twice: first and second contract tiers
+        for (int i = 0; i < 2; i++) {
+            CreatePlacementRequest request = new CreatePlacementRequest();
+            request.setSalespersonId(salesperson.getId());
+            request.setClientId(client.getId());
+            request.setContractorId(contractor.getId());
+            request.setPlacementType(PlacementType.PERMANENT);
+            request.setStartDate(java.time.LocalDate.now());
+            request.setAnnualSalary(new BigDecimal("60000"));
+            request.setPlacementFee(new BigDecimal("5000"));
+            placementService.create(request);
+        }
+
+        List<ClientProfitabilityRow> stored = rowsForClient(clientProfitabilityService.getClientProfitability(false));
+        List<ClientProfitabilityRow> recalculated = rowsForClient(clientProfitabilityService.getClientProfitability(true));
+
+        assertEquals(2, stored.size());
+        assertEquals(1, stored.get(0).tier());
+        assertEquals(2, stored.get(1).tier());
+        assertEquals("ABC Corp", stored.get(0).clientName());
+
+        // Settings haven't changed since the placements were created, so both bases agree
+        assertEquals(stored.size(), recalculated.size());
+        for (int i = 0; i < stored.size(); i++) {
+            assertEquals(stored.get(i).placementCount(), recalculated.get(i).placementCount());
+            assertEquals(0, stored.get(i).netAnnualMargin().compareTo(recalculated.get(i).netAnnualMargin()));
+            assertEquals(0, stored.get(i).commissionTotal().compareTo(recalculated.get(i).commissionTotal()));
+        }
+    }
+
+    @Test
+    public void testStreamAllReturnsPlacementsInIdOrderWithAssociations() {
+        for (int i = 0; i < 3; i++) {
+            CreatePlacementRequest request = new CreatePlacementRequest();
+            request.setSalespersonId(salesperson.getId());
+            request.setClientId(client.getId());
+            request.setContractorId(contractor.getId());
+            request.setPlacementType(PlacementType.PERMANENT);
+            request.setStartDate(java.time.LocalDate.now());
+            request.setAnnualSalary(new BigDecimal("60000"));
+            request.setPlacementFee(new BigDecimal("5000"));
+            placementService.create(request);
+        }
+
+        List<PlacementResponse> streamed = new ArrayList<>();
+        placementService.streamAll(streamed::add);
+
+        List<PlacementResponse> ours = streamed.stream()
+                .filter(placement -> placement.getClient().getId().equals(client.getId()))
+                .toList();
+        assertEquals(3, ours.size());
+        assertEquals("John Doe", ours.get(0).getSalesperson().getName());
+        assertEquals("Jane Smith", ours.get(0).getContractor().getName());
+
+        List<Long> ids = streamed.stream().map(PlacementResponse::getId).toList();
+        assertEquals(ids.stream().sorted().toList(), ids);
+    }
+
+    @Test
+    public void testPlacementReadsUseFixedQueryCount() {
+        // Distinct parties per placement, so lazy loading would cost three selects per row
+        for (int i = 0; i < 5; i++) {
+            Client otherClient = new Client();
+            otherClient.setName("Client " + i);
+            otherClient.setEmail("client" + i + "@example.com");
+            clientRepository.save(otherClient);
+
+            Contractor otherContractor = new Contractor();
+            otherContractor.setName("Contractor " + i);
+            otherContractor.setEmail("contractor" + i + "@example.com");
+            contractorRepository.save(otherContractor);
+
+            CreatePlacementRequest request = new CreatePlacementRequest();
+            request.setSalespersonId(salesperson.getId());
+            request.setClientId(otherClient.getId());
+            request.setContractorId(otherContractor.getId());
+            request.setPlacementType(PlacementType.PERMANENT);
+            request.setStartDate(java.time.LocalDate.now());
+            request.setAnnualSalary(new BigDecimal("60000"));
+            request.setPlacementFee(new BigDecimal("5000"));
+            placementService.create(request);
+        }
+
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        // Counts are for cold reads; the second-level cache would otherwise answer the parties
+        Cache secondLevelCache = entityManager.getEntityManagerFactory().getCache();
+
+        // Full page of 3, so the count query runs too: one select for the rows and one count
+        entityManager.flush();
+        entityManager.clear();
+        secondLevelCache.evictAll();
+        statistics.clear();
+        Page<PlacementResponse> page = placementService.getAll(PageRequest.of(0, 3));
+        assertEquals(3, page.getContent().size());
+        assertNotNull(page.getContent().get(0).getClient().getName());
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        // Salesperson lookup plus one select for all five placements and their parties
+        entityManager.clear();
+        secondLevelCache.evictAll();
+        statistics.clear();
+        List<PlacementResponse> bySalesperson = placementService.findBySalespersonId(salesperson.getId());
+        assertEquals(5, bySalesperson.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        entityManager.clear();
+        secondLevelCache.evictAll();
+        statistics.clear();
+        PlacementResponse single = placementService.getById(bySalesperson.get(0).getId());
+        assertNotNull(single.getContractor().getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private List<ClientProfitabilityRow> rowsForClient(ClientProfitabilityReport report) {
+        return report.rows().stream()
+                .filter(row -> row.clientId().equals(client.getId()))
+                .toList();
+    }
 }
@@ -0,0 +1,118 @@
+package com.ContractBilling.commissions;
+
+import com.ContractBilling.commissions.dto.UpdateSalespersonRequest;
+import com.ContractBilling.commissions.entity.Salesperson;
+import com.ContractBilling.commissions.entity.User;
+import com.ContractBilling.commissions.exception.ResourceNotFoundException;
+import com.ContractBilling.commissions.repository.SalespersonRepository;
+import com.ContractBilling.commissions.repository.UserRepository;
+import com.ContractBilling.commissions.service.SalespersonService;
+import com.ContractBilling.commissions.service.SettingsService;
+import com.ContractBilling.commissions.support.QueryBudget;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class ReferenceDataCacheIntegrationTest {
+
+    @Autowired
+    private SalespersonRepository salespersonRepository;
+
+    @Autowired
+    private SalespersonService salespersonService;
+
+    @Autowired
+    private SettingsService settingsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private QueryBudget queryBudget;
+
+    private Salesperson salesperson;
+
+    @BeforeEach
+    public void setUp() {
+        entityManager.getEntityManagerFactory().getCache().evictAll();
+
+        salesperson = new Salesperson();
+        salesperson.setName("Cached Salesperson");
+        salesperson.setEmail("cached@example.com");
+        salespersonRepository.save(salesperson);
+    }
+
+    @Test
+    public void testRepeatedLoadByIdIsServedFromCache() {
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        long hitsBefore = statistics.getDomainDataRegionStatistics("salesperson").getHitCount();
+
+        queryBudget.assertAtMost(1, "first load", () -> salespersonService.getById(salesperson.getId()));
+        queryBudget.assertAtMost(0, "cached load", () -> salespersonService.getById(salesperson.getId()));
+
+        assertTrue(statistics.getDomainDataRegionStatistics("salesperson").getHitCount() > hitsBefore);
+    }
+
+    @Test
+    public void testPolicySettingsAreServedFromCache() {
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        long hitsBefore = statistics.getDomainDataRegionStatistics("policy-settings").getHitCount();
+
+        queryBudget.assertAtMost(1, "first settings read", () -> settingsService.getSettings());
+        queryBudget.assertAtMost(0, "cached settings read", () -> settingsService.getSettings());
+
+        assertTrue(statistics.getDomainDataRegionStatistics("policy-settings").getHitCount() > hitsBefore);
+    }
+
+    @Test
+    public void testUsernameLookupIsServedFromCache() {
+        userRepository.save(User.builder()
+                .username("cached-user")
+                .email("cached-user@example.com")
+                .password("not-a-real-hash")
+                .firstName("Cached")
+                .lastName("User")
+                .build());
+
+        queryBudget.assertAtMost(1, "first username lookup", () -> userRepository.findByUsername("cached-user"));
+        User user = queryBudget.assertAtMost(0, "cached username lookup",
+                () -> userRepository.findByUsername("cached-user").orElseThrow());
+        assertEquals("cached-user@example.com", user.getEmail());
+
+        // Authentication reads the row itself
+        queryBudget.assertAtMost(1, "authentication lookup", () -> userRepository.findCurrentByUsername("cached-user"));
+    }
+
+    @Test
+    public void testEmailChangeReplacesCachedLookup() {
+        assertEquals(salesperson.getId(), salespersonService.findByEmail("cached@example.com").getId());
+
+        UpdateSalespersonRequest request = new UpdateSalespersonRequest();
+        request.setEmail("renamed@example.com");
+        salespersonService.update(salesperson.getId(), request);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(salesperson.getId(), salespersonService.findByEmail("renamed@example.com").getId());
+        assertThrows(ResourceNotFoundException.class, () -> salespersonService.findByEmail("cached@example.com"));
+        assertEquals("renamed@example.com", salespersonService.getById(salesperson.getId()).getEmail());
+    }
+}
@@ -0,0 +1,196 @@
+package com.ContractBilling.commissions;
+
+import com.ContractBilling.commissions.config.CacheConfig;
+import com.ContractBilling.commissions.dto.CreateClientRequest;
+import com.ContractBilling.commissions.dto.UpdateClientRequest;
+import com.ContractBilling.commissions.dto.UpdateSalespersonRequest;
+import com.ContractBilling.commissions.entity.Client;
+import com.ContractBilling.commissions.entity.Salesperson;
+import com.ContractBilling.commissions.repository.SalespersonRepository;
+import com.ContractBilling.commissions.security.JwtTokenProvider;
+import com.ContractBilling.commissions.service.ClientService;
+import com.ContractBilling.commissions.service.ReportingService;
+import com.ContractBilling.commissions.service.SalespersonService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conditional GETs of the dashboard and client profitability around committed writes.
+ *
+ * Not @Transactional: the report version moves when the writer commits and the
+ * cache is evicted after that, so writes here commit and the rows are removed afterwards.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ReportETagIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private SalespersonService salespersonService;
+
+    @Autowired
+    private ReportingService reportingService;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private SalespersonRepository salespersonRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Salesperson salesperson;
+    private Long clientId;
+    private String token;
+
+    @BeforeEach
+    public void setUp() {
+        salesperson = new Salesperson();
+        salesperson.setName("ETag Before");
+        salesperson.setEmail("etag-" + UUID.randomUUID() + "@example.com");
+        salespersonRepository.save(salesperson);
+
+        token = tokenProvider.generateToken(User.withUsername("etag-reader").password("unused").roles("USER").build());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Long id = salesperson.getId();
+        jdbcTemplate.update("DELETE FROM report_version WHERE salesperson_id = ?", id);
+        jdbcTemplate.update("DELETE FROM salesperson WHERE id = ?", id);
+        entityManagerFactory.getCache().evict(Salesperson.class, id);
+        cacheManager.getCache(CacheConfig.SALESPERSON_DASHBOARD).evict(id);
+        if (clientId != null) {
+            jdbcTemplate.update("DELETE FROM client WHERE id = ?", clientId);
+            entityManagerFactory.getCache().evict(Client.class, clientId);
+        }
+    }
+
+    @Test
+    public void testDashboardIsNotModifiedUntilAWriteCommits() throws Exception {
+        String first = dashboard(null)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.salespersonName").value("ETag Before"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        dashboard(first).andExpect(status().isNotModified());
+
+        rename("ETag After");
+
+        String second = dashboard(first)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.salespersonName").value("ETag After"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(first, second);
+
+        dashboard(second).andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void testStaleCachedBodyKeepsItsOwnETag() throws Exception {
+        Map<String, Object> before = reportingService.getSalespersonDashboard(salesperson.getId());
+        String first = dashboard(null).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        rename("ETag After");
+
+        // A read between the commit and the eviction can still find the old body in the cache
+        cacheManager.getCache(CacheConfig.SALESPERSON_DASHBOARD).put(salesperson.getId(), before);
+
+        dashboard(null)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.salespersonName").value("ETag Before"))
+                .andExpect(header().string(HttpHeaders.ETAG, first));
+        dashboard(first).andExpect(status().isNotModified());
+
+        // Once it's gone the client's old tag no longer matches
+        cacheManager.getCache(CacheConfig.SALESPERSON_DASHBOARD).evict(salesperson.getId());
+        dashboard(first)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.salespersonName").value("ETag After"));
+    }
+
+    @Test
+    public void testClientWritesChangeTheClientProfitabilityTag() throws Exception {
+        CreateClientRequest create = new CreateClientRequest();
+        create.setName("ETag Client " + UUID.randomUUID());
+        clientId = clientService.create(create).getId();
+
+        String first = clientProfitability(null)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        clientProfitability(first).andExpect(status().isNotModified());
+
+        // Client names are in the report rows, so a rename must not be answered with 304
+        UpdateClientRequest rename = new UpdateClientRequest();
+        rename.setName("ETag Client Renamed " + UUID.randomUUID());
+        clientService.update(clientId, rename);
+
+        String second = clientProfitability(first)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(first, second);
+
+        clientService.delete(clientId);
+        clientId = null;
+
+        clientProfitability(second).andExpect(status().isOk());
+    }
+
+    private ResultActions clientProfitability(String ifNoneMatch) throws Exception {
+        var request = get("/api/reports/client-profitability")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return mockMvc.perform(request);
+    }
+
+    private ResultActions dashboard(String ifNoneMatch) throws Exception {
+        var request = get("/api/reports/salesperson/{id}/dashboard", salesperson.getId())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return mockMvc.perform(request);
+    }
+
+    private void rename(String name) {
+        UpdateSalespersonRequest request = new UpdateSalespersonRequest();
+        request.setName(name);
+        salespersonService.update(salesperson.getId(), request);
+    }
+}
@@ -1,15 +1,30 @@
 package com.ContractBilling.commissions;
 
+import com.ContractBilling.commissions.dto.DrawdownHistoryReport;
+import com.ContractBilling.commissions.dto.ReportJobResponse;
+import com.ContractBilling.commissions.dto.ReportJobStatus;
+import com.ContractBilling.commissions.dto.ReportJobType;
+import com.ContractBilling.commissions.dto.SubmitReportJobRequest;
+import com.ContractBilling.commissions.entity.DrawdownRequest;
 import com.ContractBilling.commissions.entity.Salesperson;
+import com.ContractBilling.commissions.exception.ResourceNotFoundException;
+import com.ContractBilling.commissions.repository.DrawdownRequestRepository;
 import com.ContractBilling.commissions.repository.SalespersonRepository;
+import com.ContractBilling.commissions.service.DashboardStreamService;
+import com.ContractBilling.commissions.service.ReportJobService;
 import com.ContractBilling.commissions.service.ReportingService;
+import com.ContractBilling.commissions.support.QueryBudget;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.Map;
 
@@ -26,6 +41,18 @@ public class ReportingServiceIntegrationTest {
     @Autowired
     private SalespersonRepository salespersonRepository;
 
+    @Autowired
+    private DrawdownRequestRepository drawdownRequestRepository;
+
+    @Autowired
+    private ReportJobService reportJobService;
+
+    @Autowired
+    private DashboardStreamService dashboardStreamService;
+
+    @Autowired
+    private QueryBudget queryBudget;
+
     private Salesperson salesperson;
 
     @BeforeEach
@@ -81,4 +108,97 @@ public class ReportingServiceIntegrationTest {
         assertNotNull(report);
         assertTrue(report.containsKey("topPerformers"));
     }
+
+    @Test
+    public void testGetDrawdownHistoryPage() {
+        saveDrawdown("PENDING", LocalDate.now().minusDays(2));
+        saveDrawdown("APPROVED", LocalDate.now().minusDays(1));
+        saveDrawdown("REJECTED", LocalDate.now());
+
+        DrawdownHistoryReport history = reportingService.getDrawdownHistory(salesperson.getId(), PageRequest.of(0, 2));
+
+        // Counts cover every request, the page only the newest two
+        assertEquals(3, history.totalRequests());
+        assertEquals(1, history.approved());
+        assertEquals(1, history.rejected());
+        assertEquals(0, history.paid());
+        assertEquals(2, history.requests().size());
+        assertEquals("REJECTED", history.requests().get(0).status());
+        assertEquals(2, history.totalPages());
+    }
+
+    @Test
+    public void testReportStatementBudgets() {
+        saveDrawdown("PENDING", LocalDate.now().minusDays(2));
+        saveDrawdown("APPROVED", LocalDate.now().minusDays(1));
+        saveDrawdown("PAID", LocalDate.now());
+        Long id = salesperson.getId();
+
+        // The dashboard is one query, and none once cached
+        queryBudget.assertAtMost(1, "dashboard", () -> reportingService.getSalespersonDashboard(id));
+        queryBudget.assertAtMost(0, "cached dashboard", () -> reportingService.getSalespersonDashboard(id));
+
+        // Existence check, then the report's own grouped queries; a page that isn't the whole result adds its count
+        queryBudget.assertAtMost(2, "period summary",
+                () -> reportingService.getPeriodSummary(id, LocalDate.now().minusMonths(1), LocalDate.now()));
+        DrawdownHistoryReport history = queryBudget.assertAtMost(4, "drawdown history",
+                () -> reportingService.getDrawdownHistory(id, PageRequest.of(0, 2)));
+        assertEquals(3, history.totalRequests());
+        queryBudget.assertAtMost(3, "commission by placement",
+                () -> reportingService.getCommissionByPlacement(id, PageRequest.of(0, 10)));
+        queryBudget.assertAtMost(3, "system health", () -> reportingService.getSystemHealth());
+    }
+
+    @Test
+    public void testGetCommissionByPlacementRequiresSalesperson() {
+        assertThrows(ResourceNotFoundException.class,
+                () -> reportingService.getCommissionByPlacement(-1L, PageRequest.of(0, 10)));
+    }
+
+    @Test
+    public void testTopPerformersReportJob() throws Exception {
+        // Jobs run on their own thread, outside this test's transaction
+        ReportJobResponse submitted = reportJobService.submit(SubmitReportJobRequest.builder()
+                .type(ReportJobType.TOP_PERFORMERS)
+                .limit(5)
+                .build());
+
+        assertNotNull(submitted.getId());
+
+        ReportJobResponse finished = reportJobService.awaitJob(submitted.getId(), Duration.ofSeconds(10)).get();
+
+        assertEquals(ReportJobStatus.SUCCEEDED, finished.getStatus());
+        assertTrue(((Map<?, ?>) finished.getResult()).containsKey("topPerformers"));
+    }
+
+    @Test
+    public void testReportJobRequiresSalesperson() {
+        SubmitReportJobRequest request = SubmitReportJobRequest.builder()
+                .type(ReportJobType.COMMISSION_BY_PLACEMENT)
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> reportJobService.submit(request));
+    }
+
+    @Test
+    public void testSubscribeToDashboardStream() {
+        int before = dashboardStreamService.getConnectionCount();
+
+        SseEmitter emitter = dashboardStreamService.subscribe(salesperson.getId());
+
+        assertNotNull(emitter);
+        assertEquals(before + 1, dashboardStreamService.getConnectionCount());
+        assertThrows(ResourceNotFoundException.class, () -> dashboardStreamService.subscribe(-1L));
+
+        emitter.complete();
+    }
+
+    private void saveDrawdown(String status, LocalDate requestDate) {
+        drawdownRequestRepository.save(DrawdownRequest.builder()
+                .salesperson(salesperson)
+                .requestedAmount(new BigDecimal("100.00"))
+                .status(status)
+                .requestDate(requestDate)
+                .build());
+    }
 }
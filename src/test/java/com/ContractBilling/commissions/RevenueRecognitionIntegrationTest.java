@@ -0,0 +1,156 @@
+package com.ContractBilling.commissions;
+
+import com.ContractBilling.commissions.dto.CreatePlacementRequest;
+import com.ContractBilling.commissions.dto.PlacementResponse;
+import com.ContractBilling.commissions.entity.*;
+import com.ContractBilling.commissions.repository.ClientRepository;
+import com.ContractBilling.commissions.repository.CommissionPlanRepository;
+import com.ContractBilling.commissions.repository.ContractorRepository;
+import com.ContractBilling.commissions.repository.RecognitionScheduleRepository;
+import com.ContractBilling.commissions.repository.SalespersonRepository;
+import com.ContractBilling.commissions.service.PlacementService;
+import com.ContractBilling.commissions.service.RevenueRecognitionEngine;
+import com.ContractBilling.commissions.support.QueryBudget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class RevenueRecognitionIntegrationTest {
+
+    // Claim, schedule lookup, plan update, plan and salesperson lookups, ledger insert,
+    // then the cube and drawdown balance upserts that follow the ledger entry
+    private static final int STATEMENTS_PER_RECOGNITION = 8;
+
+    @Autowired
+    private RevenueRecognitionEngine recognitionEngine;
+
+    @Autowired
+    private PlacementService placementService;
+
+    @Autowired
+    private SalespersonRepository salespersonRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private ContractorRepository contractorRepository;
+
+    @Autowired
+    private CommissionPlanRepository commissionPlanRepository;
+
+    @Autowired
+    private RecognitionScheduleRepository scheduleRepository;
+
+    @Autowired
+    private QueryBudget queryBudget;
+
+    private Long commissionPlanId;
+
+    @BeforeEach
+    public void setUp() {
+        Salesperson salesperson = new Salesperson();
+        salesperson.setName("Recognition Test User");
+        salesperson.setEmail("recognition@example.com");
+        salespersonRepository.save(salesperson);
+
+        Client client = new Client();
+        client.setName("Recognition Corp");
+        client.setEmail("contact@recognition.com");
+        clientRepository.save(client);
+
+        Contractor contractor = new Contractor();
+        contractor.setName("Recognition Contractor");
+        contractor.setEmail("contractor@recognition.com");
+        contractorRepository.save(contractor);
+
+        // Started two months ago, so the first three months are due today
+        CreatePlacementRequest request = new CreatePlacementRequest();
+        request.setSalespersonId(salesperson.getId());
+        request.setClientId(client.getId());
+        request.setContractorId(contractor.getId());
+        request.setPlacementType(PlacementType.PERMANENT);
+        request.setStartDate(LocalDate.now().minusMonths(2));
+        request.setAnnualSalary(new BigDecimal("60000"));
+        request.setPlacementFee(new BigDecimal("5000"));
+        PlacementResponse placement = placementService.create(request);
+
+        commissionPlanId = commissionPlanRepository.findByPlacementId(placement.getId()).orElseThrow().getId();
+    }
+
+    @Test
+    public void testRecognizeRevenueStatementBudget() {
+        Long scheduleId = schedules().get(0).getId();
+
+        boolean recognized = queryBudget.assertAtMost(STATEMENTS_PER_RECOGNITION, "recognize revenue",
+                () -> recognitionEngine.recognizeRevenue(scheduleId));
+        assertTrue(recognized);
+
+        // A retry stops at the claim: the conditional update and an existence check
+        boolean again = queryBudget.assertAtMost(2, "recognize revenue again",
+                () -> recognitionEngine.recognizeRevenue(scheduleId));
+        assertFalse(again);
+
+        CommissionPlan plan = commissionPlanRepository.findById(commissionPlanId).orElseThrow();
+        assertEquals(1, plan.getMonthsRecognized());
+    }
+
+    @Test
+    public void testRecognizeAllDueStatementBudget() {
+        LocalDate today = LocalDate.now();
+        int due = scheduleRepository.findIdsDueForRecognition(today).size();
+        assertTrue(due >= 3);
+
+        // One query for the due ids, then a fixed cost per entry: no per-entry lazy loading
+        int recognized = queryBudget.assertAtMost(1 + due * STATEMENTS_PER_RECOGNITION, "recognize all due",
+                () -> recognitionEngine.recognizeAllDue(today));
+        assertEquals(due, recognized);
+
+        long ours = schedules().stream().filter(s -> "RECOGNIZED".equals(s.getStatus())).count();
+        assertEquals(3, ours);
+    }
+
+    @Test
+    public void testGeneratedScheduleMatchesEntityDefaults() {
+        // Started on the 31st: later months clamp to their last day, as LocalDate.plusMonths does
+        CommissionPlan plan = commissionPlanRepository.findById(commissionPlanId).orElseThrow();
+        LocalDate start = LocalDate.of(2024, 1, 31);
+        plan.setRecognitionStartDate(start);
+        scheduleRepository.deleteAll(schedules());
+
+        List<RecognitionSchedule> generated = queryBudget.assertAtMost(2, "generate recognition schedule",
+                () -> recognitionEngine.generateRecognitionSchedule(plan));
+
+        assertEquals(12, generated.size());
+        for (int month = 1; month <= 12; month++) {
+            RecognitionSchedule schedule = generated.get(month - 1);
+            assertEquals(month, schedule.getMonth());
+            assertEquals(start.plusMonths(month - 1), schedule.getRecognitionDate());
+            assertEquals("PENDING", schedule.getStatus());
+            assertEquals(0, BigDecimal.ZERO.compareTo(schedule.getRecognizedAmount()));
+            assertEquals(0, generated.get(0).getPlannedAmount().compareTo(schedule.getPlannedAmount()));
+            assertNotNull(schedule.getCreatedAt());
+            assertEquals(schedule.getCreatedAt(), schedule.getUpdatedAt());
+        }
+        assertEquals(LocalDate.of(2024, 2, 29), generated.get(1).getRecognitionDate());
+    }
+
+    private List<RecognitionSchedule> schedules() {
+        return scheduleRepository.findByCommissionPlanId(commissionPlanId).stream()
+                .sorted(Comparator.comparing(RecognitionSchedule::getMonth))
+                .toList();
+    }
+}
@@ -0,0 +1,135 @@
+package com.ContractBilling.commissions;
+
+import com.ContractBilling.commissions.dto.SalespersonResponse;
+import com.ContractBilling.commissions.dto.SearchResponse;
+import com.ContractBilling.commissions.dto.SearchResult;
+import com.ContractBilling.commissions.dto.SearchResultType;
+import com.ContractBilling.commissions.entity.Client;
+import com.ContractBilling.commissions.entity.Contractor;
+import com.ContractBilling.commissions.entity.ContractorType;
+import com.ContractBilling.commissions.entity.Salesperson;
+import com.ContractBilling.commissions.repository.ClientRepository;
+import com.ContractBilling.commissions.repository.ContractorRepository;
+import com.ContractBilling.commissions.repository.SalespersonRepository;
+import com.ContractBilling.commissions.service.SalespersonService;
+import com.ContractBilling.commissions.service.SearchService;
+import com.ContractBilling.commissions.support.QueryBudget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class SearchIntegrationTest {
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private SalespersonService salespersonService;
+
+    @Autowired
+    private SalespersonRepository salespersonRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private ContractorRepository contractorRepository;
+
+    @Autowired
+    private QueryBudget queryBudget;
+
+    private Salesperson salesperson;
+
+    @BeforeEach
+    public void setUp() {
+        salesperson = new Salesperson();
+        salesperson.setName("Mara Quillfeather");
+        salesperson.setEmail("mara@quillfeather.com");
+        salespersonRepository.save(salesperson);
+
+        Salesperson unrelated = new Salesperson();
+        unrelated.setName("Mara Stone");
+        unrelated.setEmail("mara@stone.com");
+        salespersonRepository.save(unrelated);
+
+        Client client = new Client();
+        client.setName("Quillfeather Holdings");
+        client.setEmail("contact@quillfeather.com");
+        clientRepository.save(client);
+
+        // Misspelt on purpose: found by similarity, not by substring
+        Contractor contractor = new Contractor();
+        contractor.setName("Tom Quilfeather");
+        contractor.setEmail("tom@quilfeather.com");
+        contractor.setType(ContractorType.CONTRACTOR);
+        contractorRepository.save(contractor);
+    }
+
+    @Test
+    public void testSearchRanksAcrossTypes() {
+        SearchResponse response = queryBudget.assertAtMost(1, "search",
+                () -> searchService.search("quillfeather", null, PageRequest.of(0, 20)));
+
+        List<SearchResult> results = response.results();
+        assertEquals(3, results.size());
+        assertEquals(List.of(SearchResultType.SALESPERSON, SearchResultType.CLIENT),
+                results.subList(0, 2).stream().map(SearchResult::type).sorted().toList());
+
+        // Exact substring matches first, the near miss after them
+        SearchResult nearMiss = results.get(2);
+        assertEquals(SearchResultType.CONTRACTOR, nearMiss.type());
+        assertEquals("Tom Quilfeather", nearMiss.name());
+        assertTrue(nearMiss.score() < results.get(0).score());
+        assertFalse(response.hasNext());
+    }
+
+    @Test
+    public void testSearchFiltersByTypeAndPages() {
+        SearchResponse contractors = searchService.search("quillfeather", List.of("contractor"), PageRequest.of(0, 20));
+        assertEquals(1, contractors.results().size());
+        assertEquals(SearchResultType.CONTRACTOR, contractors.results().get(0).type());
+
+        SearchResponse first = searchService.search("quillfeather", null, PageRequest.of(0, 2));
+        assertEquals(2, first.results().size());
+        assertTrue(first.hasNext());
+
+        SearchResponse last = searchService.search("quillfeather", null, PageRequest.of(1, 2));
+        assertEquals(1, last.results().size());
+        assertFalse(last.hasNext());
+        assertEquals("Tom Quilfeather", last.results().get(0).name());
+    }
+
+    @Test
+    public void testSearchRejectsShortQueriesAndUnknownTypes() {
+        assertThrows(IllegalArgumentException.class,
+                () -> searchService.search(" qu ", null, PageRequest.of(0, 20)));
+        assertThrows(IllegalArgumentException.class,
+                () -> searchService.search("quillfeather", List.of("placement"), PageRequest.of(0, 20)));
+    }
+
+    @Test
+    public void testWildcardsInQueryAreLiteral() {
+        SearchResponse response = searchService.search("%%%", null, PageRequest.of(0, 20));
+
+        assertTrue(response.results().isEmpty());
+    }
+
+    @Test
+    public void testSalespersonSearchToleratesTypos() {
+        List<SalespersonResponse> results = salespersonService.searchByName("quilfeather", PageRequest.of(0, 10));
+
+        assertEquals(1, results.size());
+        assertEquals(salesperson.getId(), results.get(0).getId());
+    }
+}
@@ -0,0 +1,74 @@
+package com.ContractBilling.commissions.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ReplicaLagMonitor, with a stub replica answering the lag query
+ */
+class ReplicaLagMonitorTest {
+
+    private ResultSet result;
+    private ReplicaLagMonitor monitor;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        result = mock(ResultSet.class);
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(1);
+        when(result.getMetaData()).thenReturn(metaData);
+
+        Statement statement = mock(Statement.class);
+        when(statement.executeQuery(anyString())).thenReturn(result);
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(statement);
+        DataSource replica = mock(DataSource.class);
+        when(replica.getConnection()).thenReturn(connection);
+
+        monitor = new ReplicaLagMonitor(replica, Duration.ofSeconds(5), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testReplicaWithinMaxLagIsUsable() throws SQLException {
+        lagQueryReturns(1.5);
+        monitor.check();
+        assertThat(monitor.isUsable()).isTrue();
+
+        lagQueryReturns(12.0);
+        monitor.check();
+        assertThat(monitor.isUsable()).isFalse();
+    }
+
+    @Test
+    void testReplicaNotStreamingIsUnusable() throws SQLException {
+        lagQueryReturns(0.0);
+        monitor.check();
+        assertThat(monitor.isUsable()).isTrue();
+
+        // Disconnected from the primary: it has replayed all it received, but that says nothing about lag
+        lagQueryReturns(null);
+        monitor.check();
+        assertThat(monitor.isUsable()).isFalse();
+    }
+
+    private void lagQueryReturns(Double lag) throws SQLException {
+        when(result.next()).thenReturn(true, false);
+        when(result.getDouble(anyInt())).thenReturn(lag != null ? lag : 0.0);
+        when(result.wasNull()).thenReturn(lag == null);
+    }
+}
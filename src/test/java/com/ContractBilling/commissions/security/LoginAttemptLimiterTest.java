@@ -0,0 +1,92 @@
+package com.ContractBilling.commissions.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for LoginAttemptLimiter
+ */
+class LoginAttemptLimiterTest {
+
+    private static final Duration HOUR = Duration.ofHours(1);
+
+    @Test
+    void testUsernameBucketRefusesOnceEmpty() {
+        LoginAttemptLimiter limiter = new LoginAttemptLimiter(3, HOUR, 100, HOUR, 1000);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("alice", "10.0.0." + i)).isZero();
+        }
+
+        long retryAfter = limiter.tryAcquire("Alice", "10.0.0.9");
+        assertThat(retryAfter).isPositive();
+        assertThat(retryAfter).isLessThanOrEqualTo(HOUR.toSeconds() / 3 + 1);
+
+        // Other usernames have their own bucket
+        assertThat(limiter.tryAcquire("bob", "10.0.0.9")).isZero();
+    }
+
+    @Test
+    void testIpBucketRefusesBeforeTouchingUsername() {
+        LoginAttemptLimiter limiter = new LoginAttemptLimiter(2, HOUR, 2, HOUR, 1000);
+
+        assertThat(limiter.tryAcquire("alice", "10.0.0.1")).isZero();
+        assertThat(limiter.tryAcquire("bob", "10.0.0.1")).isZero();
+        assertThat(limiter.tryAcquire("carol", "10.0.0.1")).isPositive();
+
+        // carol's refused attempt didn't use up her own allowance
+        assertThat(limiter.tryAcquire("carol", "10.0.0.2")).isZero();
+        assertThat(limiter.tryAcquire("carol", "10.0.0.3")).isZero();
+    }
+
+    @Test
+    void testBucketRefillsOverPeriod() throws Exception {
+        LoginAttemptLimiter limiter = new LoginAttemptLimiter(1, Duration.ofMillis(200), 100, HOUR, 1000);
+
+        assertThat(limiter.tryAcquire("alice", null)).isZero();
+        assertThat(limiter.tryAcquire("alice", null)).isPositive();
+
+        Thread.sleep(300);
+        assertThat(limiter.tryAcquire("alice", null)).isZero();
+    }
+
+    @Test
+    void testConcurrentAttemptsNeverExceedCapacity() throws Exception {
+        int capacity = 50;
+        LoginAttemptLimiter limiter = new LoginAttemptLimiter(capacity, HOUR, 10_000, HOUR, 1000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger allowed = new AtomicInteger();
+
+        try {
+            CompletableFuture<?>[] attempts = new CompletableFuture<?>[500];
+            for (int i = 0; i < attempts.length; i++) {
+                attempts[i] = CompletableFuture.runAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    if (limiter.tryAcquire("alice", "10.0.0.1") == 0) {
+                        allowed.incrementAndGet();
+                    }
+                }, executor);
+            }
+            start.countDown();
+            CompletableFuture.allOf(attempts).get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(allowed.get()).isEqualTo(capacity);
+    }
+}
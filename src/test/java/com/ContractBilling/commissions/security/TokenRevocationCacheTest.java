@@ -0,0 +1,52 @@
+package com.ContractBilling.commissions.security;
+
+import com.ContractBilling.commissions.event.UserAccessChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TokenRevocationCache
+ */
+class TokenRevocationCacheTest {
+
+    private static final long TOKEN_LIFETIME_MS = Duration.ofHours(1).toMillis();
+
+    @Test
+    void testRevocationsPastTheFormerSizeBoundAreAllKept() throws InterruptedException {
+        TokenRevocationCache cache = new TokenRevocationCache(TOKEN_LIFETIME_MS);
+        Instant revokedAt = Instant.now();
+
+        // Twice the old 10,000-user bound, delivered the way the poller delivers other nodes' changes
+        List<String> users = IntStream.range(0, 20_000).mapToObj(i -> "user-" + i).toList();
+        users.forEach(user -> cache.revokeUser(user, revokedAt));
+        cache.onUserAccessChanged(new UserAccessChangedEvent("changed-here"));
+
+        // Any eviction runs asynchronously; give it the chance to drop something
+        Thread.sleep(200);
+
+        Instant issuedBefore = revokedAt.minusSeconds(60);
+        assertThat(users).allMatch(user -> cache.isRevoked(principal(user, issuedBefore)));
+        assertThat(cache.isRevoked(principal("changed-here", issuedBefore))).isTrue();
+    }
+
+    @Test
+    void testTokensIssuedAfterTheChangeAreAccepted() {
+        TokenRevocationCache cache = new TokenRevocationCache(TOKEN_LIFETIME_MS);
+        Instant revokedAt = Instant.now();
+        cache.revokeUser("alice", revokedAt);
+
+        assertThat(cache.isRevoked(principal("alice", revokedAt.plusSeconds(5)))).isFalse();
+        assertThat(cache.isRevoked(principal("bob", revokedAt.minusSeconds(5)))).isFalse();
+    }
+
+    private static JwtPrincipal principal(String username, Instant issuedAt) {
+        return new JwtPrincipal("jti-" + username, 1L, username, List.of("ROLE_USER"), true,
+                issuedAt, issuedAt.plusMillis(TOKEN_LIFETIME_MS));
+    }
+}
@@ -1,5 +1,6 @@
 package com.ContractBilling.commissions.service;
 
+import com.ContractBilling.commissions.dto.PlacementFinancials;
 import com.ContractBilling.commissions.entity.Placement;
 import com.ContractBilling.commissions.entity.PlacementType;
 import com.ContractBilling.commissions.entity.PolicySettings;
@@ -268,4 +269,43 @@ class CommissionCalculationServiceTest {
         // Commission: 1455.29
         assertThat(placement.getCommissionTotal()).isEqualByComparingTo(new BigDecimal("1455.29"));
     }
+
+    @Test
+    void testRecalculateMatchesContractorCalculation() {
+        Placement placement = new Placement();
+        placement.setPlacementType(PlacementType.CONTRACTOR);
+        placement.setAnnualSalary(new BigDecimal("55000"));
+        placement.setHoursPerWeek(new BigDecimal("39"));
+        placement.setBillRate(new BigDecimal("40.28"));
+        placement.setAdminPercentage(new BigDecimal("6.00"));
+        placement.setInsurancePercentage(new BigDecimal("2.00"));
+        placement.setFixedCosts(new BigDecimal("500"));
+        placement.setSequenceNumber(2);
+
+        PlacementFinancials recalculated = calculationService.recalculate(placement, settings);
+
+        // recalculate leaves the placement alone
+        assertThat(placement.getCommissionTotal()).isNull();
+
+        calculationService.calculateContractorCommission(placement, settings);
+
+        assertThat(recalculated.grossAnnualMargin()).isEqualByComparingTo(placement.getGrossAnnualMargin());
+        assertThat(recalculated.netAnnualMargin()).isEqualByComparingTo(placement.getNetAnnualMargin());
+        assertThat(recalculated.commissionPercentage()).isEqualByComparingTo(new BigDecimal("10.00"));
+        assertThat(recalculated.commissionTotal()).isEqualByComparingTo(placement.getCommissionTotal());
+    }
+
+    @Test
+    void testRecalculateKeepsStoredFiguresWhenInputsMissing() {
+        Placement placement = new Placement();
+        placement.setPlacementType(PlacementType.CONTRACTOR);
+        placement.setSequenceNumber(1);
+        placement.setNetAnnualMargin(new BigDecimal("1000.00"));
+        placement.setCommissionTotal(new BigDecimal("150.00"));
+
+        PlacementFinancials recalculated = calculationService.recalculate(placement, settings);
+
+        assertThat(recalculated.netAnnualMargin()).isEqualByComparingTo(new BigDecimal("1000.00"));
+        assertThat(recalculated.commissionTotal()).isEqualByComparingTo(new BigDecimal("150.00"));
+    }
 }
@@ -0,0 +1,76 @@
+package com.ContractBilling.commissions.service;
+
+import com.ContractBilling.commissions.config.CacheConfig;
+import com.ContractBilling.commissions.dto.DrawdownEligibility;
+import com.ContractBilling.commissions.repository.SalespersonRepository;
+import com.ContractBilling.commissions.repository.SettingsRepository;
+import com.ContractBilling.commissions.repository.projection.DrawdownEligibilityFacts;
+import com.ContractBilling.commissions.service.impl.DrawdownEligibilityServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the cached drawdown eligibility decisions
+ */
+class DrawdownEligibilityServiceTest {
+
+    private SalespersonRepository salespersonRepository;
+    private Cache cache;
+    private DrawdownEligibilityServiceImpl eligibilityService;
+
+    @BeforeEach
+    void setUp() {
+        salespersonRepository = mock(SalespersonRepository.class);
+        SettingsRepository settingsRepository = mock(SettingsRepository.class);
+        when(settingsRepository.findSingleton()).thenReturn(Optional.empty());
+
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.DRAWDOWN_ELIGIBILITY);
+        cache = cacheManager.getCache(CacheConfig.DRAWDOWN_ELIGIBILITY);
+        eligibilityService = new DrawdownEligibilityServiceImpl(salespersonRepository, settingsRepository, cacheManager);
+    }
+
+    @Test
+    void testDecisionIsCachedOutsideATransaction() {
+        List<DrawdownEligibilityFacts> rows = List.of(facts(1L, "500.00"));
+        when(salespersonRepository.findDrawdownEligibilityFacts(anyCollection(), anyInt(), anyInt())).thenReturn(rows);
+
+        eligibilityService.evaluate(1L);
+
+        assertThat(cache.get(1L, DrawdownEligibility.class).availableBalance()).isEqualByComparingTo("500.00");
+    }
+
+    @Test
+    void testEvictionDuringTheReadDiscardsTheResult() {
+        // The change commits and its eviction runs while this read is still working from the old data
+        List<DrawdownEligibilityFacts> rows = List.of(facts(1L, "500.00"));
+        when(salespersonRepository.findDrawdownEligibilityFacts(anyCollection(), anyInt(), anyInt()))
+                .thenAnswer(invocation -> {
+                    eligibilityService.evict(1L);
+                    return rows;
+                });
+
+        DrawdownEligibility eligibility = eligibilityService.evaluate(1L);
+
+        assertThat(eligibility.availableBalance()).isEqualByComparingTo("500.00");
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    private static DrawdownEligibilityFacts facts(Long salespersonId, String available) {
+        DrawdownEligibilityFacts facts = mock(DrawdownEligibilityFacts.class);
+        when(facts.getSalespersonId()).thenReturn(salespersonId);
+        when(facts.getAvailableBalance()).thenReturn(new BigDecimal(available));
+        return facts;
+    }
+}
@@ -0,0 +1,141 @@
+package com.ContractBilling.commissions.service;
+
+import com.ContractBilling.commissions.dto.LeaderboardEntry;
+import com.ContractBilling.commissions.event.CommissionPlanChangedEvent;
+import com.ContractBilling.commissions.repository.CommissionPlanRepository;
+import com.ContractBilling.commissions.repository.projection.SalespersonCommissionTotal;
+import com.ContractBilling.commissions.service.impl.LeaderboardServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the incrementally maintained leaderboard.
+ * Commits are simulated by driving the listeners through the transaction phases.
+ */
+class LeaderboardServiceTest {
+
+    private CommissionPlanRepository repository;
+    private LeaderboardServiceImpl leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(CommissionPlanRepository.class);
+        leaderboard = new LeaderboardServiceImpl(repository);
+    }
+
+    @Test
+    void testCommittedDeltaIsAppliedWithoutReloading() {
+        when(repository.sumPlannedAmountBySalesperson()).thenReturn(List.of(
+                total(1L, "Ann", "100.00"), total(2L, "Bob", "80.00")));
+        assertThat(leaderboard.getTopPerformers(1)).extracting(LeaderboardEntry::salespersonId).containsExactly(1L);
+
+        commit(change(2L, "30.00"), () -> { });
+
+        List<LeaderboardEntry> top = leaderboard.getTopPerformers(2);
+        assertThat(top).extracting(LeaderboardEntry::salespersonId).containsExactly(2L, 1L);
+        assertThat(top.get(0).totalCommission()).isEqualByComparingTo("110.00");
+        verify(repository, times(1)).sumPlannedAmountBySalesperson();
+    }
+
+    @Test
+    void testNewSalespersonReloadsTheBoard() {
+        when(repository.sumPlannedAmountBySalesperson()).thenReturn(List.of(total(1L, "Ann", "100.00")));
+        leaderboard.getTopPerformers(5);
+
+        when(repository.sumPlannedAmountBySalesperson()).thenReturn(List.of(
+                total(1L, "Ann", "100.00"), total(3L, "Cat", "150.00")));
+        commit(change(3L, "150.00"), () -> { });
+
+        List<LeaderboardEntry> top = leaderboard.getTopPerformers(5);
+        assertThat(top).extracting(LeaderboardEntry::salespersonId).containsExactly(3L, 1L);
+        assertThat(top.get(0).totalCommission()).isEqualByComparingTo("150.00");
+        verify(repository, times(2)).sumPlannedAmountBySalesperson();
+    }
+
+    @Test
+    void testLoadBetweenCommitAndDeltaIsNotCountedTwice() {
+        when(repository.sumPlannedAmountBySalesperson()).thenReturn(List.of(total(1L, "Ann", "100.00")));
+        leaderboard.getTopPerformers(5);
+        leaderboard.invalidate();
+
+        // The row is committed, so a load that runs before the delta is applied already includes it
+        when(repository.sumPlannedAmountBySalesperson()).thenReturn(List.of(total(1L, "Ann", "150.00")));
+        commit(change(1L, "50.00"), () ->
+                assertThat(leaderboard.getTopPerformers(5).get(0).totalCommission()).isEqualByComparingTo("150.00"));
+
+        assertThat(leaderboard.getTopPerformers(5).get(0).totalCommission()).isEqualByComparingTo("150.00");
+    }
+
+    @Test
+    void testRolledBackChangeIsNotApplied() {
+        when(repository.sumPlannedAmountBySalesperson()).thenReturn(List.of(total(1L, "Ann", "100.00")));
+        leaderboard.getTopPerformers(5);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            leaderboard.beforeCommissionPlanCommit(change(1L, "50.00"));
+            complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(leaderboard.getTopPerformers(5).get(0).totalCommission()).isEqualByComparingTo("100.00");
+
+        // Nothing is left committing, so the next load is kept again
+        leaderboard.invalidate();
+        leaderboard.getTopPerformers(5);
+        leaderboard.getTopPerformers(10);
+        verify(repository, times(2)).sumPlannedAmountBySalesperson();
+    }
+
+    // Before commit, then the given work (a concurrent read after the row is visible), then after commit
+    private void commit(CommissionPlanChangedEvent event, Runnable betweenCommitAndListener) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            leaderboard.beforeCommissionPlanCommit(event);
+            betweenCommitAndListener.run();
+            leaderboard.onCommissionPlanChanged(event);
+            complete(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void complete(int status) {
+        TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.afterCompletion(status));
+    }
+
+    private static CommissionPlanChangedEvent change(Long salespersonId, String delta) {
+        return new CommissionPlanChangedEvent(null, salespersonId, new BigDecimal(delta));
+    }
+
+    private static SalespersonCommissionTotal total(Long salespersonId, String name, String amount) {
+        return new SalespersonCommissionTotal() {
+            @Override
+            public Long getSalespersonId() {
+                return salespersonId;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public BigDecimal getTotalCommission() {
+                return new BigDecimal(amount);
+            }
+        };
+    }
+}
@@ -0,0 +1,87 @@
+package com.ContractBilling.commissions.service;
+
+import com.ContractBilling.commissions.dto.ReportJobResponse;
+import com.ContractBilling.commissions.dto.ReportJobStatus;
+import com.ContractBilling.commissions.dto.ReportJobType;
+import com.ContractBilling.commissions.dto.SubmitReportJobRequest;
+import com.ContractBilling.commissions.service.impl.ReportJobServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ReportJobService
+ */
+class ReportJobServiceTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ReportingService reportingService;
+    private ReportJobServiceImpl jobService;
+
+    @BeforeEach
+    void setUp() {
+        reportingService = mock(ReportingService.class);
+        // Two threads, room for a few queued jobs, and only one finished job kept
+        jobService = new ReportJobServiceImpl(reportingService, mock(ClientProfitabilityService.class),
+                2, 10, Duration.ofMinutes(15), 1, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        jobService.shutdown();
+    }
+
+    @Test
+    void testRunningJobIsNotEvictedByFinishedOnes() throws Exception {
+        CountDownLatch fastJobs = new CountDownLatch(5);
+        when(reportingService.getTopPerformers(anyInt())).thenAnswer(invocation -> {
+            if (invocation.getArgument(0, Integer.class) == 1) {
+                return awaitRelease();
+            }
+            fastJobs.countDown();
+            return Map.of("topPerformers", "fast");
+        });
+
+        ReportJobResponse slow = jobService.submit(topPerformers(1));
+
+        // Far more finished jobs than the store keeps; they may be evicted, the running one may not
+        for (int i = 0; i < 5; i++) {
+            jobService.submit(topPerformers(5));
+        }
+        assertThat(fastJobs.await(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(jobService.getJob(slow.getId()).getStatus())
+                .isIn(ReportJobStatus.QUEUED, ReportJobStatus.RUNNING);
+
+        // Waiting from before it finishes; with a store of one, the finished job may be dropped right away
+        CompletableFuture<ReportJobResponse> done = jobService.awaitJob(slow.getId(), Duration.ofSeconds(10));
+        release.countDown();
+        ReportJobResponse finished = done.get();
+        assertThat(finished.getStatus()).isEqualTo(ReportJobStatus.SUCCEEDED);
+        assertThat(finished.getResult()).isEqualTo(Map.of("topPerformers", "slow"));
+    }
+
+    private Map<String, Object> awaitRelease() throws InterruptedException {
+        release.await(10, TimeUnit.SECONDS);
+        return Map.of("topPerformers", "slow");
+    }
+
+    private static SubmitReportJobRequest topPerformers(int limit) {
+        return SubmitReportJobRequest.builder()
+                .type(ReportJobType.TOP_PERFORMERS)
+                .limit(limit)
+                .build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.ContractBilling.commissions.service.support;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for RequestCoalescer
+ */
+class RequestCoalescerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new RequestCoalescer(meterRegistry, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void testConcurrentCallsShareOneComputation() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger computations = new AtomicInteger();
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() ->
+                coalescer.execute("report", 1L, () -> {
+                    computations.incrementAndGet();
+                    await(release);
+                    return "result";
+                }));
+
+        // Wait until the leader is running before the second call arrives
+        while (meterRegistry.find("reports.coalescing.in_flight").gauge().value() < 1) {
+            Thread.sleep(5);
+        }
+
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() ->
+                coalescer.execute("report", 1L, () -> {
+                    computations.incrementAndGet();
+                    return "other";
+                }));
+
+        while (followerCount() < 1) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+        assertThat(computations.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testDifferentKeysAreNotShared() {
+        assertThat(coalescer.execute("report", 1L, () -> "one")).isEqualTo("one");
+        assertThat(coalescer.execute("report", 2L, () -> "two")).isEqualTo("two");
+        assertThat(followerCount()).isZero();
+    }
+
+    @Test
+    void testFinishedComputationIsNotReused() {
+        AtomicInteger computations = new AtomicInteger();
+
+        coalescer.execute("report", 1L, computations::incrementAndGet);
+        coalescer.execute("report", 1L, computations::incrementAndGet);
+
+        assertThat(computations.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testExceptionIsRethrown() {
+        assertThatThrownBy(() -> coalescer.execute("report", 1L, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+    }
+
+    private double followerCount() {
+        var counter = meterRegistry.find("reports.coalescing.calls").tag("role", "follower").counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
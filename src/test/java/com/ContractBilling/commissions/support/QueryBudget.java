@@ -0,0 +1,89 @@
+package com.ContractBilling.commissions.support;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Statement budgets for service calls and endpoints.
+ *
+ * <pre>
+ * PlacementResponse created = queryBudget.assertAtMost(20, "create placement",
+ *         () -> placementService.create(request));
+ * </pre>
+ *
+ * The call runs with an empty persistence context, as it would in its own
+ * request, and pending changes are flushed before the count closes, so
+ * deferred writes count too. Only statements from the calling thread are
+ * counted. On failure the message lists every statement that ran, plus
+ * Hibernate's entity and collection fetch counts to point at lazy loading.
+ */
+@Component
+public class QueryBudget {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final Statistics statistics;
+
+    public QueryBudget(EntityManagerFactory entityManagerFactory, DataSource dataSource) throws SQLException {
+        if (!dataSource.isWrapperFor(QueryCountingDataSource.class)) {
+            throw new IllegalStateException("DataSource is not wrapped for statement counting");
+        }
+        this.entityManagerFactory = entityManagerFactory;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /** Runs the call and fails if it sent more than {@code maxStatements} statements. */
+    public <T> T assertAtMost(int maxStatements, String operation, ThrowingSupplier<T> call) {
+        EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        if (entityManager != null) {
+            entityManager.flush();
+            entityManager.clear();
+        }
+
+        long entityFetches = statistics.getEntityFetchCount();
+        long collectionFetches = statistics.getCollectionFetchCount();
+        List<String> statements = QueryCountingDataSource.startRecording();
+        T result;
+        try {
+            result = call.get();
+            if (entityManager != null) {
+                entityManager.flush();
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new AssertionError(operation + " threw " + e, e);
+        } finally {
+            QueryCountingDataSource.stopRecording();
+        }
+
+        if (statements.size() > maxStatements) {
+            fail(String.format("%s ran %d statements, budget is %d (lazy fetches: %d entity, %d collection%s):%n  %s",
+                    operation, statements.size(), maxStatements,
+                    statistics.getEntityFetchCount() - entityFetches,
+                    statistics.getCollectionFetchCount() - collectionFetches,
+                    statistics.isStatisticsEnabled() ? "" : ", statistics disabled",
+                    String.join(System.lineSeparator() + "  ", statements)));
+        }
+        return result;
+    }
+
+    /** Runs the call and fails if it sent more than {@code maxStatements} statements. */
+    public void assertAtMost(int maxStatements, String operation, Executable call) {
+        assertAtMost(maxStatements, operation, () -> {
+            call.execute();
+            return null;
+        });
+    }
+}
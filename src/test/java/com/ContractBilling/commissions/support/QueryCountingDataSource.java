@@ -0,0 +1,167 @@
+package com.ContractBilling.commissions.support;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DataSource wrapper that records every statement sent to the database by the
+ * current thread while a recording is open.
+ *
+ * Counting is per thread, so background work (token revocation polling,
+ * idempotency purges, report jobs) doesn't leak into a test's count. One
+ * execution is one round trip: a JDBC batch counts once however many rows it
+ * carries. Covers Hibernate and JdbcTemplate alike, since both get their
+ * connections from the DataSource bean.
+ */
+class QueryCountingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private static final ThreadLocal<List<String>> RECORDING = new ThreadLocal<>();
+
+    QueryCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    /** Starts recording this thread's statements; returns the list they are added to. */
+    static List<String> startRecording() {
+        List<String> statements = new ArrayList<>();
+        RECORDING.set(statements);
+        return statements;
+    }
+
+    static void stopRecording() {
+        RECORDING.remove();
+    }
+
+    // Spring closes the bean it holds, which is this wrapper; pass that on so the pool shuts down
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(super.getConnection(username, password));
+    }
+
+    // A DataSource that routes to other wrapped DataSources hands back their proxies; wrapping again would count twice
+    private static Connection counting(Connection connection) {
+        if (Proxy.isProxyClass(connection.getClass())
+                && Proxy.getInvocationHandler(connection) instanceof CountingConnection) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(QueryCountingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new CountingConnection(connection));
+    }
+
+    private static void record(String sql) {
+        List<String> statements = RECORDING.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Object and Wrapper methods shared by the connection and statement proxies
+    private static Object invokeCommon(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+        return switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "unwrap" -> ((Class<?>) args[0]).isInstance(proxy) ? proxy : invoke(target, method, args);
+            case "isWrapperFor" -> ((Class<?>) args[0]).isInstance(proxy) || (boolean) invoke(target, method, args);
+            default -> invoke(target, method, args);
+        };
+    }
+
+    private static final class CountingConnection implements InvocationHandler {
+
+        private final Connection target;
+
+        CountingConnection(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = invokeCommon(proxy, target, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement" -> statement(proxy, (PreparedStatement) result, PreparedStatement.class, (String) args[0]);
+                case "prepareCall" -> statement(proxy, (CallableStatement) result, CallableStatement.class, (String) args[0]);
+                case "createStatement" -> statement(proxy, (Statement) result, Statement.class, null);
+                default -> result;
+            };
+        }
+
+        private static Object statement(Object connection, Statement statement, Class<? extends Statement> type, String sql) {
+            return Proxy.newProxyInstance(QueryCountingDataSource.class.getClassLoader(),
+                    new Class<?>[]{type}, new CountingStatement(connection, statement, sql));
+        }
+    }
+
+    private static final class CountingStatement implements InvocationHandler {
+
+        private final Object connection;
+        private final Statement target;
+        private final String preparedSql;
+        private final List<String> batch = new ArrayList<>();
+
+        // Set when this statement wraps another counting one (e.g. the replica routing's lazy
+        // connection over a pool), which does the recording
+        private final boolean nested;
+
+        CountingStatement(Object connection, Statement target, String preparedSql) {
+            this.connection = connection;
+            this.target = target;
+            this.preparedSql = preparedSql;
+            this.nested = Proxy.isProxyClass(target.getClass())
+                    && Proxy.getInvocationHandler(target) instanceof CountingStatement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("getConnection")) {
+                return connection;
+            }
+            if (nested) {
+                return invokeCommon(proxy, target, method, args);
+            }
+            if (name.equals("addBatch")) {
+                batch.add(args != null ? (String) args[0] : preparedSql);
+            } else if (name.equals("clearBatch")) {
+                batch.clear();
+            } else if (name.equals("executeBatch") || name.equals("executeLargeBatch")) {
+                record(batch.size() + " x " + (batch.isEmpty() ? preparedSql : batch.get(0)));
+                batch.clear();
+            } else if (name.startsWith("execute")) {
+                record(args != null && args.length > 0 && args[0] instanceof String sql ? sql : preparedSql);
+            }
+            return invokeCommon(proxy, target, method, args);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+-- Run by Hibernate after create-drop builds the test schema (Flyway is off in tests): the parts of the migrations that name search needs
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_salesperson_name_trgm ON salesperson USING gist (name gist_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_client_name_trgm ON client USING gist (name gist_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_contractor_name_trgm ON contractor USING gist (name gist_trgm_ops);